@@ -0,0 +1,134 @@
+package FightingGame;
+
+import java.util.Arrays; // Defensive copies of the effect lists.
+
+/**
+ * Immutable definition of a special ability, parsed from abilities.properties.
+ * An ability is a cooldown and a short list of effects, each stored as an integer kind and
+ * its numeric arguments, so {@link AbilityManager} dispatches on an int instead of comparing
+ * names every time the ability is used. Definitions are shared by every fighter and match.
+ */
+public final class AbilityDefinition
+{
+    // Effect kinds. Their names in the data file are listed in EFFECT_NAMES, in the same order.
+    public static final int BOOST_NEXT_ATTACK = 0; // bonus
+    public static final int BOOST_ATTACK = 1; // multiplier, ms
+    public static final int SPEED_SURGE = 2; // multiplier, ms
+    public static final int AMPLIFY = 3; // multiplier, ms
+    public static final int STUN_OPPONENT = 4; // ms
+    public static final int TELEPORT = 5; // no arguments
+    public static final int HEAL_OVER_TIME = 6; // fraction of max health, ms
+    public static final int INVISIBLE = 7; // ms
+
+    private static final String[] EFFECT_NAMES =
+        { "boostNextAttack", "boostAttack", "speedSurge", "amplify", "stunOpponent", "teleport", "healOverTime", "invisible" };
+    private static final int[] EFFECT_ARGUMENTS = { 1, 2, 2, 2, 1, 0, 2, 1 };
+
+    private final int id; // Index in GameDefinitions' ability table.
+    private final String key; // Id used in the data files, e.g. "flame_rush".
+    private final String name; // Name shown to players, e.g. "Flame Rush".
+    private final long cooldownMs;
+    private final int[] effectKinds;
+    private final double[][] effectArguments;
+
+    /**
+     * Creates a definition. The effect arrays are copied.
+     *
+     * @param id              Index in the ability table.
+     * @param key             Id used in the data files.
+     * @param name            Name shown to players.
+     * @param cooldownMs      Milliseconds before the ability can be used again.
+     * @param effectKinds     Effect kind constants, applied in order.
+     * @param effectArguments Arguments of each effect.
+     */
+    public AbilityDefinition(int id, String key, String name, long cooldownMs, int[] effectKinds, double[][] effectArguments)
+    {
+        if (effectKinds.length != effectArguments.length)
+        {
+            throw new IllegalArgumentException("Every effect of " + key + " needs an argument list.");
+        }
+        this.id = id;
+        this.key = key.intern();
+        this.name = name.intern();
+        this.cooldownMs = cooldownMs;
+        this.effectKinds = effectKinds.clone();
+        this.effectArguments = new double[effectArguments.length][];
+        for (int i = 0; i < effectArguments.length; i++)
+        {
+            this.effectArguments[i] = effectArguments[i].clone();
+        }
+    }
+
+    /**
+     * Looks up an effect kind by its name in the data file.
+     *
+     * @param effectName E.g. "stunOpponent".
+     * @return The effect kind constant, or -1 if there is no such effect.
+     */
+    public static int effectKind(String effectName)
+    {
+        for (int kind = 0; kind < EFFECT_NAMES.length; kind++)
+        {
+            if (EFFECT_NAMES[kind].equals(effectName))
+            {
+                return kind;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns how many numeric arguments an effect kind takes.
+     */
+    public static int argumentCount(int kind)
+    {
+        return EFFECT_ARGUMENTS[kind];
+    }
+
+    public int getId()
+    {
+        return id;
+    }
+
+    public String getKey()
+    {
+        return key;
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    public long getCooldownMs()
+    {
+        return cooldownMs;
+    }
+
+    public int getEffectCount()
+    {
+        return effectKinds.length;
+    }
+
+    public int getEffectKind(int effect)
+    {
+        return effectKinds[effect];
+    }
+
+    /**
+     * Returns one argument of an effect.
+     *
+     * @param effect   Index of the effect within this ability.
+     * @param argument Index of the argument within the effect.
+     */
+    public double getArgument(int effect, int argument)
+    {
+        return effectArguments[effect][argument];
+    }
+
+    @Override
+    public String toString()
+    {
+        return name + " (" + key + ", cooldown " + cooldownMs + " ms, effects " + Arrays.toString(effectKinds) + ")";
+    }
+}
@@ -0,0 +1,122 @@
+package FightingGame;
+
+/**
+ * Simple scripted opponent that plays both sides of a headless match.
+ * Each fighter walks toward the other, attacks whenever it can, uses its special ability
+ * as soon as it is off cooldown, sometimes raises its shield against a wind-up and now and
+ * then charges a projectile. Decisions are re-made every {@link #REACTION_TICKS} ticks, as a
+ * human would, and every random choice comes from a generator seeded with the match, so a
+ * bot match is as reproducible as a recorded one.
+ */
+public class BotController implements MatchSimulation.InputSource, RollbackSession.LocalInput
+{
+    private static final int REACTION_TICKS = 6; // A tenth of a second at 60 ticks per second.
+    private static final double PREFERRED_DISTANCE = 80; // How close a bot tries to stand to its opponent.
+    private static final double SHIELD_CHANCE = 0.4; // Chance of shielding against a visible wind-up.
+    private static final double CHARGE_CHANCE = 0.05; // Chance per decision of starting a projectile charge.
+    private static final int MAX_CHARGE_DECISIONS = 10; // Longest charge, in decisions.
+
+    private final MatchRandom random; // The bots' own rolls; the match's generator is left untouched.
+    private final int[] chargeLeft = new int[2]; // Decisions until each bot releases its projectile (0 = not charging).
+    private final boolean[] pressedSpecial = new boolean[2]; // Whether the last decision pressed SPECIAL, to release it again.
+    private final long[] held = new long[2]; // Each bot's current decision.
+
+    /**
+     * Creates bots for both fighters.
+     *
+     * @param seed Seed for the bots' decisions, e.g. derived from the match seed.
+     */
+    public BotController(long seed)
+    {
+        this.random = new MatchRandom(seed);
+    }
+
+    @Override
+    public void supplyInputs(MatchSimulation match, long tick)
+    {
+        if (tick % REACTION_TICKS != 1)
+        {
+            return; // Keep holding the last decision.
+        }
+        match.setInput(0, inputFor(match, 0, tick));
+        match.setInput(1, inputFor(match, 1, tick));
+    }
+
+    /**
+     * Plays one side only, e.g. the remote player of a rollback test match.
+     */
+    @Override
+    public long inputFor(MatchSimulation match, int player, long tick)
+    {
+        if (tick % REACTION_TICKS == 1)
+        {
+            held[player] = decide(match, player);
+        }
+        return held[player];
+    }
+
+    // Chooses the actions one bot holds until its next decision.
+    private long decide(MatchSimulation match, int player)
+    {
+        Fighter self = match.getFighter(player);
+        Fighter opponent = match.getFighter(1 - player);
+        long input = 0;
+
+        // Close in on the opponent, keeping a little distance.
+        double dx = opponent.getX() - self.getX();
+        double dy = opponent.getY() - self.getY();
+        if (dx > PREFERRED_DISTANCE)
+        {
+            input |= PlayerInput.RIGHT;
+        }
+        else if (dx < -PREFERRED_DISTANCE)
+        {
+            input |= PlayerInput.LEFT;
+        }
+        if (dy > PREFERRED_DISTANCE / 2)
+        {
+            input |= PlayerInput.DOWN;
+        }
+        else if (dy < -PREFERRED_DISTANCE / 2)
+        {
+            input |= PlayerInput.UP;
+        }
+
+        // Hold a projectile charge for a while, then let it go.
+        if (chargeLeft[player] > 0)
+        {
+            chargeLeft[player]--;
+            if (chargeLeft[player] > 0)
+            {
+                input |= PlayerInput.PROJECTILE; // Releasing the key launches it.
+            }
+        }
+        else if (random.nextDouble() < CHARGE_CHANCE && match.getProjectilesRemaining(player) > 0)
+        {
+            chargeLeft[player] = 2 + (int) (random.nextDouble() * (MAX_CHARGE_DECISIONS - 1));
+            input |= PlayerInput.PROJECTILE;
+        }
+
+        // Use the special ability as soon as it is ready; the key is released on the next decision.
+        if (!pressedSpecial[player] && self.canUseSpecialAbility())
+        {
+            input |= PlayerInput.SPECIAL;
+            pressedSpecial[player] = true;
+        }
+        else
+        {
+            pressedSpecial[player] = false;
+        }
+
+        // Shield against some wind-ups; otherwise keep attacking (holding attack drops the shield).
+        if (opponent.isWindingUp() && self.isShieldAvailable() && random.nextDouble() < SHIELD_CHANCE)
+        {
+            input |= PlayerInput.SHIELD;
+        }
+        else
+        {
+            input |= PlayerInput.ATTACK;
+        }
+        return input;
+    }
+}
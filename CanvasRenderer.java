@@ -0,0 +1,142 @@
+package FightingGame;
+
+import javafx.scene.canvas.Canvas; // Single drawing surface for the whole arena.
+import javafx.scene.canvas.GraphicsContext; // Immediate-mode drawing commands for the canvas.
+import javafx.scene.paint.Color; // Colors for fighters, projectiles and bars.
+import javafx.scene.text.Font; // Font for the timer text.
+
+/**
+ * Draws a whole match onto one {@link Canvas} each frame.
+ * An alternative to the node renderer (a Group per character, a ProgressBar per bar and
+ * a Circle per projectile): everything is read straight from the {@link MatchSimulation}
+ * and drawn in a single pass, so JavaFX only has one node to lay out, style and repaint.
+ * Selected with the {@code renderer=canvas} setting in {@link GameConfig}.
+ */
+public class CanvasRenderer
+{
+    private static final Color BACKGROUND = Color.LIGHTGRAY; // Same as the node renderer's root pane.
+    private static final Color BAR_TRACK = Color.rgb(0, 0, 0, 0.15); // Empty part of a bar.
+    private static final Color WIND_UP_GLOW = Color.rgb(255, 0, 0, 0.35); // Shown while an attack winds up.
+    private static final Color SHIELD_GLOW = Color.rgb(0, 0, 255, 0.35); // Shown while a shield is up.
+    private static final Font TIMER_FONT = Font.font(18);
+
+    private final Canvas canvas; // The surface everything is drawn on.
+    private final GraphicsContext graphics; // Drawing commands for the canvas.
+    private final MatchSimulation simulation; // The match being drawn.
+    private final Color[] fighterColors; // Head color of each fighter, by index.
+
+    /**
+     * Creates a renderer for a match.
+     *
+     * @param simulation The match to draw.
+     * @param player1    The first player's character, for its color.
+     * @param player2    The second player's character, for its color.
+     */
+    public CanvasRenderer(MatchSimulation simulation, Character player1, Character player2)
+    {
+        this.simulation = simulation;
+        this.fighterColors = new Color[] { player1.getColor(), player2.getColor() };
+        this.canvas = new Canvas(MatchSimulation.ARENA_WIDTH, MatchSimulation.ARENA_HEIGHT);
+        this.graphics = canvas.getGraphicsContext2D();
+    }
+
+    public Canvas getCanvas()
+    {
+        return canvas;
+    }
+
+    /**
+     * Draws the arena, fighters and projectiles for the current frame. Call {@link #renderHud()} after it.
+     *
+     * @param alpha How far the frame is between the last two ticks, for smooth movement.
+     */
+    public void render(double alpha)
+    {
+        GraphicsContext g = graphics;
+        g.setFill(BACKGROUND);
+        g.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+
+        drawFighter(simulation.getFighter(0), fighterColors[0], alpha);
+        drawFighter(simulation.getFighter(1), fighterColors[1], alpha);
+        drawProjectiles(alpha);
+    }
+
+    // Draws a stick figure matching the node renderer's Group of a Circle and five Lines.
+    private void drawFighter(Fighter fighter, Color color, double alpha)
+    {
+        if (fighter.isInvisible())
+        {
+            return;
+        }
+
+        GraphicsContext g = graphics;
+        double x = fighter.getRenderX(alpha);
+        double y = fighter.getRenderY(alpha);
+        g.setGlobalAlpha(fighter.isStunned() ? 0.5 : 1.0);
+
+        // Glows are drawn as soft discs behind the figure instead of DropShadow effects.
+        if (fighter.isWindingUp())
+        {
+            g.setFill(WIND_UP_GLOW);
+            g.fillOval(x - 35, y - 35, 70, 70);
+        }
+        else if (fighter.isShieldActive())
+        {
+            g.setFill(SHIELD_GLOW);
+            g.fillOval(x - 30, y - 30, 60, 60);
+        }
+
+        g.setStroke(Color.BLACK);
+        g.setLineWidth(1);
+        g.strokeLine(x, y - 20, x, y + 20); // Body
+        g.strokeLine(x - 20, y, x + 20, y); // Arms
+        g.strokeLine(x - 10, y + 20, x, y + 30); // Left leg
+        g.strokeLine(x + 10, y + 20, x, y + 30); // Right leg
+        g.setFill(color);
+        g.fillOval(x - 15, y - 15, 30, 30); // Head
+
+        g.setGlobalAlpha(1.0);
+    }
+
+    // Draws every projectile in flight straight from the match's projectile arrays.
+    private void drawProjectiles(double alpha)
+    {
+        GraphicsContext g = graphics;
+        ProjectileStore projectiles = simulation.getProjectiles();
+        g.setFill(Color.DARKORANGE);
+        for (int i = 0; i < projectiles.getCount(); i++)
+        {
+            double radius = projectiles.getRadius(i);
+            g.fillOval(projectiles.getRenderX(i, alpha) - radius, projectiles.getRenderY(i, alpha) - radius,
+                2 * radius, 2 * radius);
+        }
+    }
+
+    /**
+     * Draws the health bars, shield bars and timer over the frame, in the same places as the node HUD.
+     */
+    public void renderHud()
+    {
+        Fighter player1 = simulation.getFighter(0);
+        Fighter player2 = simulation.getFighter(1);
+
+        drawBar(50, 20, 200, player1.getHealthPercentage(), Color.GREEN);
+        drawBar(350, 20, 200, player2.getHealthPercentage(), Color.GREEN);
+        drawBar(50, 80, 150, player1.getShieldLevel(), player1.getShieldLevel() > 0 ? Color.BLUE : Color.GRAY);
+        drawBar(400, 80, 150, player2.getShieldLevel(), player2.getShieldLevel() > 0 ? Color.BLUE : Color.GRAY);
+
+        graphics.setFill(Color.BLACK);
+        graphics.setFont(TIMER_FONT);
+        graphics.fillText("Time: " + (int) simulation.getTimeRemaining(), 270, 28);
+    }
+
+    // Draws a progress bar as a track with a filled portion.
+    private void drawBar(double x, double y, double width, double progress, Color color)
+    {
+        double height = 16;
+        graphics.setFill(BAR_TRACK);
+        graphics.fillRect(x, y, width, height);
+        graphics.setFill(color);
+        graphics.fillRect(x, y, width * Math.max(0, Math.min(1, progress)), height);
+    }
+}
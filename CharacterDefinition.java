@@ -0,0 +1,76 @@
+package FightingGame;
+
+/**
+ * Immutable definition of a playable character, parsed from characters.properties.
+ * One instance per character is shared by the selection screen and every match.
+ */
+public final class CharacterDefinition
+{
+    private final int id; // Position in the roster; identifies the character in replays.
+    private final String key; // Id used in the data files, e.g. "blaze".
+    private final String name; // Name shown to players.
+    private final int maxHealth;
+    private final int attackPower;
+    private final int defensePower;
+    private final AbilityDefinition ability; // The character's special ability.
+    private final String color; // Sprite color as a CSS color name or #rrggbb; parsed by the view.
+
+    public CharacterDefinition(int id, String key, String name, int maxHealth, int attackPower, int defensePower,
+                               AbilityDefinition ability, String color)
+    {
+        this.id = id;
+        this.key = key.intern();
+        this.name = name.intern();
+        this.maxHealth = maxHealth;
+        this.attackPower = attackPower;
+        this.defensePower = defensePower;
+        this.ability = ability;
+        this.color = color.intern();
+    }
+
+    public int getId()
+    {
+        return id;
+    }
+
+    public String getKey()
+    {
+        return key;
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    public int getMaxHealth()
+    {
+        return maxHealth;
+    }
+
+    public int getAttackPower()
+    {
+        return attackPower;
+    }
+
+    public int getDefensePower()
+    {
+        return defensePower;
+    }
+
+    public AbilityDefinition getAbility()
+    {
+        return ability;
+    }
+
+    public String getColor()
+    {
+        return color;
+    }
+
+    @Override
+    public String toString()
+    {
+        return name + " (" + maxHealth + " HP, " + attackPower + " attack, " + defensePower + " defense, " + ability.getName() + ")";
+    }
+}
@@ -24,17 +24,17 @@ public class CharacterSelectScreen
     private Label player2Selection; // Label to display Player 2's character selection
     private boolean player1Ready = false; // Tracks if Player 1 is ready
     private boolean player2Ready = false; // Tracks if Player 2 is ready
-    private Character player1Character; // Player 1's selected character
-    private Character player2Character; // Player 2's selected character
+    private CharacterDefinition player1Character; // Player 1's selected character
+    private CharacterDefinition player2Character; // Player 2's selected character
     private Button player1ReadyButton; // Button to mark Player 1 as ready
     private Button player2ReadyButton; // Button to mark Player 2 as ready
-    private BiConsumer<Character, Character> onReady; // Callback function for when both players are ready
+    private BiConsumer<CharacterDefinition, CharacterDefinition> onReady; // Callback function for when both players are ready
 
     /**
      * Sets the callback function to execute when both players are ready.
      * @param onReady A BiConsumer that accepts Player 1 and Player 2's characters.
      */
-    public void setOnReady(BiConsumer<Character, Character> onReady)
+    public void setOnReady(BiConsumer<CharacterDefinition, CharacterDefinition> onReady)
     {
         this.onReady = onReady;
     }
@@ -60,13 +60,13 @@ public class CharacterSelectScreen
         characterGrid.setHgap(10); // 10px horizontal spacing between cells
         characterGrid.setVgap(10); // 10px vertical spacing between cells
 
-        // Retrieve the list of characters and ensure all passive abilities are defined
-        List<Character> characters = CharacterRoster.getCharacters(); // Load all available characters
+        // Retrieve the shared character archetypes; nothing is built for a character until it is picked
+        List<CharacterDefinition> characters = CharacterRoster.getArchetypes(); // Load all available characters
 
         // Populate the grid with character buttons and passive labels
         for (int i = 0; i < characters.size(); i++)
         {
-            Character character = characters.get(i);
+            CharacterDefinition character = characters.get(i);
 
             // Create a vertical box for each character's button and passive label
             VBox characterBox = new VBox(5); // Vertical layout with 5px spacing
@@ -187,7 +187,7 @@ public class CharacterSelectScreen
      *
      * @param character The selected character that the player is attempting to choose.
      */
-    private void selectCharacter(Character character) 
+    private void selectCharacter(CharacterDefinition character) 
     {
         // Check if the character is already selected by either player
         if ((player1Character == character) || (player2Character == character))
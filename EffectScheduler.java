@@ -0,0 +1,274 @@
+package FightingGame;
+
+/**
+ * Tick-driven queue of timed effects for one match.
+ * Each pending effect is a small record (due tick, handle, amount, kind and target fighter)
+ * packed into five words, and the records form a binary min-heap ordered by due tick inside
+ * a fixed-size block, so scheduling, expiring and cancelling effects needs no threads and no
+ * allocation, and the pending effects are saved and restored along with the rest of the
+ * match. Only the first {@link #usedWords()} words of the block are meaningful.
+ * The match drains due effects at the start of every tick.
+ */
+public class EffectScheduler
+{
+    // Kinds of timed effect. The amount is interpreted by Fighter.applyEffect.
+    public static final int ATTACK_HIT = 0; // The wind-up ends and the attack lands.
+    public static final int ATTACK_RECOVERED = 1; // End lag is over; the fighter may attack again.
+    public static final int ATTACK_BONUS_END = 2; // Remove a flat attack bonus (amount = bonus).
+    public static final int ATTACK_MULTIPLIER_END = 3; // Remove an attack multiplier (amount = multiplier).
+    public static final int SPEED_MULTIPLIER_END = 4; // Remove a movement multiplier (amount = multiplier).
+    public static final int ATTACK_SPEED_END = 5; // Remove an attack speed multiplier (amount = multiplier).
+    public static final int STUN_END = 6; // One stun wears off.
+    public static final int INVISIBLE_END = 7; // One invisibility wears off.
+    public static final int HEAL = 8; // Restore health (amount = hit points).
+
+    // Layout of the block: a header, then one record per heap slot.
+    private static final int SIZE = 0; // Number of pending effects (int).
+    private static final int NEXT_HANDLE = 1; // Id given to the next scheduled effect (long).
+    private static final int DROPPED = 2; // Effects refused because the heap was full (long).
+    private static final int HEADER_WORDS = 3;
+    private static final int RECORD_WORDS = 5;
+    // Offsets within a record.
+    private static final int DUE_TICK = 0; // Tick on which the effect fires.
+    private static final int HANDLE = 1; // Unique id of the effect; also breaks ties in order of scheduling.
+    private static final int AMOUNT = 2; // Magnitude of the effect.
+    private static final int KIND = 3; // What the effect does (int).
+    private static final int TARGET = 4; // Index of the fighter the effect applies to (int).
+
+    private final int capacity; // Most effects that can be pending at once.
+    private final StateBlock state; // Header and heap records.
+
+    /**
+     * Creates an empty queue in a block of its own.
+     *
+     * @param capacity The most effects that can be pending at once.
+     */
+    public EffectScheduler(int capacity)
+    {
+        this(capacity, new StateBlock(stateWords(capacity)));
+    }
+
+    /**
+     * Creates an empty queue that lives in a given block, e.g. the end of a match's state.
+     *
+     * @param capacity The most effects that can be pending at once.
+     * @param state    At least {@link #stateWords(int)} words.
+     */
+    EffectScheduler(int capacity, StateBlock state)
+    {
+        if (capacity <= 0)
+        {
+            throw new IllegalArgumentException("Effect capacity must be positive.");
+        }
+        this.capacity = capacity;
+        this.state = state;
+        state.putInt(SIZE, 0);
+        state.putLong(NEXT_HANDLE, 1);
+        state.putLong(DROPPED, 0);
+    }
+
+    /**
+     * Returns the size of the block a queue of the given capacity needs, in words.
+     */
+    static int stateWords(int capacity)
+    {
+        return HEADER_WORDS + capacity * RECORD_WORDS;
+    }
+
+    // Position of a heap slot's record in the block.
+    private static int record(int index)
+    {
+        return HEADER_WORDS + index * RECORD_WORDS;
+    }
+
+    /**
+     * Receives effects as they come due.
+     */
+    public interface Handler
+    {
+        void fire(int kind, int target, double amount);
+    }
+
+    /**
+     * Queues an effect to fire on a given tick.
+     *
+     * @param kind    One of the effect kind constants.
+     * @param target  Index of the fighter the effect applies to.
+     * @param amount  Magnitude of the effect.
+     * @param dueTick The tick on which the effect fires.
+     * @return A handle that can be passed to {@link #cancel(long)}, or -1 if the queue is full.
+     */
+    public long schedule(int kind, int target, double amount, long dueTick)
+    {
+        int index = state.getInt(SIZE);
+        if (index == capacity)
+        {
+            state.putLong(DROPPED, state.getLong(DROPPED) + 1);
+            return -1;
+        }
+
+        long handle = state.getLong(NEXT_HANDLE);
+        state.putLong(NEXT_HANDLE, handle + 1);
+        state.putInt(SIZE, index + 1);
+        int at = record(index);
+        state.putLong(at + DUE_TICK, dueTick);
+        state.putLong(at + HANDLE, handle);
+        state.putDouble(at + AMOUNT, amount);
+        state.putInt(at + KIND, kind);
+        state.putInt(at + TARGET, target);
+        siftUp(index);
+        return handle;
+    }
+
+    /**
+     * Fires every effect due on or before the given tick, in the order they were due.
+     *
+     * @param tick    The current tick.
+     * @param handler Receives each due effect.
+     */
+    public void runDue(long tick, Handler handler)
+    {
+        int top = record(0);
+        while (state.getInt(SIZE) > 0 && state.getLong(top + DUE_TICK) <= tick)
+        {
+            int kind = state.getInt(top + KIND);
+            int target = state.getInt(top + TARGET);
+            double amount = state.getDouble(top + AMOUNT);
+            removeAt(0);
+            handler.fire(kind, target, amount); // May schedule follow-up effects.
+        }
+    }
+
+    /**
+     * Cancels a single pending effect.
+     *
+     * @param handle The handle returned by {@link #schedule}.
+     * @return True if the effect was still pending.
+     */
+    public boolean cancel(long handle)
+    {
+        int size = state.getInt(SIZE);
+        for (int i = 0; i < size; i++)
+        {
+            if (state.getLong(record(i) + HANDLE) == handle)
+            {
+                removeAt(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Cancels every pending effect, e.g. when a round ends.
+     */
+    public void cancelAll()
+    {
+        state.putInt(SIZE, 0);
+    }
+
+    public int size()
+    {
+        return state.getInt(SIZE);
+    }
+
+    public int getCapacity()
+    {
+        return capacity;
+    }
+
+    /**
+     * Returns how many effects were refused because the queue was full.
+     * Stays at zero unless the game data makes abilities queue far more effects than usual.
+     */
+    public long getDropped()
+    {
+        return state.getLong(DROPPED);
+    }
+
+    /**
+     * Returns how much of the block holds live data: the header and the pending effects.
+     */
+    int usedWords()
+    {
+        return record(state.getInt(SIZE));
+    }
+
+    // Removes the entry at an index and restores the heap order.
+    private void removeAt(int index)
+    {
+        int size = state.getInt(SIZE) - 1;
+        state.putInt(SIZE, size);
+        if (index == size)
+        {
+            return;
+        }
+        copy(size, index);
+        siftDown(index, size);
+        siftUp(index);
+    }
+
+    private void siftUp(int index)
+    {
+        while (index > 0)
+        {
+            int parent = (index - 1) >>> 1;
+            if (!before(index, parent))
+            {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index, int size)
+    {
+        while (true)
+        {
+            int left = 2 * index + 1;
+            if (left >= size)
+            {
+                return;
+            }
+            int child = left;
+            int right = left + 1;
+            if (right < size && before(right, left))
+            {
+                child = right;
+            }
+            if (!before(child, index))
+            {
+                return;
+            }
+            swap(index, child);
+            index = child;
+        }
+    }
+
+    // True if entry a fires before entry b.
+    private boolean before(int a, int b)
+    {
+        long dueA = state.getLong(record(a) + DUE_TICK);
+        long dueB = state.getLong(record(b) + DUE_TICK);
+        return dueA < dueB || (dueA == dueB && state.getLong(record(a) + HANDLE) < state.getLong(record(b) + HANDLE));
+    }
+
+    // Swaps two records, a word at a time.
+    private void swap(int a, int b)
+    {
+        int at = record(a);
+        int bt = record(b);
+        for (int word = 0; word < RECORD_WORDS; word++)
+        {
+            long value = state.getLong(at + word);
+            state.putLong(at + word, state.getLong(bt + word));
+            state.putLong(bt + word, value);
+        }
+    }
+
+    private void copy(int from, int to)
+    {
+        state.copyFrom(record(to), state, record(from), RECORD_WORDS);
+    }
+}
@@ -0,0 +1,824 @@
+package FightingGame;
+
+/**
+ * Plain-Java combat state for a single fighter in a match.
+ * A Fighter keeps position, health, shield and attack state at fixed offsets in a small
+ * block, which becomes a region of the match's state block when the match is created, so
+ * saving the match saves the fighter with it. It never touches the JavaFX scene graph, so
+ * a whole match can be simulated without a toolkit. The {@link Character} class is the
+ * on-screen view of a Fighter.
+ */
+public class Fighter
+{
+    private final CharacterDefinition archetype; // Shared, immutable stats and ability; everything below is this match's state.
+
+    private Fighter opponent; // The fighter this one is currently fighting.
+    private MatchSimulation match; // The match this fighter belongs to (provides the clock and effect scheduler).
+    private int index; // This fighter's slot in the match (0 or 1), used to target scheduled effects.
+
+    private StateBlock state; // Everything below; a region of the match's state block once in a match.
+
+    // Offsets of the fighter's state in its block.
+    private static final int X = 0; // Current X-coordinate in the arena (double).
+    private static final int Y = 1; // Current Y-coordinate in the arena (double).
+    private static final int PREVIOUS_X = 2; // X-coordinate at the start of the last tick, for render interpolation (double).
+    private static final int PREVIOUS_Y = 3; // Y-coordinate at the start of the last tick, for render interpolation (double).
+    private static final int HEALTH = 4; // Current health of the fighter (double).
+    private static final int ATTACK_MULTIPLIER = 5; // Attack multiplier from active effects (double).
+    private static final int ATTACK_SPEED_MULTIPLIER = 6; // Shortens wind-up and end lag while boosted (double).
+    private static final int SHIELD_LEVEL = 7; // Current shield strength, from 0.0 to 1.0 (double).
+    private static final int MOVEMENT_MULTIPLIER = 8; // Adjusts movement speed; changed by timed effects (double).
+    private static final int MOVEMENT_SPEED = 9; // Movement speed in pixels per second (double).
+    private static final int SHIELD_LAST_USED_TIME = 10; // Last time the shield was used (long).
+    private static final int LAST_SPECIAL_USED_TIME = 11; // Last time the special ability was used (long).
+    private static final int CHARGING_START_TIME = 12; // When projectile charging began, or -1 (long).
+    private static final int SPECIAL_ABILITY_COOLDOWN = 13; // Cooldown for special abilities in milliseconds (long).
+    private static final int MOVE_X = 14; // Horizontal movement requested for the next tick: -1, 0 or 1 (int).
+    private static final int MOVE_Y = 15; // Vertical movement requested for the next tick: -1, 0 or 1 (int).
+    private static final int ATTACK_BONUS = 16; // Flat attack bonus from active effects (int).
+    private static final int STUN_COUNT = 17; // Number of stuns currently affecting the fighter (int).
+    private static final int INVISIBLE_COUNT = 18; // Number of invisibility effects currently active (int).
+    private static final int IS_ATTACKING = 19; // Attacking or recovering from an attack (flag).
+    private static final int IS_WINDING_UP = 20; // In the wind-up before an attack lands (flag).
+    private static final int IS_SHIELD_AVAILABLE = 21; // The shield can be activated (flag).
+    private static final int IS_DISABLED = 22; // Disabled, e.g. defeated (flag).
+    private static final int IS_CHARGING = 23; // Charging a projectile (flag).
+    private static final int IS_SHIELD_ACTIVE = 24; // The shield is up (flag).
+    static final int STATE_WORDS = IS_SHIELD_ACTIVE + 1; // Size of a fighter's state.
+
+    // Bounding box of the stick-figure body relative to the fighter's position (arms, head and legs).
+    public static final double BODY_LEFT = -20;
+    public static final double BODY_RIGHT = 20;
+    public static final double BODY_TOP = -20;
+    public static final double BODY_BOTTOM = 30;
+
+    private static final long SHIELD_COOLDOWN = 5000; // Cooldown for reactivating the shield after the shield breaks.
+    private static final long ATTACK_DELAY_MS = 500; // Wind-up time for attacks in milliseconds.
+    private static final long END_LAG_MS = 1350; // Recovery lag after attacks in milliseconds.
+    private static final double SHIELD_REGEN_RATE = 0.21; // Shield regenerated per second.
+    private static final double SHIELD_DEPLETION_RATE = 0.348; // Shield drained per second while active.
+
+    /**
+     * Creates a fighter of the given character at the given arena position.
+     * The archetype is shared, so any number of matches can field the same character at once.
+     *
+     * @param archetype The character's stats and special ability.
+     * @param x         Starting X-coordinate.
+     * @param y         Starting Y-coordinate.
+     */
+    public Fighter(CharacterDefinition archetype, double x, double y)
+    {
+        this.archetype = archetype;
+        this.state = new StateBlock(STATE_WORDS); // Zeroed; only the non-zero starting values are set.
+        state.putDouble(HEALTH, archetype.getMaxHealth());
+        setPosition(x, y);
+        state.putDouble(ATTACK_MULTIPLIER, 1.0);
+        state.putDouble(ATTACK_SPEED_MULTIPLIER, 1.0);
+        state.putDouble(SHIELD_LEVEL, 1.0);
+        state.putDouble(MOVEMENT_MULTIPLIER, 1.0);
+        state.putDouble(MOVEMENT_SPEED, 180.0); // Default movement speed in pixels per second.
+        state.putLong(SHIELD_LAST_USED_TIME, -SHIELD_COOLDOWN);
+        state.putLong(CHARGING_START_TIME, -1);
+    }
+
+    /**
+     * Creates a fighter with the given stats at the given arena position, e.g. for benchmarks.
+     * The stats become a one-off archetype; an ability the game data does not define does nothing.
+     *
+     * @param name               The fighter's display name.
+     * @param maxHealth          Maximum (and starting) health.
+     * @param attackPower        Base damage of a basic attack.
+     * @param defensePower       Damage reduction applied to incoming attacks.
+     * @param specialAbilityName Name or data-file id of the special ability, looked up in {@link GameDefinitions}.
+     * @param x                  Starting X-coordinate.
+     * @param y                  Starting Y-coordinate.
+     */
+    public Fighter(String name, int maxHealth, int attackPower, int defensePower, String specialAbilityName, double x, double y)
+    {
+        this(new CharacterDefinition(-1, name, name, maxHealth, attackPower, defensePower,
+            resolveAbility(specialAbilityName), "gray"), x, y);
+    }
+
+    // Looks up an ability by name, standing in an ability without effects if there is none.
+    private static AbilityDefinition resolveAbility(String abilityName)
+    {
+        AbilityDefinition ability = GameDefinitions.current().findAbility(abilityName);
+        return ability != null ? ability : new AbilityDefinition(-1, abilityName, abilityName, 0, new int[0], new double[0][]);
+    }
+
+    /**
+     * Moves the fighter's state into a match's state block, keeping its current values.
+     *
+     * @param region The fighter's region of the match's block, {@link #STATE_WORDS} long.
+     */
+    void bindState(StateBlock region)
+    {
+        region.copyFrom(0, state, 0, STATE_WORDS);
+        state = region;
+    }
+
+    private boolean flag(int offset)
+    {
+        return state.getFlag(offset);
+    }
+
+    private void setFlag(int offset, boolean value)
+    {
+        state.putFlag(offset, value);
+    }
+
+    // Adds to an int counter and returns the new value.
+    private int addInt(int offset, int amount)
+    {
+        int value = state.getInt(offset) + amount;
+        state.putInt(offset, value);
+        return value;
+    }
+
+    // Returns the current time on the match clock, so timers follow simulated time rather than the wall clock.
+    private long now()
+    {
+        return match != null ? match.getTimeMillis() : 0;
+    }
+
+    /**
+     * Returns the time on the match clock, e.g. to pace visual effects with the simulation.
+     *
+     * @return Milliseconds since the match started, or 0 outside a match.
+     */
+    public long getMatchTimeMillis()
+    {
+        return now();
+    }
+
+    void setMatch(MatchSimulation match, int index)
+    {
+        // Binds this fighter to the match that drives its clock and timed effects.
+        this.match = match;
+        this.index = index;
+    }
+
+    // Prints a combat message unless the match runs quietly, e.g. inside a tournament.
+    void log(String message)
+    {
+        if (match == null || match.isVerbose())
+        {
+            System.out.println(message);
+        }
+    }
+
+    // Rolls a value from 0 to 1 on the match's generator, so the roll replays with the match's seed.
+    double nextRandom()
+    {
+        return match != null ? match.getRandom().nextDouble() : Math.random();
+    }
+
+    // Queues a timed effect on this fighter that fires after the given delay.
+    private long scheduleEffect(int kind, double amount, long delayMs)
+    {
+        return match.scheduleEffect(kind, index, amount, delayMs);
+    }
+
+    /**
+     * Returns the shared definition this fighter was created from.
+     */
+    public CharacterDefinition getArchetype()
+    {
+        return archetype;
+    }
+
+    public String getName()
+    {
+        return archetype.getName();
+    }
+
+    public String getSpecialAbilityName()
+    {
+        return archetype.getAbility().getName();
+    }
+
+    /**
+     * Returns the definition of this fighter's special ability.
+     */
+    public AbilityDefinition getSpecialAbility()
+    {
+        return archetype.getAbility();
+    }
+
+    public Fighter getOpponent()
+    {
+        return opponent;
+    }
+
+    public void setOpponent(Fighter opponent)
+    {
+        this.opponent = opponent;
+    }
+
+    public double getX()
+    {
+        return state.getDouble(X);
+    }
+
+    public double getY()
+    {
+        return state.getDouble(Y);
+    }
+
+    /**
+     * Places the fighter at a new position in the arena (used for spawning and teleports).
+     *
+     * @param x The new X-coordinate.
+     * @param y The new Y-coordinate.
+     */
+    public void setPosition(double x, double y)
+    {
+        state.putDouble(X, x);
+        state.putDouble(Y, y);
+        state.putDouble(PREVIOUS_X, x); // Jump straight there instead of sliding across the screen.
+        state.putDouble(PREVIOUS_Y, y);
+    }
+
+    /**
+     * Returns the X-coordinate to draw, blended between the last two ticks.
+     *
+     * @param alpha How far the frame is between the previous tick (0) and the current one (1).
+     * @return The interpolated X-coordinate.
+     */
+    public double getRenderX(double alpha)
+    {
+        double from = state.getDouble(PREVIOUS_X);
+        return from + (state.getDouble(X) - from) * alpha;
+    }
+
+    /**
+     * Returns the Y-coordinate to draw, blended between the last two ticks.
+     *
+     * @param alpha How far the frame is between the previous tick (0) and the current one (1).
+     * @return The interpolated Y-coordinate.
+     */
+    public double getRenderY(double alpha)
+    {
+        double from = state.getDouble(PREVIOUS_Y);
+        return from + (state.getDouble(Y) - from) * alpha;
+    }
+
+    public double getHealth()
+    {
+        return state.getDouble(HEALTH);
+    }
+
+    public double getMaxHealth()
+    {
+        return archetype.getMaxHealth();
+    }
+
+    public double getHealthPercentage()
+    {
+        return getHealth() / archetype.getMaxHealth();
+    }
+
+    public int getAttackPower()
+    {
+        // Active effects stack on top of the base value and are removed individually when they expire.
+        return (int) ((archetype.getAttackPower() + state.getInt(ATTACK_BONUS)) * state.getDouble(ATTACK_MULTIPLIER));
+    }
+
+    public double getDefensePower()
+    {
+        return archetype.getDefensePower();
+    }
+
+    public double getMovementSpeed()
+    {
+        return state.getDouble(MOVEMENT_SPEED);
+    }
+
+    public void setMovementSpeed(double movementSpeed)
+    {
+        state.putDouble(MOVEMENT_SPEED, movementSpeed);
+    }
+
+    public double getShieldLevel()
+    {
+        return state.getDouble(SHIELD_LEVEL);
+    }
+
+    public boolean isShieldActive()
+    {
+        return flag(IS_SHIELD_ACTIVE);
+    }
+
+    public boolean isShieldAvailable()
+    {
+        return flag(IS_SHIELD_AVAILABLE);
+    }
+
+    public boolean isAttacking()
+    {
+        return flag(IS_ATTACKING);
+    }
+
+    public boolean isWindingUp()
+    {
+        return flag(IS_WINDING_UP);
+    }
+
+    public boolean isStunned()
+    {
+        return state.getInt(STUN_COUNT) > 0;
+    }
+
+    public boolean isInvisible()
+    {
+        return state.getInt(INVISIBLE_COUNT) > 0;
+    }
+
+    /**
+     * Returns how many of this fighter's projectiles are in flight.
+     *
+     * @return The live projectile count, or 0 outside a match.
+     */
+    public int getProjectilesInFlight()
+    {
+        return match == null ? 0 : match.getProjectileCount(index);
+    }
+
+    // Requests movement up on the next tick.
+    public void moveUp()
+    {
+        state.putInt(MOVE_Y, -1);
+    }
+
+    // Requests movement down on the next tick.
+    public void moveDown()
+    {
+        state.putInt(MOVE_Y, 1);
+    }
+
+    // Requests movement left on the next tick.
+    public void moveLeft()
+    {
+        state.putInt(MOVE_X, -1);
+    }
+
+    // Requests movement right on the next tick.
+    public void moveRight()
+    {
+        state.putInt(MOVE_X, 1);
+    }
+
+    // Clears the requested movement (called before reading the keys each frame).
+    public void stopMoving()
+    {
+        state.putInt(MOVE_X, 0);
+        state.putInt(MOVE_Y, 0);
+    }
+
+    /**
+     * Moves the fighter in its requested direction for one tick, respecting the arena boundaries.
+     *
+     * @param tickSeconds Length of the tick in seconds.
+     */
+    void applyMovement(double tickSeconds)
+    {
+        double x = state.getDouble(X);
+        double y = state.getDouble(Y);
+        state.putDouble(PREVIOUS_X, x);
+        state.putDouble(PREVIOUS_Y, y);
+
+        double distance = state.getDouble(MOVEMENT_SPEED) * state.getDouble(MOVEMENT_MULTIPLIER) * tickSeconds;
+
+        // Only move along an axis if the new coordinate stays inside the arena boundaries.
+        double newX = x + state.getInt(MOVE_X) * distance;
+        if (newX >= MatchSimulation.BOUNDARY_LEFT && newX <= MatchSimulation.BOUNDARY_RIGHT)
+        {
+            state.putDouble(X, newX);
+        }
+
+        double newY = y + state.getInt(MOVE_Y) * distance;
+        if (newY >= MatchSimulation.BOUNDARY_TOP && newY <= MatchSimulation.BOUNDARY_BOTTOM)
+        {
+            state.putDouble(Y, newY);
+        }
+    }
+
+    /**
+     * Temporarily boosts the fighter's attack speed by shortening the attack delay
+     * and end lag for a specified duration.
+     *
+     * @param speedMultiplier The factor by which the attack speed is increased.
+     * @param duration        The duration (in milliseconds) for which the boost lasts.
+     */
+    public void boostAttackSpeed(double speedMultiplier, int duration)
+    {
+        state.putDouble(ATTACK_SPEED_MULTIPLIER, state.getDouble(ATTACK_SPEED_MULTIPLIER) * speedMultiplier);
+        scheduleEffect(EffectScheduler.ATTACK_SPEED_END, speedMultiplier, duration);
+    }
+
+    /**
+     * Adds a flat attack bonus for a specified duration.
+     *
+     * @param bonus    Attack power to add.
+     * @param duration The duration (in milliseconds) for which the bonus lasts.
+     */
+    public void boostAttackPower(int bonus, int duration)
+    {
+        addInt(ATTACK_BONUS, bonus);
+        scheduleEffect(EffectScheduler.ATTACK_BONUS_END, bonus, duration);
+    }
+
+    /**
+     * Multiplies attack power for a specified duration.
+     *
+     * @param multiplier The attack multiplier.
+     * @param duration   The duration (in milliseconds) for which the boost lasts.
+     */
+    public void multiplyAttackPower(double multiplier, int duration)
+    {
+        state.putDouble(ATTACK_MULTIPLIER, state.getDouble(ATTACK_MULTIPLIER) * multiplier);
+        scheduleEffect(EffectScheduler.ATTACK_MULTIPLIER_END, multiplier, duration);
+    }
+
+    /**
+     * Multiplies movement speed for a specified duration.
+     *
+     * @param multiplier The movement multiplier.
+     * @param duration   The duration (in milliseconds) for which the boost lasts.
+     */
+    public void multiplyMovementSpeed(double multiplier, int duration)
+    {
+        state.putDouble(MOVEMENT_MULTIPLIER, state.getDouble(MOVEMENT_MULTIPLIER) * multiplier);
+        scheduleEffect(EffectScheduler.SPEED_MULTIPLIER_END, multiplier, duration);
+    }
+
+    /**
+     * Stuns the fighter for a specified duration. Overlapping stuns each run their full length.
+     *
+     * @param duration The duration (in milliseconds) of the stun.
+     */
+    public void stun(int duration)
+    {
+        addInt(STUN_COUNT, 1);
+        log(getName() + " is now stunned.");
+        scheduleEffect(EffectScheduler.STUN_END, 0, duration);
+    }
+
+    /**
+     * Hides the fighter for a specified duration.
+     *
+     * @param duration The duration (in milliseconds) of the invisibility.
+     */
+    public void goInvisible(int duration)
+    {
+        addInt(INVISIBLE_COUNT, 1);
+        scheduleEffect(EffectScheduler.INVISIBLE_END, 0, duration);
+    }
+
+    /**
+     * Heals the fighter after a delay.
+     *
+     * @param amount Health to restore.
+     * @param delay  Delay in milliseconds before the heal lands.
+     */
+    public void healAfter(int amount, int delay)
+    {
+        scheduleEffect(EffectScheduler.HEAL, amount, delay);
+    }
+
+    /**
+     * Applies a timed effect that has come due. Called by the match's {@link EffectScheduler}.
+     *
+     * @param kind   One of the EffectScheduler kind constants.
+     * @param amount The magnitude the effect was scheduled with.
+     */
+    void applyEffect(int kind, double amount)
+    {
+        switch (kind)
+        {
+            case EffectScheduler.ATTACK_HIT:
+                landAttack();
+                break;
+            case EffectScheduler.ATTACK_RECOVERED:
+                setFlag(IS_ATTACKING, false); // Mark the fighter as ready for another attack.
+                log(getName() + " is ready to attack again!");
+                break;
+            case EffectScheduler.ATTACK_BONUS_END:
+                addInt(ATTACK_BONUS, -(int) amount);
+                log(getName() + "'s attack boost has ended.");
+                break;
+            case EffectScheduler.ATTACK_MULTIPLIER_END:
+                state.putDouble(ATTACK_MULTIPLIER, state.getDouble(ATTACK_MULTIPLIER) / amount);
+                log(getName() + "'s attack boost has ended.");
+                break;
+            case EffectScheduler.SPEED_MULTIPLIER_END:
+                state.putDouble(MOVEMENT_MULTIPLIER, state.getDouble(MOVEMENT_MULTIPLIER) / amount);
+                log(getName() + "'s speed boost has ended.");
+                break;
+            case EffectScheduler.ATTACK_SPEED_END:
+                state.putDouble(ATTACK_SPEED_MULTIPLIER, state.getDouble(ATTACK_SPEED_MULTIPLIER) / amount);
+                log(getName() + "'s attack speed boost has ended.");
+                break;
+            case EffectScheduler.STUN_END:
+                state.putInt(STUN_COUNT, Math.max(0, state.getInt(STUN_COUNT) - 1));
+                log(getName() + " is no longer stunned.");
+                break;
+            case EffectScheduler.INVISIBLE_END:
+                state.putInt(INVISIBLE_COUNT, Math.max(0, state.getInt(INVISIBLE_COUNT) - 1));
+                break;
+            case EffectScheduler.HEAL:
+                setHealth((int) (getHealth() + amount));
+                log(getName() + " healed " + (int) amount + " health.");
+                break;
+            default:
+                System.err.println("Unknown effect kind: " + kind);
+        }
+    }
+
+    // Begins the charging process for a projectile.
+    public void startCharging()
+    {
+        if (!flag(IS_CHARGING))
+        {
+            state.putLong(CHARGING_START_TIME, now()); // Record the time charging began
+            setFlag(IS_CHARGING, true); // Mark charging as active
+        }
+    }
+
+    /**
+     * Launches a charged projectile toward the opponent. The longer the charge,
+     * the larger and slower the projectile.
+     *
+     * @param opponent The fighter being targeted.
+     * @return True if a projectile was launched; false if the fighter was not charging,
+     *         is not in a match, or already has the maximum number of projectiles in flight.
+     */
+    public boolean launchChargedProjectile(Fighter opponent)
+    {
+        if (!flag(IS_CHARGING))
+        {
+            log(getName() + " is not charging and cannot launch a projectile.");
+            return false;
+        }
+
+        if (opponent == null || match == null)
+        {
+            System.err.println(getName() + " cannot launch a projectile without an opponent in a match.");
+            return false;
+        }
+
+        long chargingStartTime = state.getLong(CHARGING_START_TIME);
+        if (chargingStartTime == -1)
+        {
+            System.err.println(getName() + " attempted to launch a projectile without a valid charging state.");
+            return false;
+        }
+
+        long chargeDuration = now() - chargingStartTime; // Calculate the charge duration
+        state.putLong(CHARGING_START_TIME, -1); // Reset the charging state
+        setFlag(IS_CHARGING, false); // Mark charging as complete
+
+        double size = Math.min(10.0 + chargeDuration / 100.0, 50.0); // Maximum size = 50.0
+        double speed = Math.max(10.0 - chargeDuration / 500.0, 2.0); // Minimum speed = 2.0
+
+        return match.launchProjectile(index, getX(), getY(), opponent.getX(), opponent.getY(), size, speed);
+    }
+
+    /**
+     * Updates the shield state, including regeneration, depletion and cooldown.
+     *
+     * @param tickSeconds Length of the tick in seconds.
+     */
+    public void updateShieldState(double tickSeconds)
+    {
+        double shieldLevel = state.getDouble(SHIELD_LEVEL);
+        if (flag(IS_SHIELD_ACTIVE))
+        {
+            shieldLevel -= SHIELD_DEPLETION_RATE * tickSeconds; // Deplete the shield level at a constant rate.
+            if (shieldLevel <= 0)
+            {
+                deactivateShield(); // Turn off the shield.
+                shieldLevel = 0; // Ensure the shield level doesn't go negative.
+            }
+            state.putDouble(SHIELD_LEVEL, shieldLevel);
+        }
+        else if (shieldLevel < 1.0)
+        {
+            state.putDouble(SHIELD_LEVEL, Math.min(1.0, shieldLevel + SHIELD_REGEN_RATE * tickSeconds)); // Regenerate shield but cap at 100%.
+        }
+
+        // Check if the shield is available for activation after cooldown.
+        if (!flag(IS_SHIELD_AVAILABLE) && (now() - state.getLong(SHIELD_LAST_USED_TIME) >= SHIELD_COOLDOWN))
+        {
+            setFlag(IS_SHIELD_AVAILABLE, true);
+        }
+    }
+
+    // Raises the shield.
+    public void activateShield()
+    {
+        setFlag(IS_SHIELD_ACTIVE, true);
+    }
+
+    // Lowers the shield.
+    public void deactivateShield()
+    {
+        setFlag(IS_SHIELD_ACTIVE, false);
+    }
+
+    /**
+     * Deactivates the shield when the shield key is released.
+     */
+    public void releaseShieldKey()
+    {
+        if (flag(IS_SHIELD_ACTIVE))
+        {
+            deactivateShield();
+            state.putLong(SHIELD_LAST_USED_TIME, now()); // Record the time for cooldown tracking.
+        }
+    }
+
+    /**
+     * Executes a basic attack on the opponent after a short wind-up.
+     *
+     * @param opponent The opponent being attacked.
+     */
+    public void performAttack(Fighter opponent)
+    {
+        if (flag(IS_DISABLED))
+        {
+            log(getName() + " is stunned and cannot attack!");
+            return;
+        }
+
+        if (flag(IS_ATTACKING))
+        {
+            return; // Prevent attacks if already attacking or recovering.
+        }
+
+        log(getName() + " is winding up for an attack...");
+        setFlag(IS_ATTACKING, true);
+        setFlag(IS_WINDING_UP, true);
+
+        // The hit lands once the wind-up delay has passed on the match clock.
+        scheduleEffect(EffectScheduler.ATTACK_HIT, 0, (long) (ATTACK_DELAY_MS / state.getDouble(ATTACK_SPEED_MULTIPLIER)));
+    }
+
+    // Ends the wind-up: deals damage to the opponent and starts the recovery lag.
+    private void landAttack()
+    {
+        setFlag(IS_WINDING_UP, false);
+
+        if (opponent != null)
+        {
+            boolean boosted = state.getInt(ATTACK_BONUS) != 0 || state.getDouble(ATTACK_MULTIPLIER) != 1.0; // A special ability is powering this attack.
+            int damage = calculateDamage(); // Calculate the damage to be dealt.
+            double dealt = opponent.takeDamage(damage); // Apply damage to the opponent.
+            if (match != null)
+            {
+                match.getStats().recordDamage(index, boosted ? MatchStats.SPECIAL : MatchStats.ATTACK, dealt);
+            }
+            log(getName() + " attacked " + opponent.getName() + " for " + damage + " damage!");
+        }
+
+        scheduleEffect(EffectScheduler.ATTACK_RECOVERED, 0, (long) (END_LAG_MS / state.getDouble(ATTACK_SPEED_MULTIPLIER)));
+    }
+
+    /**
+     * Calculates the damage dealt during an attack, rolling for a critical hit or a miss
+     * on the match's generator.
+     *
+     * @return The amount of damage to be dealt.
+     */
+    public int calculateDamage()
+    {
+        Fighter target = this.opponent;
+        if (target == null)
+        {
+            System.err.println("Error: Opponent is null during damage calculation.");
+            return 0;
+        }
+
+        int baseDamage = getAttackPower();
+        double randomFactor = nextRandom(); // Roll for critical hits or misses on the match's generator.
+
+        if (randomFactor > 0.7)
+        { // 30% chance for a critical hit.
+            log(getName() + " landed a critical hit!");
+            return (int) (baseDamage * 1.15); // Critical hits 115% of the damage.
+        }
+
+        if (randomFactor < 0.1)
+        { // 10% chance for a missed attack.
+            log(getName() + " missed the attack!");
+            return 0;
+        }
+
+        // Ensure that the final damage is at least 18, even if the defense is higher than the base damage
+        int finalDamage = Math.max(18, baseDamage - (int) target.getDefensePower());
+        log(getName() + " dealt " + finalDamage + " damage to " + target.getName());
+        return finalDamage;
+    }
+
+    /**
+     * Applies damage to the fighter, considering shield mechanics.
+     * If the shield is active, it absorbs the damage instead of health.
+     *
+     * @param damage The amount of damage to be applied.
+     * @return The health actually lost; 0 if the shield absorbed the hit.
+     */
+    public double takeDamage(double damage)
+    {
+        if (flag(IS_SHIELD_ACTIVE))
+        {
+            double shieldReductionFactor = 1.0; // Factor by which the shield reduces incoming damage
+            double shieldDamage = damage * shieldReductionFactor;
+
+            double shieldLevel = state.getDouble(SHIELD_LEVEL) - shieldDamage / 100.0; // Reduce the shield level by the absorbed damage
+
+            if (shieldLevel <= 0)
+            {
+                shieldLevel = 0;
+                state.putDouble(SHIELD_LEVEL, shieldLevel);
+                deactivateShield();
+                log(getName() + "'s shield is broken!");
+            }
+            else
+            {
+                state.putDouble(SHIELD_LEVEL, shieldLevel);
+                log(getName() + "'s shield absorbed " + shieldDamage
+                    + " damage. Remaining shield: " + (shieldLevel * 100) + "%");
+            }
+            return 0; // Shield absorption prevents health damage
+        }
+
+        double health = state.getDouble(HEALTH);
+        double lost = Math.min(health, damage);
+        health = Math.max(0, health - damage); // Ensure health does not go below zero
+        state.putDouble(HEALTH, health);
+        log(getName() + " took " + damage + " damage. Remaining health: " + health);
+
+        if (health <= 0)
+        {
+            log(getName() + " has been defeated!");
+        }
+        return lost;
+    }
+
+    /**
+     * Executes the fighter's special ability if it is off cooldown.
+     *
+     * @param opponent The opponent who may be affected by the special ability.
+     */
+    public void performSpecialAbility(Fighter opponent)
+    {
+        if (canUseSpecialAbility())
+        {
+            log(getName() + " is using their special ability: " + getSpecialAbilityName());
+            AbilityManager.executeAbility(this, opponent);
+            state.putLong(LAST_SPECIAL_USED_TIME, now()); // Record the time when the ability was used to enforce cooldown
+            if (match != null)
+            {
+                match.getStats().recordAbilityUse(index);
+            }
+        }
+        else
+        {
+            long timeRemaining = (state.getLong(SPECIAL_ABILITY_COOLDOWN) - (now() - state.getLong(LAST_SPECIAL_USED_TIME))) / 1000;
+            log(getName() + "'s special ability is on cooldown! Cooldown time remaining: "
+                                + timeRemaining + " seconds.");
+        }
+    }
+
+    /**
+     * Checks if the fighter's special ability can be used.
+     *
+     * @return True if the special ability can be used, false otherwise.
+     */
+    public boolean canUseSpecialAbility()
+    {
+        return now() - state.getLong(LAST_SPECIAL_USED_TIME) >= state.getLong(SPECIAL_ABILITY_COOLDOWN);
+    }
+
+    /**
+     * Updates the fighter's health, clamped between 0 and max health.
+     *
+     * @param health The new health value.
+     */
+    public void setHealth(int health)
+    {
+        state.putDouble(HEALTH, Math.max(0, Math.min(health, archetype.getMaxHealth())));
+        log(getName() + "'s health is now: " + getHealth());
+    }
+
+    /**
+     * Sets the cooldown for the fighter's special ability.
+     *
+     * @param cooldown The cooldown duration in milliseconds.
+     */
+    public void setSpecialAbilityCooldown(int cooldown)
+    {
+        state.putLong(SPECIAL_ABILITY_COOLDOWN, cooldown);
+        state.putLong(LAST_SPECIAL_USED_TIME, now()); // Record the current time as the last time the ability was used
+    }
+}
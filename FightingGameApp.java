@@ -1,5 +1,8 @@
 package FightingGame;
 
+import java.io.IOException; // Thrown if a replay file cannot be read
+import java.nio.file.Paths; // Locates a replay file given on the command line
+
 import javafx.application.Application; // Base class for JavaFX applications 
 import javafx.geometry.Pos;
 import javafx.scene.Scene; // Represents the contents of a JavaFX stage
@@ -28,6 +31,23 @@ public class FightingGameApp extends Application
     {
         FightingGameApp.primaryStage = primaryStage; // Set the primary stage for the application
 
+        // --replay=<file> plays a recorded match straight away instead of showing the menus
+        String replayFile = getParameters().getNamed().get("replay");
+        if (replayFile != null)
+        {
+            try
+            {
+                ReplayReader replay = ReplayReader.read(Paths.get(replayFile));
+                GameApp.setPrimaryStage(primaryStage);
+                GameApp.startReplay(replay);
+                return;
+            }
+            catch (IOException e)
+            {
+                System.err.println("Could not load replay: " + e.getMessage());
+            }
+        }
+
         // Display the ASCII logo, then prompt the user to navigate to the next screen
         displayLogoWithColorChange(() ->
         {
@@ -169,7 +189,7 @@ public class FightingGameApp extends Application
      * @param player1Character The character selected by Player 1.
      * @param player2Character The character selected by Player 2.
      */
-    private void startGameWithCharacters(Character player1Character, Character player2Character)
+    private void startGameWithCharacters(CharacterDefinition player1Character, CharacterDefinition player2Character)
     {
         // Pass the characters to the game logic and begin the match
         GameApp.setPrimaryStage(primaryStage);
@@ -0,0 +1,57 @@
+package FightingGame;
+
+/**
+ * Turns variable frame times into a whole number of fixed simulation ticks.
+ * Leftover time is kept in an accumulator and exposed as an interpolation
+ * factor, so the view can draw smoothly between the last two ticks.
+ */
+public class FixedStepClock
+{
+    private static final double MAX_FRAME_SECONDS = 0.25; // Caps catch-up after a stall so the game never spirals.
+
+    private final double tickSeconds; // Length of one simulation tick.
+    private double accumulator = 0; // Frame time not yet consumed by a tick.
+
+    /**
+     * Creates a clock for the given tick rate.
+     *
+     * @param tickRate Simulation ticks per second.
+     */
+    public FixedStepClock(int tickRate)
+    {
+        if (tickRate <= 0)
+        {
+            throw new IllegalArgumentException("Tick rate must be positive: " + tickRate);
+        }
+        this.tickSeconds = 1.0 / tickRate;
+    }
+
+    /**
+     * Adds a frame's worth of time and returns how many ticks should run.
+     *
+     * @param frameSeconds Real time since the previous frame.
+     * @return The number of fixed ticks to simulate this frame.
+     */
+    public int advance(double frameSeconds)
+    {
+        accumulator += Math.min(Math.max(frameSeconds, 0), MAX_FRAME_SECONDS);
+        int ticks = (int) (accumulator / tickSeconds);
+        accumulator -= ticks * tickSeconds;
+        return ticks;
+    }
+
+    /**
+     * Returns how far the current frame is between the last tick and the next one.
+     *
+     * @return A value from 0 (just ticked) up to, but not including, 1.
+     */
+    public double getAlpha()
+    {
+        return accumulator / tickSeconds;
+    }
+
+    public double getTickSeconds()
+    {
+        return tickSeconds;
+    }
+}
@@ -0,0 +1,279 @@
+package FightingGame;
+
+import java.io.IOException; // Thrown if a dump file cannot be written.
+import java.io.Writer; // Destination of the CSV and JSON dumps.
+import java.lang.management.GarbageCollectorMXBean; // Reports accumulated GC time.
+import java.lang.management.ManagementFactory; // Looks up the JVM's management beans.
+import java.lang.management.ThreadMXBean; // Reports bytes allocated by the game thread.
+import java.util.List; // The JVM's garbage collectors.
+
+/**
+ * Low-overhead recorder of frame pacing.
+ * Keeps the last {@link #CAPACITY} frames in primitive ring buffers: frame interval, ticks
+ * run, time spent in each phase (input, projectile update, movement, HUD update, render),
+ * GC time and bytes allocated by the game thread. Recording a frame does not allocate;
+ * only the overlay text and the CSV/JSON dumps build strings.
+ */
+public class FrameMetrics
+{
+    public static final int CAPACITY = 600; // Frames kept (10 seconds at 60 fps).
+
+    // Phases of a frame. Input, projectile and movement time is summed over the frame's ticks.
+    public static final int PHASE_INPUT = 0; // Draining queued key events and applying inputs.
+    public static final int PHASE_PROJECTILES = 1; // Integrating, culling and colliding projectiles.
+    public static final int PHASE_MOVEMENT = 2; // Timed effects, fighter movement and shields.
+    public static final int PHASE_HUD = 3; // Bars and timer.
+    public static final int PHASE_RENDER = 4; // Fighters and projectiles drawn or synced to nodes.
+    public static final int PHASE_COUNT = 5;
+
+    private static final String[] PHASE_NAMES = { "input", "projectiles", "movement", "hud", "render" };
+
+    private final long[] frameNanos = new long[CAPACITY]; // Time since the previous frame started.
+    private final int[] ticks = new int[CAPACITY]; // Simulation ticks run in the frame.
+    private final long[][] phaseNanos = new long[PHASE_COUNT][CAPACITY]; // Time per phase.
+    private final long[] gcMillis = new long[CAPACITY]; // GC time accumulated during the frame.
+    private final long[] allocatedBytes = new long[CAPACITY]; // Bytes allocated by the game thread during the frame.
+    private int next = 0; // Slot the current frame is written to.
+    private int size = 0; // Frames recorded, up to CAPACITY.
+    private long frames = 0; // Frames recorded in total.
+
+    private final long[] currentPhaseNanos = new long[PHASE_COUNT]; // Phase time of the frame in progress.
+    private int currentTicks = 0;
+    private long frameStart = 0; // When the frame in progress started.
+    private long lastGcMillis; // Total GC time at the start of the frame.
+    private long lastAllocatedBytes; // Total bytes allocated by the game thread at the start of the frame.
+
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    private final com.sun.management.ThreadMXBean threads; // Null if the JVM cannot report allocations.
+
+    public FrameMetrics()
+    {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean
+            && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported())
+        {
+            threads = (com.sun.management.ThreadMXBean) bean;
+            threads.setThreadAllocatedMemoryEnabled(true);
+        }
+        else
+        {
+            threads = null;
+        }
+        lastGcMillis = totalGcMillis();
+        lastAllocatedBytes = allocatedByThisThread();
+    }
+
+    /**
+     * Starts a frame. Call on the game thread before any phase is timed.
+     *
+     * @param now The frame's timestamp from System.nanoTime().
+     */
+    public void beginFrame(long now)
+    {
+        frameNanos[next] = frameStart == 0 ? 0 : now - frameStart;
+        frameStart = now;
+    }
+
+    /**
+     * Adds time to a phase of the frame in progress.
+     *
+     * @param phase One of the PHASE constants.
+     * @param nanos Time spent in nanoseconds.
+     */
+    public void addPhase(int phase, long nanos)
+    {
+        currentPhaseNanos[phase] += nanos;
+    }
+
+    /**
+     * Counts one simulation tick in the frame in progress.
+     */
+    public void addTick()
+    {
+        currentTicks++;
+    }
+
+    /**
+     * Finishes the frame, sampling GC time and allocation, and stores it in the ring buffers.
+     */
+    public void endFrame()
+    {
+        for (int phase = 0; phase < PHASE_COUNT; phase++)
+        {
+            phaseNanos[phase][next] = currentPhaseNanos[phase];
+            currentPhaseNanos[phase] = 0;
+        }
+        ticks[next] = currentTicks;
+        currentTicks = 0;
+
+        long gc = totalGcMillis();
+        gcMillis[next] = gc - lastGcMillis;
+        lastGcMillis = gc;
+        long allocated = allocatedByThisThread();
+        allocatedBytes[next] = allocated - lastAllocatedBytes;
+        lastAllocatedBytes = allocated;
+
+        next = (next + 1) % CAPACITY;
+        size = Math.min(size + 1, CAPACITY);
+        frames++;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public long getFrames()
+    {
+        return frames;
+    }
+
+    /**
+     * Returns the average time of a phase over the recorded frames.
+     *
+     * @param phase One of the PHASE constants.
+     * @return Average nanoseconds per frame.
+     */
+    public double averagePhaseNanos(int phase)
+    {
+        long total = 0;
+        for (int i = 0; i < size; i++)
+        {
+            total += phaseNanos[phase][i];
+        }
+        return size == 0 ? 0 : (double) total / size;
+    }
+
+    /**
+     * Returns the longest frame interval among the recorded frames.
+     */
+    public long maxFrameNanos()
+    {
+        long max = 0;
+        for (int i = 0; i < size; i++)
+        {
+            max = Math.max(max, frameNanos[i]);
+        }
+        return max;
+    }
+
+    /**
+     * Returns the average frame interval among the recorded frames.
+     */
+    public double averageFrameNanos()
+    {
+        long total = 0;
+        for (int i = 0; i < size; i++)
+        {
+            total += frameNanos[i];
+        }
+        return size == 0 ? 0 : (double) total / size;
+    }
+
+    /**
+     * Builds the text of the on-screen overlay: frame pacing, tick budget, phases, GC and allocation.
+     *
+     * @param tickRate The match's ticks per second, for the tick budget.
+     * @return Several lines of text.
+     */
+    public String overlayText(int tickRate)
+    {
+        long gcTotal = 0;
+        long allocatedTotal = 0;
+        long frameTotal = 0;
+        long tickTotal = 0;
+        long simulationTotal = 0;
+        for (int i = 0; i < size; i++)
+        {
+            gcTotal += gcMillis[i];
+            allocatedTotal += allocatedBytes[i];
+            frameTotal += frameNanos[i];
+            tickTotal += ticks[i];
+            simulationTotal += phaseNanos[PHASE_INPUT][i] + phaseNanos[PHASE_PROJECTILES][i] + phaseNanos[PHASE_MOVEMENT][i];
+        }
+        double seconds = frameTotal / 1e9;
+        double budgetNanos = 1e9 / tickRate;
+        double tickNanos = tickTotal == 0 ? 0 : (double) simulationTotal / tickTotal;
+
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("frame avg %.2f ms  max %.2f ms%n", averageFrameNanos() / 1e6, maxFrameNanos() / 1e6));
+        text.append(String.format("tick %.3f ms (%.1f%% of budget)%n", tickNanos / 1e6, 100 * tickNanos / budgetNanos));
+        for (int phase = 0; phase < PHASE_COUNT; phase++)
+        {
+            text.append(String.format("%-12s %.3f ms%n", PHASE_NAMES[phase], averagePhaseNanos(phase) / 1e6));
+        }
+        text.append(String.format("gc %d ms  alloc %.2f MB/s", gcTotal,
+            seconds == 0 ? 0 : allocatedTotal / seconds / (1024 * 1024)));
+        return text.toString();
+    }
+
+    /**
+     * Writes the recorded frames, oldest first, as CSV with a header row. Times are in nanoseconds.
+     *
+     * @param out Where to write.
+     */
+    public void writeCsv(Writer out) throws IOException
+    {
+        out.write("frame_ns,ticks");
+        for (String name : PHASE_NAMES)
+        {
+            out.write("," + name + "_ns");
+        }
+        out.write(",gc_ms,allocated_bytes\n");
+
+        for (int i = 0; i < size; i++)
+        {
+            int slot = slotOf(i);
+            out.write(frameNanos[slot] + "," + ticks[slot]);
+            for (int phase = 0; phase < PHASE_COUNT; phase++)
+            {
+                out.write("," + phaseNanos[phase][slot]);
+            }
+            out.write("," + gcMillis[slot] + "," + allocatedBytes[slot] + "\n");
+        }
+    }
+
+    /**
+     * Writes the recorded frames, oldest first, as a JSON array of objects. Times are in nanoseconds.
+     *
+     * @param out Where to write.
+     */
+    public void writeJson(Writer out) throws IOException
+    {
+        out.write("[\n");
+        for (int i = 0; i < size; i++)
+        {
+            int slot = slotOf(i);
+            out.write("  {\"frame_ns\": " + frameNanos[slot] + ", \"ticks\": " + ticks[slot]);
+            for (int phase = 0; phase < PHASE_COUNT; phase++)
+            {
+                out.write(", \"" + PHASE_NAMES[phase] + "_ns\": " + phaseNanos[phase][slot]);
+            }
+            out.write(", \"gc_ms\": " + gcMillis[slot] + ", \"allocated_bytes\": " + allocatedBytes[slot] + "}");
+            out.write(i < size - 1 ? ",\n" : "\n");
+        }
+        out.write("]\n");
+    }
+
+    // Ring slot of the i-th oldest recorded frame.
+    private int slotOf(int i)
+    {
+        int oldest = size < CAPACITY ? 0 : next;
+        return (oldest + i) % CAPACITY;
+    }
+
+    private long totalGcMillis()
+    {
+        long total = 0;
+        for (int i = 0; i < collectors.size(); i++)
+        {
+            total += Math.max(0, collectors.get(i).getCollectionTime());
+        }
+        return total;
+    }
+
+    private long allocatedByThisThread()
+    {
+        return threads == null ? 0 : threads.getCurrentThreadAllocatedBytes();
+    }
+}
@@ -1,9 +1,13 @@
 package FightingGame;
 
-import java.util.HashSet; // Used for tracking active keys.       
-import java.util.Iterator; // For iterating through lists of projectiles.
+import java.io.IOException; // Thrown if the frame metrics file cannot be written.
+import java.io.Writer; // Writes the frame metrics file.
+import java.nio.file.Files; // Opens the frame metrics file.
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime; // Names replay files after the time the match started.
+import java.time.format.DateTimeFormatter;
 import java.util.List; // For managing lists of objects.
-import java.util.Set; // For handling unique key inputs.
 
 import javafx.animation.AnimationTimer; // For creating a game loop.
 import javafx.application.Platform; // Ensures UI updates occur on the JavaFX application thread.
@@ -11,7 +15,7 @@ import javafx.scene.Scene; // Represents the game window's content.
 import javafx.scene.control.Alert; // Displays pop-up alerts.
 import javafx.scene.control.Label; // For displaying text (e.g., timer).
 import javafx.scene.control.ProgressBar; // For health and shield visuals.
-import javafx.scene.input.KeyCode; // Represents keys pressed by the player.
+import javafx.scene.input.KeyCode; // Identifies the overlay toggle key.
 import javafx.scene.layout.Pane; // Root container for the game scene.
 import javafx.stage.Stage; // Represents the main game window.
 
@@ -24,8 +28,8 @@ public class GameApp
 {
 	
 	// Constants for arena dimensions
-    public static final int ARENA_WIDTH = 610;
-    public static final int ARENA_HEIGHT = 450;
+    public static final int ARENA_WIDTH = MatchSimulation.ARENA_WIDTH;
+    public static final int ARENA_HEIGHT = MatchSimulation.ARENA_HEIGHT;
 
     // Static fields for the primary stage and UI components
     private static Stage primaryStage; // The main game window
@@ -37,14 +41,24 @@ public class GameApp
     private static Label timerLabel; // Label to display the game timer
 
     // Constants for character boundaries
-    public static final double BOUNDARY_TOP = 100;
-    public static final double BOUNDARY_BOTTOM = 350;    
-    public static final double BOUNDARY_LEFT = 50;
-    public static final double BOUNDARY_RIGHT = 550;
+    public static final double BOUNDARY_TOP = MatchSimulation.BOUNDARY_TOP;
+    public static final double BOUNDARY_BOTTOM = MatchSimulation.BOUNDARY_BOTTOM;
+    public static final double BOUNDARY_LEFT = MatchSimulation.BOUNDARY_LEFT;
+    public static final double BOUNDARY_RIGHT = MatchSimulation.BOUNDARY_RIGHT;
 
     // Fields for tracking active keys and game state
-    private static Set<KeyCode> activeKeys = new HashSet<>(); // Tracks currently pressed keys
-    private static double timeRemaining = 200; // 300 seconds
+    private static InputBindings inputBindings = InputBindings.fromConfig(); // Maps held keys to each player's action bits
+    private static MatchSimulation simulation; // Headless state of the match being displayed
+    private static HudLayer hud; // Updates the node renderer's bars and timer only when they change
+    private static int[] hudBarIds = new int[4]; // HUD ids of the P1 health, P2 health, P1 shield and P2 shield bars
+    private static CanvasRenderer canvasRenderer; // Draws the match when the canvas renderer is selected; null for nodes
+    private static FrameMetrics frameMetrics; // Frame pacing and per-phase timings of the match being displayed
+    private static Label metricsOverlay; // Shows the frame metrics; toggled with F3
+    private static ReplayWriter replayWriter; // Records the live match; null during playback or if recording is off
+    private static boolean playingReplay; // True while a recorded match is shown; the keyboard then drives nobody
+    private static RollbackSession netSession; // Player 1's side of a loopback netplay match; null when playing locally
+    private static RollbackSession netOpponent; // The bot's side of the loopback match, with its own copy of the state
+    private static MatchSnapshot trainingState; // Training save state: F5 saves the match, F9 puts it back; null until first saved
 
     /**
      * Sets the primary stage for the application.
@@ -65,36 +79,106 @@ public class GameApp
      * @param player1 The first player's character.
      * @param player2 The second player's character.
      */
-    public static void startGameWithCharacters(Character player1, Character player2) 
+    public static void startGameWithCharacters(CharacterDefinition player1, CharacterDefinition player2) 
+    {
+        long seed = GameConfig.MATCH_SEED != 0 ? GameConfig.MATCH_SEED : MatchRandom.newSeed();
+        startMatch(player1, player2, GameConfig.TICK_RATE, seed, null);
+    }
+
+    /**
+     * Plays back a recorded match in the game window. The keyboard only toggles the metrics overlay.
+     *
+     * @param replay The decoded replay.
+     */
+    public static void startReplay(ReplayReader replay)
+    {
+        List<CharacterDefinition> roster = CharacterRoster.getArchetypes();
+        startMatch(roster.get(replay.getPick(0)), roster.get(replay.getPick(1)), replay.getTickRate(), replay.getSeed(), replay);
+    }
+
+    // Sets up the scene and starts a live match, or a recorded one when a replay is given.
+    private static void startMatch(CharacterDefinition pick1, CharacterDefinition pick2, int tickRate, long seed, ReplayReader replay)
     {
         // Create a new root pane for the game elements
         root = new Pane();
         root.setStyle("-fx-background-color: lightgray;"); // Set the background color of the game
 
-        // Set initial positions of Player 1 and Player 2 on the game screen
-        player1.getCharacterSprite().setLayoutX(100); // Position Player 1 towards the left
-        player1.getCharacterSprite().setLayoutY(200); // Position Player 1 vertically centered
-        player2.getCharacterSprite().setLayoutX(400); // Position Player 2 towards the right
-        player2.getCharacterSprite().setLayoutY(200); // Position Player 2 vertically centered
+        // Create this match's fighters from the picked archetypes: Player 1 towards the left, Player 2 towards the right
+        Character player1 = new Character(pick1, MatchSimulation.PLAYER1_START_X, MatchSimulation.START_Y);
+        Character player2 = new Character(pick2, MatchSimulation.PLAYER2_START_X, MatchSimulation.START_Y);
+        player1.syncView(0);
+        player2.syncView(0);
 
         // Assign each player an opponent for attack and ability interactions
         player1.setOpponent(player2);
         player2.setOpponent(player1);
 
-        // Initialize the health bars, shield bars, and game timer
-        setupHealthBars(player1, player2);
-        setupShieldBars(player1, player2);
-        setupTimerLabel();
+        // Create the headless match that owns the game state, and draw its projectiles
+        simulation = new MatchSimulation(player1.getFighter(), player2.getFighter(), tickRate, seed);
+        System.out.println("Match seed: " + seed + " (set matchSeed to replay its random rolls)");
+        inputBindings.releaseAll(); // Keys held on the selection screen do not carry into the match
+        playingReplay = replay != null;
+        netSession = null;
+        netOpponent = null;
+        trainingState = null;
+        if (playingReplay)
+        {
+            simulation.setInputSource(new ReplayPlayer(replay)); // Recorded inputs drive both fighters
+            replayWriter = null;
+        }
+        else if ("loopback".equalsIgnoreCase(GameConfig.NETPLAY))
+        {
+            startLoopbackNetplay(pick1, pick2, seed); // Player 2 is a bot across a simulated network
+        }
+        else
+        {
+            startRecording(seed, player1, player2);
+        }
 
-        // Add game elements (characters and timer) to the UI
-        root.getChildren().addAll(
-            player1.getCharacterSprite(),
-            player2.getCharacterSprite(),
-            timerLabel
-        );
+        if ("canvas".equalsIgnoreCase(GameConfig.RENDERER))
+        {
+            // Draw everything onto a single canvas instead of one node per object
+            canvasRenderer = new CanvasRenderer(simulation, player1, player2);
+            hud = null;
+            root.getChildren().add(canvasRenderer.getCanvas());
+        }
+        else
+        {
+            canvasRenderer = null;
+
+            // Initialize the health bars, shield bars, and game timer
+            setupHealthBars(player1, player2);
+            setupShieldBars(player1, player2);
+            setupTimerLabel();
+
+            // Add game elements (characters and timer) to the UI
+            root.getChildren().addAll(
+                player1.getCharacterSprite(),
+                player2.getCharacterSprite(),
+                timerLabel
+            );
+            ProjectileManager.attach(simulation); // Pre-creates the projectile sprites on top of the fighters
+
+            // Hand every bar and the timer to the retained HUD
+            hud = new HudLayer();
+            hudBarIds[0] = hud.addBar(player1HealthBar, HudLayer.HEALTH_BAR, HudLayer.DEPLETED);
+            hudBarIds[1] = hud.addBar(player2HealthBar, HudLayer.HEALTH_BAR, HudLayer.DEPLETED);
+            hudBarIds[2] = hud.addBar(player1ShieldBar, HudLayer.SHIELD_BAR, HudLayer.DEPLETED);
+            hudBarIds[3] = hud.addBar(player2ShieldBar, HudLayer.SHIELD_BAR, HudLayer.DEPLETED);
+            hud.setTimerLabel(timerLabel);
+        }
+
+        // Record frame and tick timings, shown on top of everything when the overlay is on
+        frameMetrics = new FrameMetrics();
+        simulation.setMetrics(frameMetrics);
+        setupMetricsOverlay();
 
         // Create the game scene and configure key handlers for controls
         Scene scene = new Scene(root, ARENA_WIDTH, ARENA_HEIGHT);
+        if (hud != null)
+        {
+            hud.applyStylesheet(scene); // Bar colors come from hud.css pseudo-classes
+        }
         setupKeyHandlers(scene, player1, player2);
 
         // Start the game loop and initialize the round manager
@@ -108,43 +192,21 @@ public class GameApp
     /**
      * Updates the health and shield bars for both players.
      * This ensures that UI elements accurately reflect each player's current status.
+     * The HUD only touches a bar when its fill or color would visibly change.
      *
      * @param player1 The first player's character.
      * @param player2 The second player's character.
      */
     public static void updateBars(Character player1, Character player2) 
     {
-        // Update each player's shield status based on the current time
-        player1.updateShieldState(System.currentTimeMillis());
-        player2.updateShieldState(System.currentTimeMillis());
-
-        // Update Player 1's shield bar if it exists
-        if (player1ShieldBar != null) 
+        if (hud == null)
         {
-            player1ShieldBar.setProgress(player1.getShieldLevel()); // Set the shield bar value
-            player1ShieldBar.setStyle(player1.getShieldLevel() > 0 ? "-fx-accent: blue;" : "-fx-accent: gray;"); // Update color based on shield status
-        }
-
-        // Update Player 2's shield bar if it exists
-        if (player2ShieldBar != null) 
-        {
-            player2ShieldBar.setProgress(player2.getShieldLevel()); // Set the shield bar value
-            player2ShieldBar.setStyle(player2.getShieldLevel() > 0 ? "-fx-accent: blue;" : "-fx-accent: gray;"); // Update color based on shield status
-        }
-
-        // Update Player 1's health bar if it exists
-        if (player1HealthBar != null) 
-        {
-            player1HealthBar.setProgress(player1.getHealthPercentage()); // Set the health bar value
-            player1HealthBar.setStyle(player1.getHealthPercentage() > 0 ? "-fx-accent: green;" : "-fx-accent: red;"); // Change color based on health status
-        }
-
-        // Update Player 2's health bar if it exists
-        if (player2HealthBar != null)
-        {
-            player2HealthBar.setProgress(player2.getHealthPercentage()); // Set the health bar value
-            player2HealthBar.setStyle(player2.getHealthPercentage() > 0 ? "-fx-accent: green;" : "-fx-accent: red;"); // Change color based on health status
+            return; // The canvas renderer draws its own bars
         }
+        hud.setBar(hudBarIds[0], player1.getHealthPercentage(), player1.getHealthPercentage() <= 0); // Player 1 health, red when empty
+        hud.setBar(hudBarIds[1], player2.getHealthPercentage(), player2.getHealthPercentage() <= 0); // Player 2 health, red when empty
+        hud.setBar(hudBarIds[2], player1.getShieldLevel(), player1.getShieldLevel() <= 0); // Player 1 shield, gray when empty
+        hud.setBar(hudBarIds[3], player2.getShieldLevel(), player2.getShieldLevel() <= 0); // Player 2 shield, gray when empty
     }
 
 
@@ -158,7 +220,6 @@ public class GameApp
             player1ShieldBar.setPrefWidth(150); // Set the width of the shield bar
             player1ShieldBar.setLayoutX(50); // Position the shield bar near the left side of the screen
             player1ShieldBar.setLayoutY(80); // Position the shield bar below Player 1's health bar
-            player1ShieldBar.setStyle("-fx-accent: blue;"); // Set the color of the shield bar to blue
             root.getChildren().add(player1ShieldBar); // Add Player 1's shield bar to the root pane
         }
 
@@ -169,7 +230,6 @@ public class GameApp
             player2ShieldBar.setPrefWidth(150); // Set the width of the shield bar
             player2ShieldBar.setLayoutX(400); // Position the shield bar near the right side of the screen
             player2ShieldBar.setLayoutY(80); // Position the shield bar below Player 2's health bar
-            player2ShieldBar.setStyle("-fx-accent: blue;"); // Set the color of the shield bar to blue
             root.getChildren().add(player2ShieldBar); // Add Player 2's shield bar to the root pane
         }
     }
@@ -188,118 +248,127 @@ public class GameApp
         timerLabel.setStyle("-fx-font-size: 18px; -fx-text-fill: black;"); // Set font size and color
     }
 
-    // Handles movement inputs for Player 1 and Player 2 based on active keys
-    private static void handlePlayerMovement(Character player1, Character player2)
+    // Links the match to a bot that runs its own copy of it on the far side of a simulated network.
+    // Both sides use rollback, so the keyboard drives Player 1 without waiting for the network.
+    private static void startLoopbackNetplay(CharacterDefinition pick1, CharacterDefinition pick2, long seed)
+    {
+        replayWriter = null; // Re-simulated ticks would be recorded again
+        LoopbackTransport[] link = LoopbackTransport.createPair(GameConfig.NET_LATENCY_MS, GameConfig.NET_JITTER_MS,
+            GameConfig.NET_LOSS, seed, System::nanoTime);
+        netSession = new RollbackSession(simulation, 0, link[0]);
+
+        MatchSimulation remoteMatch = new MatchSimulation(
+            new Fighter(pick1, MatchSimulation.PLAYER1_START_X, MatchSimulation.START_Y),
+            new Fighter(pick2, MatchSimulation.PLAYER2_START_X, MatchSimulation.START_Y),
+            simulation.getTickRate(), seed);
+        remoteMatch.setVerbose(false); // The local copy prints the match messages
+        netOpponent = new RollbackSession(remoteMatch, 1, link[1]);
+        netOpponent.setLocalInput(new BotController(~seed));
+        System.out.println("Loopback netplay: " + GameConfig.NET_LATENCY_MS + " ms latency, " + GameConfig.NET_JITTER_MS
+            + " ms jitter, " + Math.round(GameConfig.NET_LOSS * 100) + "% loss.");
+    }
+
+    // Starts recording the match to the replay folder; the match still runs if the file cannot be created
+    private static void startRecording(long seed, Character player1, Character player2)
     {
-        // Check if Player 1 is valid
-        if (player1 != null) 
+        replayWriter = null;
+        if (GameConfig.REPLAY_DIR.isEmpty())
         {
-            // If 'W' key is pressed, move Player 1 up
-            if (activeKeys.contains(KeyCode.W)) 
-            {
-                player1.handleInput("UP", ARENA_WIDTH, ARENA_HEIGHT);
-            }
-            // If 'S' key is pressed, move Player 1 down
-            if (activeKeys.contains(KeyCode.S)) 
-            {
-                player1.handleInput("DOWN", ARENA_WIDTH, ARENA_HEIGHT);
-            }
-            // If 'A' key is pressed, move Player 1 left
-            if (activeKeys.contains(KeyCode.A)) 
-            {
-                player1.handleInput("LEFT", ARENA_WIDTH, ARENA_HEIGHT);
-            }
-            // If 'D' key is pressed, move Player 1 right
-            if (activeKeys.contains(KeyCode.D)) 
-            {
-                player1.handleInput("RIGHT", ARENA_WIDTH, ARENA_HEIGHT);
-            }
+            return; // Recording is turned off
         }
-
-        // Check if Player 2 is valid
-        if (player2 != null) 
+        try
         {
-            // If the 'UP' arrow key is pressed, move Player 2 up
-            if (activeKeys.contains(KeyCode.UP)) 
-            {
-                player2.handleInput("UP", ARENA_WIDTH, ARENA_HEIGHT);
-            }
-            // If the 'DOWN' arrow key is pressed, move Player 2 down
-            if (activeKeys.contains(KeyCode.DOWN)) 
-            {
-                player2.handleInput("DOWN", ARENA_WIDTH, ARENA_HEIGHT);
-            }
-            // If the 'LEFT' arrow key is pressed, move Player 2 left
-            if (activeKeys.contains(KeyCode.LEFT)) 
-            {
-                player2.handleInput("LEFT", ARENA_WIDTH, ARENA_HEIGHT);
-            }
-            // If the 'RIGHT' arrow key is pressed, move Player 2 right
-            if (activeKeys.contains(KeyCode.RIGHT)) 
-            {
-                player2.handleInput("RIGHT", ARENA_WIDTH, ARENA_HEIGHT);
-            }
+            Path folder = Paths.get(GameConfig.REPLAY_DIR);
+            Files.createDirectories(folder);
+            String name = "match-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".sovr";
+            replayWriter = new ReplayWriter(folder.resolve(name), seed, simulation.getTickRate(),
+                player1.getFighter().getArchetype().getId(), player2.getFighter().getArchetype().getId());
+            simulation.setReplayWriter(replayWriter);
         }
+        catch (IOException e)
+        {
+            System.err.println("Could not record a replay: " + e.getMessage());
+        }
+    }
+
+    // Sets up the frame metrics overlay in the top-left corner
+    private static void setupMetricsOverlay()
+    {
+        metricsOverlay = new Label();
+        metricsOverlay.setLayoutX(5);
+        metricsOverlay.setLayoutY(110); // Below Player 1's bars
+        metricsOverlay.setStyle("-fx-font-family: monospace; -fx-font-size: 11px; -fx-text-fill: white; -fx-background-color: rgba(0, 0, 0, 0.6);");
+        metricsOverlay.setMouseTransparent(true);
+        metricsOverlay.setVisible(GameConfig.METRICS_OVERLAY);
+        root.getChildren().add(metricsOverlay);
     }
 
     // Sets up key handlers for the game scene
     private static void setupKeyHandlers(Scene scene, Character player1, Character player2) 
     {
-        // Key pressed handler
+        // Key pressed handler: queue the bound actions with a timestamp; the match applies them on its next tick
         scene.setOnKeyPressed(event -> 
         {
-            activeKeys.add(event.getCode()); // Add the pressed key to the activeKeys set
-
-            // Handle shield activation
-            if (event.getCode() == KeyCode.Z) 
-            { // If 'Z' key is pressed, activate Player 1's shield
-                player1.activateShield();
+            if (event.getCode() == KeyCode.F3)
+            {
+                metricsOverlay.setVisible(!metricsOverlay.isVisible()); // Show or hide the frame metrics
+                return;
             }
-            if (event.getCode() == KeyCode.M) 
-            { // If 'M' key is pressed, activate Player 2's shield
-                player2.activateShield();
+            if (playingReplay)
+            {
+                return; // The replay supplies every input
             }
-
-            handlePlayerActions(player1, player2); // Handle player-specific actions (attack, special ability, etc.)
+            if ((event.getCode() == KeyCode.F5 || event.getCode() == KeyCode.F9) && netSession == null)
+            {
+                useTrainingState(event.getCode() == KeyCode.F5); // Both sides of a netplay match would have to agree
+                return;
+            }
+            inputBindings.keyPressed(event.getCode(), localInputQueue(), System.nanoTime());
         });
 
-        // Key released handler
+        // Key released handler: queue the released actions
         scene.setOnKeyReleased(event -> 
         {
-            activeKeys.remove(event.getCode()); // Remove the released key from the activeKeys set
-
-            // Handle shield deactivation
-            if (event.getCode() == KeyCode.Z) 
-            { // If 'Z' key is released, deactivate Player 1's shield
-                player1.releaseShieldKey();
-            }
-            if (event.getCode() == KeyCode.M) 
-            { // If 'M' key is released, deactivate Player 2's shield
-                player2.releaseShieldKey();
-            }
-
-            // Handle projectile release for Player 1
-            if (event.getCode() == KeyCode.V && player1.isProjectileKeyPressed())
+            if (!playingReplay)
             {
-                Projectile projectile = player1.launchChargedProjectile(player2); // Launch the projectile at Player 2
-                player1.setProjectileKeyPressed(false); // Reset the key press state
-                if (projectile != null)
-                {
-                    ProjectileManager.addProjectile(projectile); // Add the projectile to the game
-                }
+                inputBindings.keyReleased(event.getCode(), localInputQueue(), System.nanoTime());
             }
+        });
+    }
 
-            // Handle projectile release for Player 2
-            if (event.getCode() == KeyCode.L && player2.isProjectileKeyPressed()) 
+    // Saves the match for training, or resets it to the saved state. Either is one copy of the match's state block.
+    private static void useTrainingState(boolean save)
+    {
+        if (save)
+        {
+            if (trainingState == null)
             {
-                Projectile projectile = player2.launchChargedProjectile(player1); // Launch the projectile at Player 1
-                player2.setProjectileKeyPressed(false); // Reset the key press state
-                if (projectile != null) 
-                {
-                    ProjectileManager.addProjectile(projectile); // Add the projectile to the game
-                }
+                trainingState = new MatchSnapshot(simulation);
             }
-        });
+            simulation.saveState(trainingState);
+            System.out.println("Training state saved at " + (int) simulation.getTimeRemaining() + " s left (F9 to return to it).");
+            return;
+        }
+        if (trainingState == null)
+        {
+            return; // Nothing saved yet
+        }
+
+        // The replay ends here: from now on the match no longer follows from its recorded inputs alone
+        if (replayWriter != null)
+        {
+            replayWriter.recordEnd(simulation.getTickCount());
+            simulation.setReplayWriter(null);
+        }
+        simulation.restoreState(trainingState);
+        simulation.setInput(0, inputBindings.getState(0)); // Keys held right now keep acting
+        simulation.setInput(1, inputBindings.getState(1));
+    }
+
+    // Returns the queue key events go to: the match's own, or the rollback session's in netplay
+    private static InputRingBuffer localInputQueue()
+    {
+        return netSession != null ? netSession.getLocalInputQueue() : simulation.getInputQueue();
     }
 
     /**
@@ -321,150 +390,145 @@ public class GameApp
                 double deltaTime = (now - previousTime) / 1e9; // Time difference in seconds.
                 previousTime = now;
 
-                timeRemaining -= deltaTime; // Decrease the remaining time for the round.
-                if (timeRemaining <= 0)
+                frameMetrics.beginFrame(now);
+                double alpha;
+                if (netSession != null)
                 {
-                    endGame(player1, player2, roundManager); // End the game if time runs out.
-                    stop(); // Stop the game loop.
-                    return;
+                    // Correct any mispredicted ticks, then run the new ones; the bot's side does the same.
+                    netSession.step(deltaTime);
+                    netOpponent.step(deltaTime);
+                    alpha = netSession.getInterpolationAlpha();
                 }
-
-                timerLabel.setText("Time: " + (int) timeRemaining); // Update the timer label.
-
-                // Safely update projectiles.
-                synchronized (ProjectileManager.getActiveProjectiles())
+                else
                 {
-                    Iterator<Projectile> iterator = ProjectileManager.getActiveProjectiles().iterator();
-                    while (iterator.hasNext()) 
-                    {
-                        Projectile projectile = iterator.next();
-                        projectile.updatePosition(deltaTime); // Update the projectile's position.
-
-                        // Remove projectiles that are out of bounds.
-                        if (isOutOfBounds(projectile)) 
-                        {
-                            iterator.remove(); // Remove the projectile from the list.
-                            ProjectileManager.removeProjectile(projectile); // Remove the projectile from the manager.
-                        }
-                    }
+                    simulation.step(deltaTime); // Run as many fixed ticks as fit in this frame; the match times their phases.
+                    alpha = simulation.getInterpolationAlpha();
                 }
 
-                handlePlayerMovement(player1, player2); // Process player movement.
-                updateBars(player1, player2); // Update health and shield bars.
+                // Draw the new state, blended between the last two ticks.
+                long renderStart = System.nanoTime();
+                long hudStart;
+                if (canvasRenderer != null)
+                {
+                    canvasRenderer.render(alpha); // One batched pass over the whole match.
+                    hudStart = System.nanoTime();
+                    canvasRenderer.renderHud();
+                }
+                else
+                {
+                    player1.syncView(alpha);
+                    player2.syncView(alpha);
+                    ProjectileManager.syncSprites(alpha);
+                    hudStart = System.nanoTime();
+                    updateBars(player1, player2); // Update health and shield bars.
+                    hud.setTimer((int) simulation.getTimeRemaining()); // Update the timer label.
+                    hud.endFrame();
+                }
+                long hudEnd = System.nanoTime();
+                simulation.getLatency().frameRendered(hudEnd); // The frame now shows every input applied so far.
+                frameMetrics.addPhase(FrameMetrics.PHASE_RENDER, hudStart - renderStart);
+                frameMetrics.addPhase(FrameMetrics.PHASE_HUD, hudEnd - hudStart);
+                frameMetrics.endFrame();
+
+                // Refresh the overlay four times a second; building its text is the only part that allocates.
+                if (metricsOverlay.isVisible() && frameMetrics.getFrames() % 15 == 0)
+                {
+                    metricsOverlay.setText(frameMetrics.overlayText(simulation.getTickRate()));
+                }
 
-                // Check for victory conditions.
-                if (player1.getHealth() <= 0 || player2.getHealth() <= 0)
+                // Check for victory conditions or the timer running out.
+                // In netplay, only once both sides have every input up to the end, so neither result can still change.
+                if (netSession != null ? netSession.isFinished() && netOpponent.isFinished() : simulation.isOver())
                 {
-                    endGame(player1, player2, roundManager); // End the game if a player is defeated.
+                    endGame(player1, player2, roundManager); // End the game.
                     stop(); // Stop the game loop.
                 }
             }
         };
 
-        timeRemaining = 200; // Initialize the game timer to 200 seconds.
         gameLoop.start(); // Start the game loop.
     }
     
 
-    /**
-     * Checks if a projectile is out of the game arena's bounds.
-     * 
-     * @param projectile The projectile to check.
-     * @return True if the projectile is out of bounds, false otherwise.
-     */
-    private static boolean isOutOfBounds(Projectile projectile)
-    {
-        double x = projectile.getSprite().getLayoutX(); // Get the X position of the projectile.
-        double y = projectile.getSprite().getLayoutY(); // Get the Y position of the projectile.
-        // Check if the projectile is outside the defined arena boundaries.
-        return x < 0 || x > ARENA_WIDTH || y < 0 || y > ARENA_HEIGHT;
-    }
-
-
- // Handles the actions for Player 1 and Player 2 based on key inputs
-    private static void handlePlayerActions(Character player1, Character player2) 
+    // Prints a frame pacing summary and writes every recorded frame to a CSV or JSON file if configured
+    private static void writeFrameMetrics()
     {
-        // Process actions for Player 1 using their specific key bindings
-        processPlayerActions(player1, player2, KeyCode.X, KeyCode.C, KeyCode.Z, KeyCode.V, activeKeys);
+        System.out.println(String.format("Frames: %d, avg %.2f ms, max %.2f ms over the last %d.", frameMetrics.getFrames(),
+            frameMetrics.averageFrameNanos() / 1e6, frameMetrics.maxFrameNanos() / 1e6, frameMetrics.size()));
 
-        // Process actions for Player 2 using their specific key bindings
-        processPlayerActions(player2, player1, KeyCode.J, KeyCode.K, KeyCode.M, KeyCode.L, activeKeys);
+        String format = GameConfig.METRICS_DUMP.toLowerCase();
+        if (!format.equals("csv") && !format.equals("json"))
+        {
+            return; // No dump requested
+        }
+        Path file = Paths.get("frame-metrics." + format);
+        try (Writer out = Files.newBufferedWriter(file))
+        {
+            if (format.equals("csv"))
+            {
+                frameMetrics.writeCsv(out);
+            }
+            else
+            {
+                frameMetrics.writeJson(out);
+            }
+            System.out.println("Frame metrics written to " + file.toAbsolutePath());
+        }
+        catch (IOException e)
+        {
+            System.err.println("Could not write frame metrics: " + e.getMessage());
+        }
     }
-    
 
     /**
-     * Processes actions for a single player based on key inputs.
+     * Ends the game, displaying the winner and closing the game window.
      *
-     * @param player        The player performing the actions.
-     * @param opponent      The opponent being targeted by actions.
-     * @param attackKey     The key for performing an attack.
-     * @param specialKey    The key for performing a special ability.
-     * @param shieldKey     The key for activating or deactivating the shield.
-     * @param projectileKey The key for charging and launching a projectile.
-     * @param activeKeys    The set of currently active keys.
+     * @param player1       Player 1 in the game.
+     * @param player2       Player 2 in the game.
+     * @param roundManager  The manager responsible for game rounds.
      */
-    private static void processPlayerActions(Character player, Character opponent, KeyCode attackKey, KeyCode specialKey,KeyCode shieldKey, KeyCode projectileKey, Set<KeyCode> activeKeys)
+    private static void endGame(Character player1, Character player2, RoundManager roundManager) 
     {
-        // Handle attack action
-        if (activeKeys.contains(attackKey)) 
+        if (hud != null)
         {
-            if (player.isShieldActive()) 
-            {
-                player.releaseShieldKey(); // Automatically disable the shield if attacking
-            }
-            player.performAttack(opponent); // Execute an attack on the opponent
+            System.out.println("HUD updates: " + hud.getTotalApplied() + " applied, " + hud.getTotalSkipped() + " skipped.");
         }
 
-        // Handle special ability action
-        if (activeKeys.contains(specialKey)) 
-        {
-            player.performSpecialAbility(opponent); // Execute the player's special ability
-        }
+        System.out.println("Input events: " + simulation.getInputEventsApplied() + " applied, "
+            + simulation.getInputQueue().getDropped() + " dropped.");
+        simulation.getLatency().dump(); // p50/p99/max from key event to tick and to the drawn frame
 
-        // Handle shield activation or deactivation
-        if (activeKeys.contains(shieldKey)) 
-        {
-            player.activateShield(); // Activate the shield
-        } 
-        else if (player.isShieldActive()) 
+        // Report projectile slot usage; dropped launches mean the store was too small
+        ProjectileStore projectiles = simulation.getProjectiles();
+        System.out.println("Projectiles: " + projectiles.getLaunched() + " launched, " + projectiles.getDropped() + " dropped.");
+
+        writeFrameMetrics(); // Frame pacing for spotting spikes without a profiler
+
+        // Rollback depth and re-simulation time, and whether both copies of the match ended the same
+        if (netSession != null)
         {
-            player.releaseShieldKey(); // Deactivate the shield when the key is released
+            System.out.println(netSession.getStats().report());
+            MatchSimulation remoteMatch = netOpponent.getMatch();
+            boolean inSync = remoteMatch.getTickCount() == simulation.getTickCount() && remoteMatch.checksum() == simulation.checksum();
+            System.out.println("Netplay: both sides " + (inSync ? "agree on the final state." : "DESYNCED."));
         }
 
-        // Handle projectile charging and launching
-        if (activeKeys.contains(projectileKey))
+        // Finish the replay file; the background writer has stored most of it already
+        if (replayWriter != null)
         {
-            if (!player.isProjectileKeyPressed())
+            try
             {
-                player.startCharging(); // Begin charging the projectile
-                player.setProjectileKeyPressed(true); // Mark the projectile key as pressed
+                replayWriter.close();
+                System.out.println("Replay saved to " + replayWriter.getFile().toAbsolutePath() + " ("
+                    + replayWriter.getBytesRecorded() + " bytes).");
             }
-        } 
-        else 
-        {
-            if (player.isProjectileKeyPressed()) 
+            catch (IOException e)
             {
-                // Launch the projectile when the key is released
-                Projectile projectile = player.launchChargedProjectile(opponent);
-                player.setProjectileKeyPressed(false); // Reset the projectile key press state
-
-                if (projectile != null) 
-                {
-                    ProjectileManager.addProjectile(projectile); // Add the launched projectile to the manager
-                }
+                System.err.println("Could not save the replay: " + e.getMessage());
             }
+            replayWriter = null;
         }
-    }
 
-    /**
-     * Ends the game, displaying the winner and closing the game window.
-     *
-     * @param player1       Player 1 in the game.
-     * @param player2       Player 2 in the game.
-     * @param roundManager  The manager responsible for game rounds.
-     */
-    private static void endGame(Character player1, Character player2, RoundManager roundManager) 
-    {
         Platform.runLater(() -> 
         { // Ensure UI updates are performed on the JavaFX Application Thread
             Alert alert = new Alert(Alert.AlertType.INFORMATION); // Create an informational alert
@@ -472,7 +536,7 @@ public class GameApp
             alert.setHeaderText(null); // No header text for the alert
 
             // Determine the winner based on remaining health
-            String winner = player1.getHealth() > player2.getHealth() ? player1.getName() : player2.getName();
+            String winner = simulation.getWinner().getName();
 
             // Set the alert message and display it
             alert.setContentText("Game Over! " + winner + " Wins!");
@@ -494,14 +558,12 @@ public class GameApp
     {
         // Initialize Player 1's health bar
         player1HealthBar = new ProgressBar(1.0); // Fully filled at the start
-        player1HealthBar.setStyle("-fx-accent: green;"); // Style the health bar with a blue color
         player1HealthBar.setLayoutX(50); // Position the health bar
         player1HealthBar.setLayoutY(20); // Set the vertical position
         player1HealthBar.setPrefWidth(200); // Set the width of the health bar
 
         // Initialize Player 2's health bar
         player2HealthBar = new ProgressBar(1.0); // Fully filled at the start
-        player2HealthBar.setStyle("-fx-accent: green;"); // Style the health bar with a green color
         player2HealthBar.setLayoutX(350); // Position the health bar on the right
         player2HealthBar.setLayoutY(20); // Set the vertical position
         player2HealthBar.setPrefWidth(200); // Set the width of the health bar
@@ -0,0 +1,170 @@
+package FightingGame;
+
+import java.io.FileInputStream; // Reads the optional game.properties file.
+import java.io.IOException; // Thrown if the properties file cannot be read.
+import java.io.InputStream;
+import java.util.Properties; // Key/value settings loaded from disk.
+
+/**
+ * Game settings read once at startup.
+ * Values come from an optional {@code game.properties} file in the working directory
+ * and can be overridden with {@code -Dfightinggame.<key>=<value>} JVM arguments.
+ */
+public final class GameConfig
+{
+    private static final String CONFIG_FILE = "game.properties"; // Optional settings file.
+    private static final String PROPERTY_PREFIX = "fightinggame."; // Prefix for JVM overrides.
+
+    private static final Properties settings = load();
+
+    /** Simulation ticks per second; gameplay runs at this fixed rate on every display. */
+    public static final int TICK_RATE = getInt("tickRate", 60);
+
+    /** How the match is drawn: "nodes" (a scene-graph node per object) or "canvas" (one batched canvas). */
+    public static final String RENDERER = getString("renderer", "nodes");
+
+    /** Cell size in pixels of the collision grid laid over the arena. */
+    public static final int COLLISION_CELL_SIZE = getInt("collisionCellSize", 64);
+
+    /** Whether the frame metrics overlay starts visible; F3 toggles it during a match. */
+    public static final boolean METRICS_OVERLAY = Boolean.parseBoolean(getString("metricsOverlay", "false"));
+
+    /** Format of the frame metrics file written when a match ends: "csv", "json", or empty for none. */
+    public static final String METRICS_DUMP = getString("metricsDump", "");
+
+    /** Seed for every match's random rolls, to replay a match exactly; 0 picks a new seed per match. */
+    public static final long MATCH_SEED = getLong("matchSeed", 0);
+
+    /** Folder every match is recorded to as a replay; empty turns recording off. */
+    public static final String REPLAY_DIR = getString("replayDir", "replays");
+
+    /** Folder holding characters.properties and abilities.properties; the copies in the jar are used if they are not there. */
+    public static final String DATA_DIR = getString("dataDir", ".");
+
+    /** Development build: reload the character and ability files whenever they change on disk. */
+    public static final boolean DEV_MODE = Boolean.parseBoolean(getString("devMode", "false"));
+
+    /** Online play: "loopback" plays against a bot over a simulated network with rollback; empty plays locally. */
+    public static final String NETPLAY = getString("netplay", "");
+
+    /** One-way latency in milliseconds of the simulated network in loopback netplay. */
+    public static final int NET_LATENCY_MS = getInt("netLatency", 60);
+
+    /** Maximum extra random delay in milliseconds of the simulated network. */
+    public static final int NET_JITTER_MS = getInt("netJitter", 20);
+
+    /** Chance from 0 to 1 that the simulated network loses a packet. */
+    public static final double NET_LOSS = getDouble("netLoss", 0.05);
+
+    private GameConfig()
+    {
+        // Static settings only.
+    }
+
+    // Loads game.properties if it exists; missing files just mean defaults are used.
+    private static Properties load()
+    {
+        Properties properties = new Properties();
+        try (InputStream in = new FileInputStream(CONFIG_FILE))
+        {
+            properties.load(in);
+        }
+        catch (IOException e)
+        {
+            // No config file; every setting keeps its default.
+        }
+        return properties;
+    }
+
+    /**
+     * Looks up a setting, preferring a JVM system property over the config file.
+     *
+     * @param key          The setting name (without the "fightinggame." prefix).
+     * @param defaultValue The value used when the setting is missing.
+     * @return The configured value, or the default.
+     */
+    public static String getString(String key, String defaultValue)
+    {
+        String value = System.getProperty(PROPERTY_PREFIX + key);
+        if (value == null)
+        {
+            value = settings.getProperty(key);
+        }
+        return value != null ? value.trim() : defaultValue;
+    }
+
+    /**
+     * Looks up an integer setting.
+     *
+     * @param key          The setting name.
+     * @param defaultValue The value used when the setting is missing or not a number.
+     * @return The configured value, or the default.
+     */
+    public static int getInt(String key, int defaultValue)
+    {
+        String value = getString(key, null);
+        if (value == null)
+        {
+            return defaultValue;
+        }
+        try
+        {
+            return Integer.parseInt(value);
+        }
+        catch (NumberFormatException e)
+        {
+            System.err.println("Invalid value for " + key + ": " + value + ". Using " + defaultValue + ".");
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Looks up a long integer setting.
+     *
+     * @param key          The setting name.
+     * @param defaultValue The value used when the setting is missing or not a number.
+     * @return The configured value, or the default.
+     */
+    public static long getLong(String key, long defaultValue)
+    {
+        String value = getString(key, null);
+        if (value == null)
+        {
+            return defaultValue;
+        }
+        try
+        {
+            return Long.parseLong(value);
+        }
+        catch (NumberFormatException e)
+        {
+            System.err.println("Invalid value for " + key + ": " + value + ". Using " + defaultValue + ".");
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Looks up a decimal setting.
+     *
+     * @param key          The setting name.
+     * @param defaultValue The value used when the setting is missing or not a number.
+     * @return The configured value, or the default.
+     */
+    public static double getDouble(String key, double defaultValue)
+    {
+        String value = getString(key, null);
+        if (value == null)
+        {
+            return defaultValue;
+        }
+        try
+        {
+            return Double.parseDouble(value);
+        }
+        catch (NumberFormatException e)
+        {
+            System.err.println("Invalid value for " + key + ": " + value + ". Using " + defaultValue + ".");
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,469 @@
+package FightingGame;
+
+import java.io.IOException; // Thrown when a data file is missing or malformed.
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService; // Notices edits to the data files in dev builds.
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet; // Numbers unreferenced abilities in a stable order.
+
+/**
+ * The characters and abilities of the game, parsed from {@code characters.properties} and
+ * {@code abilities.properties}. The files are read from {@link GameConfig#DATA_DIR} when they
+ * are there and from the game's jar otherwise.
+ * <p>
+ * Everything is parsed once into immutable {@link CharacterDefinition}s and
+ * {@link AbilityDefinition}s; matches only read them. With {@link GameConfig#DEV_MODE} on, a
+ * watcher thread re-parses the files whenever they change on disk and swaps in the new set,
+ * which every match started afterwards uses. A file that fails to parse keeps the old set.
+ * <p>
+ * Values are checked as they are parsed, so an edit that would break a match (a zero
+ * multiplier, a heal too short to take a step, a color the view cannot draw) fails the load
+ * instead of reaching a running game.
+ */
+public final class GameDefinitions
+{
+    public static final String CHARACTERS_FILE = "characters.properties";
+    public static final String ABILITIES_FILE = "abilities.properties";
+
+    private static final double MAX_DURATION_MS = MatchSimulation.MATCH_DURATION_SECONDS * 1000; // No effect outlasts a match.
+    private static final double HEAL_STEP_MS = 1000; // healOverTime heals once per second, so it must last at least one step.
+
+    // The color names the view's Color.web accepts (the CSS ones), so colors are checked without JavaFX.
+    private static final Set<String> COLOR_NAMES = new HashSet<>(List.of(
+        "aliceblue", "antiquewhite", "aqua", "aquamarine", "azure", "beige", "bisque", "black", "blanchedalmond",
+        "blue", "blueviolet", "brown", "burlywood", "cadetblue", "chartreuse", "chocolate", "coral", "cornflowerblue",
+        "cornsilk", "crimson", "cyan", "darkblue", "darkcyan", "darkgoldenrod", "darkgray", "darkgreen", "darkgrey",
+        "darkkhaki", "darkmagenta", "darkolivegreen", "darkorange", "darkorchid", "darkred", "darksalmon",
+        "darkseagreen", "darkslateblue", "darkslategray", "darkslategrey", "darkturquoise", "darkviolet", "deeppink",
+        "deepskyblue", "dimgray", "dimgrey", "dodgerblue", "firebrick", "floralwhite", "forestgreen", "fuchsia",
+        "gainsboro", "ghostwhite", "gold", "goldenrod", "gray", "green", "greenyellow", "grey", "honeydew", "hotpink",
+        "indianred", "indigo", "ivory", "khaki", "lavender", "lavenderblush", "lawngreen", "lemonchiffon", "lightblue",
+        "lightcoral", "lightcyan", "lightgoldenrodyellow", "lightgray", "lightgreen", "lightgrey", "lightpink",
+        "lightsalmon", "lightseagreen", "lightskyblue", "lightslategray", "lightslategrey", "lightsteelblue",
+        "lightyellow", "lime", "limegreen", "linen", "magenta", "maroon", "mediumaquamarine", "mediumblue",
+        "mediumorchid", "mediumpurple", "mediumseagreen", "mediumslateblue", "mediumspringgreen", "mediumturquoise",
+        "mediumvioletred", "midnightblue", "mintcream", "mistyrose", "moccasin", "navajowhite", "navy", "oldlace",
+        "olive", "olivedrab", "orange", "orangered", "orchid", "palegoldenrod", "palegreen", "paleturquoise",
+        "palevioletred", "papayawhip", "peachpuff", "peru", "pink", "plum", "powderblue", "purple", "red", "rosybrown",
+        "royalblue", "saddlebrown", "salmon", "sandybrown", "seagreen", "seashell", "sienna", "silver", "skyblue",
+        "slateblue", "slategray", "slategrey", "snow", "springgreen", "steelblue", "tan", "teal", "thistle", "tomato",
+        "transparent", "turquoise", "violet", "wheat", "white", "whitesmoke", "yellow", "yellowgreen"));
+
+    private static volatile GameDefinitions current; // The set new matches use; replaced whole on reload.
+    private static Thread watcher; // Dev-mode reload thread, started with the first load.
+
+    private final List<CharacterDefinition> characters; // In roster order.
+    private final List<AbilityDefinition> abilities; // Indexed by ability id.
+    private final Map<String, AbilityDefinition> abilitiesByName; // Lower-case keys and names; used when building fighters.
+
+    private GameDefinitions(List<CharacterDefinition> characters, List<AbilityDefinition> abilities)
+    {
+        this.characters = Collections.unmodifiableList(characters);
+        this.abilities = Collections.unmodifiableList(abilities);
+        this.abilitiesByName = new HashMap<>();
+        for (AbilityDefinition ability : abilities)
+        {
+            abilitiesByName.put(ability.getKey().toLowerCase(Locale.ROOT), ability);
+            abilitiesByName.put(ability.getName().toLowerCase(Locale.ROOT), ability);
+        }
+    }
+
+    /**
+     * Returns the current definitions, loading them on first use.
+     *
+     * @throws IllegalStateException If the data files cannot be read the first time.
+     */
+    public static GameDefinitions current()
+    {
+        GameDefinitions definitions = current;
+        if (definitions == null)
+        {
+            synchronized (GameDefinitions.class)
+            {
+                definitions = current;
+                if (definitions == null)
+                {
+                    try
+                    {
+                        definitions = load();
+                    }
+                    catch (IOException e)
+                    {
+                        throw new IllegalStateException("Could not load game data: " + e.getMessage(), e);
+                    }
+                    current = definitions;
+                    if (GameConfig.DEV_MODE)
+                    {
+                        startWatcher();
+                    }
+                }
+            }
+        }
+        return definitions;
+    }
+
+    /**
+     * Reads and parses both data files.
+     *
+     * @return A new, complete set of definitions.
+     * @throws IOException If a file is missing or contains an invalid entry.
+     */
+    public static GameDefinitions load() throws IOException
+    {
+        return load(Paths.get(GameConfig.DATA_DIR));
+    }
+
+    /**
+     * Reads and parses both data files from a folder, or from the classpath where it has none.
+     *
+     * @param folder Folder holding the data files.
+     * @return A new, complete set of definitions.
+     * @throws IOException If a file is missing or contains an invalid entry.
+     */
+    static GameDefinitions load(Path folder) throws IOException
+    {
+        Properties abilityData = read(folder, ABILITIES_FILE);
+        Properties characterData = read(folder, CHARACTERS_FILE);
+
+        // Abilities are numbered in the order they are first referenced by the roster, then any others.
+        List<AbilityDefinition> abilities = new ArrayList<>();
+        Map<String, AbilityDefinition> abilityKeys = new HashMap<>();
+        List<CharacterDefinition> characters = new ArrayList<>();
+        for (String key : splitList(required(characterData, "roster", CHARACTERS_FILE)))
+        {
+            String abilityKey = required(characterData, key + ".ability", CHARACTERS_FILE);
+            AbilityDefinition ability = abilityKeys.get(abilityKey);
+            if (ability == null)
+            {
+                ability = parseAbility(abilityData, abilityKey, abilities.size());
+                abilities.add(ability);
+                abilityKeys.put(abilityKey, ability);
+            }
+            characters.add(new CharacterDefinition(
+                characters.size(),
+                key,
+                required(characterData, key + ".name", CHARACTERS_FILE),
+                parseInt(characterData, key + ".maxHealth", CHARACTERS_FILE),
+                parseInt(characterData, key + ".attack", CHARACTERS_FILE),
+                parseInt(characterData, key + ".defense", CHARACTERS_FILE),
+                ability,
+                parseColor(characterData, key + ".color")));
+        }
+        for (String property : new TreeSet<>(abilityData.stringPropertyNames()))
+        {
+            if (property.endsWith(".name"))
+            {
+                String abilityKey = property.substring(0, property.length() - ".name".length());
+                if (!abilityKeys.containsKey(abilityKey))
+                {
+                    AbilityDefinition ability = parseAbility(abilityData, abilityKey, abilities.size());
+                    abilities.add(ability);
+                    abilityKeys.put(abilityKey, ability);
+                }
+            }
+        }
+        if (characters.isEmpty())
+        {
+            throw new IOException(CHARACTERS_FILE + ": the roster is empty.");
+        }
+        return new GameDefinitions(characters, abilities);
+    }
+
+    /**
+     * Returns the playable characters in roster order.
+     */
+    public List<CharacterDefinition> getCharacters()
+    {
+        return characters;
+    }
+
+    public CharacterDefinition getCharacter(int id)
+    {
+        return characters.get(id);
+    }
+
+    /**
+     * Finds a character's roster position by display name.
+     *
+     * @return The roster index, or -1 if no character has that name.
+     */
+    public int indexOf(String name)
+    {
+        for (CharacterDefinition character : characters)
+        {
+            if (character.getName().equals(name))
+            {
+                return character.getId();
+            }
+        }
+        return -1;
+    }
+
+    public List<AbilityDefinition> getAbilities()
+    {
+        return abilities;
+    }
+
+    public AbilityDefinition getAbility(int id)
+    {
+        return abilities.get(id);
+    }
+
+    /**
+     * Finds an ability by its data-file key or display name, ignoring case.
+     * Meant for building fighters, not for every use of an ability.
+     *
+     * @return The ability, or null if there is none by that name.
+     */
+    public AbilityDefinition findAbility(String name)
+    {
+        return name == null ? null : abilitiesByName.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    // Reads a data file from the data folder, or from the classpath if it is not there.
+    private static Properties read(Path folder, String fileName) throws IOException
+    {
+        Properties properties = new Properties();
+        Path file = folder.resolve(fileName);
+        if (Files.isRegularFile(file))
+        {
+            try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8))
+            {
+                properties.load(in);
+            }
+            return properties;
+        }
+        try (InputStream in = GameDefinitions.class.getResourceAsStream(fileName))
+        {
+            if (in == null)
+            {
+                throw new IOException(fileName + " was not found in " + file.toAbsolutePath().normalize().getParent() + " or on the classpath.");
+            }
+            properties.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+        }
+        return properties;
+    }
+
+    // Parses one ability, e.g. "boostNextAttack 15, teleport".
+    private static AbilityDefinition parseAbility(Properties data, String key, int id) throws IOException
+    {
+        String name = required(data, key + ".name", ABILITIES_FILE);
+        long cooldown = parseInt(data, key + ".cooldown", ABILITIES_FILE);
+        if (cooldown < 0)
+        {
+            throw new IOException(ABILITIES_FILE + ": " + key + ".cooldown must not be negative: " + cooldown);
+        }
+        List<String> effects = splitList(required(data, key + ".effects", ABILITIES_FILE));
+
+        int[] kinds = new int[effects.size()];
+        double[][] arguments = new double[effects.size()][];
+        for (int e = 0; e < effects.size(); e++)
+        {
+            String[] words = effects.get(e).split("\\s+");
+            int kind = AbilityDefinition.effectKind(words[0]);
+            if (kind < 0)
+            {
+                throw new IOException(ABILITIES_FILE + ": " + key + " has an unknown effect \"" + words[0] + "\".");
+            }
+            int count = AbilityDefinition.argumentCount(kind);
+            if (words.length - 1 != count)
+            {
+                throw new IOException(ABILITIES_FILE + ": " + key + "'s " + words[0] + " takes " + count + " argument(s).");
+            }
+            kinds[e] = kind;
+            arguments[e] = new double[count];
+            for (int a = 0; a < count; a++)
+            {
+                double value;
+                try
+                {
+                    value = Double.parseDouble(words[a + 1]);
+                }
+                catch (NumberFormatException ex)
+                {
+                    value = Double.NaN; // Reported below, along with the NaN and Infinity parseDouble accepts.
+                }
+                if (!Double.isFinite(value))
+                {
+                    throw new IOException(ABILITIES_FILE + ": " + key + "'s " + words[0] + " has a bad number \"" + words[a + 1] + "\".");
+                }
+                arguments[e][a] = value;
+            }
+            checkArguments(key, words[0], kind, arguments[e]);
+        }
+        return new AbilityDefinition(id, key, name, cooldown, kinds, arguments);
+    }
+
+    // Rejects effect arguments that would break a match, e.g. a zero multiplier that is later divided out.
+    private static void checkArguments(String key, String effect, int kind, double[] arguments) throws IOException
+    {
+        switch (kind)
+        {
+            case AbilityDefinition.BOOST_ATTACK:
+            case AbilityDefinition.SPEED_SURGE:
+            case AbilityDefinition.AMPLIFY:
+                if (arguments[0] <= 0)
+                {
+                    throw new IOException(ABILITIES_FILE + ": " + key + "'s " + effect + " multiplier must be greater than 0.");
+                }
+                checkDuration(key, effect, arguments[1], 0);
+                break;
+
+            case AbilityDefinition.STUN_OPPONENT:
+            case AbilityDefinition.INVISIBLE:
+                checkDuration(key, effect, arguments[0], 0);
+                break;
+
+            case AbilityDefinition.HEAL_OVER_TIME:
+                checkDuration(key, effect, arguments[1], HEAL_STEP_MS);
+                break;
+
+            default:
+                break; // boostNextAttack and teleport take any finite values.
+        }
+    }
+
+    private static void checkDuration(String key, String effect, double ms, double min) throws IOException
+    {
+        if (ms < min || ms > MAX_DURATION_MS)
+        {
+            throw new IOException(ABILITIES_FILE + ": " + key + "'s " + effect + " must last from " + (long) min
+                + " to " + (long) MAX_DURATION_MS + " ms, not " + ms + ".");
+        }
+    }
+
+    // Reads a color as the view will parse it: a CSS color name, #rgb or #rrggbb.
+    private static String parseColor(Properties data, String key) throws IOException
+    {
+        String value = required(data, key, CHARACTERS_FILE);
+        String color = value.toLowerCase(Locale.ROOT);
+        boolean hex = color.matches("#([0-9a-f]{3}|[0-9a-f]{6})");
+        if (!hex && !COLOR_NAMES.contains(color))
+        {
+            throw new IOException(CHARACTERS_FILE + ": " + key + " is not a color name or #rrggbb: " + value);
+        }
+        return value;
+    }
+
+    private static String required(Properties data, String key, String fileName) throws IOException
+    {
+        String value = data.getProperty(key);
+        if (value == null || value.trim().isEmpty())
+        {
+            throw new IOException(fileName + ": missing " + key + ".");
+        }
+        return value.trim();
+    }
+
+    private static int parseInt(Properties data, String key, String fileName) throws IOException
+    {
+        String value = required(data, key, fileName);
+        try
+        {
+            return Integer.parseInt(value);
+        }
+        catch (NumberFormatException e)
+        {
+            throw new IOException(fileName + ": " + key + " is not a whole number: " + value);
+        }
+    }
+
+    // Splits a comma-separated list, dropping blanks.
+    private static List<String> splitList(String value)
+    {
+        List<String> items = new ArrayList<>();
+        for (String item : value.split(","))
+        {
+            if (!item.trim().isEmpty())
+            {
+                items.add(item.trim());
+            }
+        }
+        return items;
+    }
+
+    // Watches the data folder and reloads the definitions when either file changes.
+    private static void startWatcher()
+    {
+        Path folder = Paths.get(GameConfig.DATA_DIR).toAbsolutePath();
+        if (watcher != null || !Files.isDirectory(folder))
+        {
+            return;
+        }
+        WatchService service;
+        try
+        {
+            service = FileSystems.getDefault().newWatchService();
+            folder.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        }
+        catch (IOException e)
+        {
+            System.err.println("Game data hot reload is off: " + e.getMessage());
+            return;
+        }
+
+        watcher = new Thread(() ->
+        {
+            try
+            {
+                while (true)
+                {
+                    WatchKey key = service.take();
+                    boolean changed = false;
+                    for (WatchEvent<?> event : key.pollEvents())
+                    {
+                        String file = String.valueOf(event.context());
+                        changed |= file.equals(CHARACTERS_FILE) || file.equals(ABILITIES_FILE);
+                    }
+                    key.reset();
+                    if (changed)
+                    {
+                        Thread.sleep(100); // Editors often write a file in several steps.
+                        reload();
+                    }
+                }
+            }
+            catch (InterruptedException | ClosedWatchServiceException e)
+            {
+                // Shutting down.
+            }
+        }, "game-data-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        System.out.println("Watching " + folder + " for changes to the game data.");
+    }
+
+    // Replaces the current definitions, keeping the old ones if the files do not parse.
+    private static void reload()
+    {
+        try
+        {
+            current = load();
+            System.out.println("Reloaded game data: " + current.characters.size() + " characters, "
+                + current.abilities.size() + " abilities.");
+        }
+        catch (IOException e)
+        {
+            System.err.println("Game data not reloaded: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package FightingGame;
+
+import java.net.URL; // Location of the HUD stylesheet.
+import java.util.Arrays; // Grows the bar arrays.
+
+import javafx.css.PseudoClass; // Pre-built CSS states that recolor the bars.
+import javafx.scene.Scene; // The scene the HUD stylesheet is added to.
+import javafx.scene.control.Label; // The match timer.
+import javafx.scene.control.ProgressBar; // Health and shield bars.
+
+/**
+ * Retained HUD: remembers what each bar and the timer currently show and only writes to
+ * the scene graph when the displayed value or color state changes.
+ * Colors come from pseudo-classes defined in {@code hud.css}, so switching a bar's color
+ * toggles a pre-built CSS state instead of parsing a new inline style string.
+ * Counts applied and skipped updates per frame.
+ */
+public class HudLayer
+{
+    public static final String HEALTH_BAR = "health-bar"; // Green, red once health is gone.
+    public static final String SHIELD_BAR = "shield-bar"; // Blue, gray once the shield is empty.
+
+    public static final PseudoClass DEPLETED = PseudoClass.getPseudoClass("depleted");
+
+    private static final String STYLESHEET = "hud.css"; // Lives next to the classes in the FightingGame package.
+
+    private ProgressBar[] bars = new ProgressBar[8]; // Every bar the HUD updates, by id.
+    private PseudoClass[] barStates = new PseudoClass[8]; // Pseudo-class each bar toggles.
+    private int[] barSteps = new int[8]; // Distinct fill levels a bar can show (about one per pixel).
+    private int[] shownSteps = new int[8]; // Fill level each bar currently shows.
+    private boolean[] shownStates = new boolean[8]; // Whether each bar's pseudo-class is currently on.
+    private int barCount = 0;
+
+    private Label timer; // Match timer label, if any.
+    private int shownSeconds = -1; // Seconds the timer currently shows.
+
+    private int applied = 0; // Scene graph writes this frame.
+    private int skipped = 0; // Updates skipped this frame because nothing visible changed.
+    private int lastFrameApplied = 0;
+    private int lastFrameSkipped = 0;
+    private long totalApplied = 0;
+    private long totalSkipped = 0;
+
+    /**
+     * Adds the HUD stylesheet to a scene so the bar pseudo-classes take effect.
+     *
+     * @param scene The game scene.
+     */
+    public void applyStylesheet(Scene scene)
+    {
+        URL stylesheet = HudLayer.class.getResource(STYLESHEET);
+        if (stylesheet == null)
+        {
+            System.err.println("HUD stylesheet " + STYLESHEET + " not found; bars keep the default accent.");
+            return;
+        }
+        scene.getStylesheets().add(stylesheet.toExternalForm());
+    }
+
+    /**
+     * Registers a bar with the HUD and gives it its style class.
+     *
+     * @param bar        The bar to manage.
+     * @param styleClass One of the bar style class constants.
+     * @param state      The pseudo-class toggled by {@link #setBar}.
+     * @return The bar's id.
+     */
+    public int addBar(ProgressBar bar, String styleClass, PseudoClass state)
+    {
+        if (barCount == bars.length)
+        {
+            int capacity = bars.length * 2;
+            bars = Arrays.copyOf(bars, capacity);
+            barStates = Arrays.copyOf(barStates, capacity);
+            barSteps = Arrays.copyOf(barSteps, capacity);
+            shownSteps = Arrays.copyOf(shownSteps, capacity);
+            shownStates = Arrays.copyOf(shownStates, capacity);
+        }
+
+        if (!bar.getStyleClass().contains(styleClass))
+        {
+            bar.getStyleClass().add(styleClass);
+        }
+
+        int id = barCount++;
+        bars[id] = bar;
+        barStates[id] = state;
+        barSteps[id] = Math.max(1, (int) Math.round(bar.getPrefWidth()));
+        shownSteps[id] = -1; // Force the first update through.
+        shownStates[id] = false;
+        bar.pseudoClassStateChanged(state, false);
+        return id;
+    }
+
+    /**
+     * Shows a value on a bar, writing to the scene graph only if it looks different.
+     *
+     * @param id       The bar's id from {@link #addBar}.
+     * @param progress Fill level from 0.0 to 1.0.
+     * @param state    Whether the bar's pseudo-class should be on.
+     */
+    public void setBar(int id, double progress, boolean state)
+    {
+        int steps = barSteps[id];
+        int step = (int) Math.round(Math.max(0, Math.min(1, progress)) * steps);
+        if (step != shownSteps[id])
+        {
+            shownSteps[id] = step;
+            bars[id].setProgress((double) step / steps);
+            applied++;
+        }
+        else
+        {
+            skipped++;
+        }
+
+        if (state != shownStates[id])
+        {
+            shownStates[id] = state;
+            bars[id].pseudoClassStateChanged(barStates[id], state);
+            applied++;
+        }
+        else
+        {
+            skipped++;
+        }
+    }
+
+    /**
+     * Sets the label used for the match timer.
+     *
+     * @param label The timer label.
+     */
+    public void setTimerLabel(Label label)
+    {
+        timer = label;
+        shownSeconds = -1;
+    }
+
+    /**
+     * Shows the time remaining, changing the label text only when the second changes.
+     *
+     * @param seconds Whole seconds remaining.
+     */
+    public void setTimer(int seconds)
+    {
+        if (timer == null || seconds == shownSeconds)
+        {
+            skipped++;
+            return;
+        }
+        shownSeconds = seconds;
+        timer.setText("Time: " + seconds);
+        applied++;
+    }
+
+    /**
+     * Closes the frame's update counts. Call once per frame after every HUD update.
+     */
+    public void endFrame()
+    {
+        lastFrameApplied = applied;
+        lastFrameSkipped = skipped;
+        totalApplied += applied;
+        totalSkipped += skipped;
+        applied = 0;
+        skipped = 0;
+    }
+
+    public int getLastFrameApplied()
+    {
+        return lastFrameApplied;
+    }
+
+    public int getLastFrameSkipped()
+    {
+        return lastFrameSkipped;
+    }
+
+    public long getTotalApplied()
+    {
+        return totalApplied;
+    }
+
+    public long getTotalSkipped()
+    {
+        return totalSkipped;
+    }
+}
@@ -0,0 +1,202 @@
+package FightingGame;
+
+import javafx.scene.input.KeyCode; // Physical keys reported by the game window.
+
+/**
+ * Rebindable table from keyboard keys to {@link PlayerInput} action bits.
+ * Key events set and clear bits in a per-player {@code long}, and every change is queued
+ * as a timestamped event for the match to apply on its next tick. Lookups index a flat array by
+ * {@link KeyCode#ordinal()}, so there is no hashing, boxing or string dispatch.
+ * Defaults match the controls screen and can be overridden with settings such as
+ * {@code keys.p1.attack=F} (see {@link GameConfig}).
+ */
+public class InputBindings
+{
+    public static final int PLAYERS = 2;
+
+    private static final int KEY_COUNT = KeyCode.values().length;
+
+    private final long[][] actionsByKey = new long[PLAYERS][KEY_COUNT]; // Action bits each key sets, per player.
+    private final long[] state = new long[PLAYERS]; // Actions currently held, per player.
+    private final boolean[] keysDown = new boolean[KEY_COUNT]; // Keys currently held, so an action bound to two keys lasts until both are up.
+
+    /**
+     * Creates the default bindings and applies any overrides from the game settings.
+     *
+     * @return The bindings used by the game window.
+     */
+    public static InputBindings fromConfig()
+    {
+        InputBindings bindings = new InputBindings();
+
+        // Player 1: WASD to move, X attack, C special, Z shield, V projectile.
+        bindings.bind(0, KeyCode.W, PlayerInput.UP);
+        bindings.bind(0, KeyCode.S, PlayerInput.DOWN);
+        bindings.bind(0, KeyCode.A, PlayerInput.LEFT);
+        bindings.bind(0, KeyCode.D, PlayerInput.RIGHT);
+        bindings.bind(0, KeyCode.X, PlayerInput.ATTACK);
+        bindings.bind(0, KeyCode.C, PlayerInput.SPECIAL);
+        bindings.bind(0, KeyCode.Z, PlayerInput.SHIELD);
+        bindings.bind(0, KeyCode.V, PlayerInput.PROJECTILE);
+
+        // Player 2: arrow keys to move, J attack, K special, M shield, L projectile.
+        bindings.bind(1, KeyCode.UP, PlayerInput.UP);
+        bindings.bind(1, KeyCode.DOWN, PlayerInput.DOWN);
+        bindings.bind(1, KeyCode.LEFT, PlayerInput.LEFT);
+        bindings.bind(1, KeyCode.RIGHT, PlayerInput.RIGHT);
+        bindings.bind(1, KeyCode.J, PlayerInput.ATTACK);
+        bindings.bind(1, KeyCode.K, PlayerInput.SPECIAL);
+        bindings.bind(1, KeyCode.M, PlayerInput.SHIELD);
+        bindings.bind(1, KeyCode.L, PlayerInput.PROJECTILE);
+
+        // Overrides such as keys.p2.shield=N replace the default key for that action.
+        for (int player = 0; player < PLAYERS; player++)
+        {
+            for (int bit = 0; bit < PlayerInput.ACTION_COUNT; bit++)
+            {
+                String key = "keys.p" + (player + 1) + "." + PlayerInput.actionName(bit);
+                String value = GameConfig.getString(key, null);
+                if (value == null)
+                {
+                    continue;
+                }
+                try
+                {
+                    bindings.rebind(player, KeyCode.valueOf(value.toUpperCase()), 1L << bit);
+                }
+                catch (IllegalArgumentException e)
+                {
+                    System.err.println("Unknown key for " + key + ": " + value + ". Keeping the default.");
+                }
+            }
+        }
+        return bindings;
+    }
+
+    /**
+     * Makes a key also trigger an action for a player.
+     *
+     * @param player 0 for player 1, 1 for player 2.
+     * @param key    The keyboard key.
+     * @param action A PlayerInput action bit.
+     */
+    public void bind(int player, KeyCode key, long action)
+    {
+        actionsByKey[player][key.ordinal()] |= action;
+    }
+
+    /**
+     * Moves an action to a new key, removing it from every other key of that player.
+     *
+     * @param player 0 for player 1, 1 for player 2.
+     * @param key    The new keyboard key.
+     * @param action A PlayerInput action bit.
+     */
+    public void rebind(int player, KeyCode key, long action)
+    {
+        long[] table = actionsByKey[player];
+        for (int i = 0; i < table.length; i++)
+        {
+            table[i] &= ~action;
+        }
+        table[key.ordinal()] |= action;
+    }
+
+    /**
+     * Removes every action bound to a key for a player.
+     *
+     * @param player 0 for player 1, 1 for player 2.
+     * @param key    The keyboard key.
+     */
+    public void unbind(int player, KeyCode key)
+    {
+        actionsByKey[player][key.ordinal()] = 0;
+    }
+
+    /**
+     * Records a key press for every player the key is bound for and queues the actions
+     * that were not already held. Key auto-repeat therefore queues nothing.
+     *
+     * @param key            The key that went down.
+     * @param queue          The match's input queue.
+     * @param timestampNanos When the key went down, from System.nanoTime().
+     */
+    public void keyPressed(KeyCode key, InputRingBuffer queue, long timestampNanos)
+    {
+        int index = key.ordinal();
+        keysDown[index] = true;
+        for (int player = 0; player < PLAYERS; player++)
+        {
+            long changed = actionsByKey[player][index] & ~state[player];
+            if (changed != 0)
+            {
+                state[player] |= changed;
+                queue.offer(player, changed, true, timestampNanos);
+            }
+        }
+    }
+
+    /**
+     * Records a key release for every player the key is bound for and queues the
+     * actions that were released. An action another held key is bound to stays held.
+     *
+     * @param key            The key that went up.
+     * @param queue          The match's input queue.
+     * @param timestampNanos When the key went up, from System.nanoTime().
+     */
+    public void keyReleased(KeyCode key, InputRingBuffer queue, long timestampNanos)
+    {
+        int index = key.ordinal();
+        keysDown[index] = false;
+        for (int player = 0; player < PLAYERS; player++)
+        {
+            long changed = actionsByKey[player][index] & state[player] & ~heldActions(player);
+            if (changed != 0)
+            {
+                state[player] &= ~changed;
+                queue.offer(player, changed, false, timestampNanos);
+            }
+        }
+    }
+
+    /**
+     * Releases every key, e.g. when the window loses focus.
+     */
+    public void releaseAll()
+    {
+        for (int player = 0; player < PLAYERS; player++)
+        {
+            state[player] = 0;
+        }
+        for (int i = 0; i < KEY_COUNT; i++)
+        {
+            keysDown[i] = false;
+        }
+    }
+
+    // Actions bound to the keys still held, for one player.
+    private long heldActions(int player)
+    {
+        long[] table = actionsByKey[player];
+        long held = 0;
+        for (int i = 0; i < KEY_COUNT; i++)
+        {
+            if (keysDown[i])
+            {
+                held |= table[i];
+            }
+        }
+        return held;
+    }
+
+    /**
+     * Returns the actions a player is holding right now.
+     *
+     * @param player 0 for player 1, 1 for player 2.
+     * @return The player's PlayerInput bits.
+     */
+    public long getState(int player)
+    {
+        return state[player];
+    }
+}
@@ -0,0 +1,121 @@
+package FightingGame;
+
+import java.util.concurrent.atomic.AtomicLong; // Publishes the read and write positions between threads.
+
+/**
+ * Lock-free single-producer, single-consumer queue of timestamped input events.
+ * The window's key handler (producer) offers press and release events as they arrive,
+ * and the match (consumer) drains them at the start of each tick, so actions take effect
+ * on a simulation tick in arrival order rather than whenever the event is delivered.
+ * Events are stored in parallel primitive arrays; offering and draining never allocate.
+ * Exactly one thread may offer and exactly one thread may drain.
+ */
+public class InputRingBuffer
+{
+    /**
+     * Receives drained events in the order they were offered.
+     */
+    public interface Handler
+    {
+        void event(int player, long actions, boolean pressed, long timestampNanos);
+    }
+
+    private final int mask; // Capacity - 1; the capacity is a power of two.
+    private final long[] timestamps; // System.nanoTime() when each event was offered.
+    private final long[] actions; // PlayerInput bits that changed.
+    private final int[] players; // Player each event belongs to.
+    private final boolean[] pressed; // True for a press, false for a release.
+
+    private final AtomicLong head = new AtomicLong(); // Next event to drain; written only by the consumer.
+    private final AtomicLong tail = new AtomicLong(); // Next free slot; written only by the producer.
+    private long dropped = 0; // Events refused because the buffer was full (producer side).
+
+    /**
+     * Creates an empty buffer.
+     *
+     * @param capacity Maximum number of undrained events; rounded up to a power of two.
+     */
+    public InputRingBuffer(int capacity)
+    {
+        if (capacity <= 0)
+        {
+            throw new IllegalArgumentException("Ring buffer capacity must be positive.");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity)
+        {
+            size <<= 1;
+        }
+        mask = size - 1;
+        timestamps = new long[size];
+        actions = new long[size];
+        players = new int[size];
+        pressed = new boolean[size];
+    }
+
+    /**
+     * Adds an event. Called only from the producer thread.
+     *
+     * @param player         0 for player 1, 1 for player 2.
+     * @param changed        The PlayerInput bits that were pressed or released.
+     * @param isPress        True for a press, false for a release.
+     * @param timestampNanos When the event happened, from System.nanoTime().
+     * @return False if the buffer was full and the event was dropped.
+     */
+    public boolean offer(int player, long changed, boolean isPress, long timestampNanos)
+    {
+        long position = tail.get();
+        if (position - head.get() > mask)
+        {
+            dropped++;
+            return false;
+        }
+        int slot = (int) position & mask;
+        timestamps[slot] = timestampNanos;
+        actions[slot] = changed;
+        players[slot] = player;
+        pressed[slot] = isPress;
+        tail.lazySet(position + 1); // Publishes the slot's contents to the consumer.
+        return true;
+    }
+
+    /**
+     * Hands every available event to a handler. Called only from the consumer thread.
+     *
+     * @param handler Receives each event.
+     * @return The number of events drained.
+     */
+    public int drain(Handler handler)
+    {
+        long position = head.get();
+        long end = tail.get();
+        for (long p = position; p < end; p++)
+        {
+            int slot = (int) p & mask;
+            handler.event(players[slot], actions[slot], pressed[slot], timestamps[slot]);
+        }
+        head.lazySet(end); // Frees the slots for the producer.
+        return (int) (end - position);
+    }
+
+    /**
+     * Returns the number of events waiting to be drained.
+     */
+    public int size()
+    {
+        return (int) (tail.get() - head.get());
+    }
+
+    public int getCapacity()
+    {
+        return mask + 1;
+    }
+
+    /**
+     * Returns how many events were dropped because the buffer was full.
+     */
+    public long getDropped()
+    {
+        return dropped;
+    }
+}
@@ -0,0 +1,46 @@
+package FightingGame;
+
+/**
+ * Carries one player's per-tick inputs to the other side of an online match.
+ * Each side of the match owns one endpoint. Reliability is the transport's job: it keeps
+ * resending inputs the peer has not acknowledged, so the session above it only ever sees
+ * each remote tick's input once, possibly late and out of order, and never a lost one.
+ */
+public interface InputTransport extends AutoCloseable
+{
+    /**
+     * Receives remote inputs as they arrive.
+     */
+    interface Receiver
+    {
+        /**
+         * @param tick  The tick the input belongs to (the first tick is 1).
+         * @param input The remote player's PlayerInput bits for that tick.
+         */
+        void remoteInput(long tick, long input);
+    }
+
+    /**
+     * Sends the local player's input for a tick, together with any earlier inputs the peer
+     * has not acknowledged yet. Sending the latest tick again only resends; a stalled
+     * session does this so both sides keep hearing from each other.
+     *
+     * @param tick  The tick the input belongs to; ticks are sent in increasing order.
+     * @param input The local player's PlayerInput bits.
+     */
+    void sendInput(long tick, long input);
+
+    /**
+     * Hands every remote input that has arrived since the last call to the receiver.
+     *
+     * @param receiver Called once per newly received tick.
+     * @return The number of inputs delivered.
+     */
+    int poll(Receiver receiver);
+
+    /**
+     * Releases the endpoint. Inputs sent afterwards are dropped.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,148 @@
+package FightingGame;
+
+import java.util.Arrays; // Clears the bucket counts.
+
+/**
+ * Fixed-size histogram of nanosecond latencies with HDR-style log-linear buckets.
+ * Every power-of-two range is split into 32 equal sub-buckets, so any recorded value is
+ * reported to within about 3% while the whole range of a long fits in under 2,000 counters.
+ * Recording is a few shifts and an array increment, with no allocation.
+ */
+public class LatencyHistogram
+{
+    private static final int SUB_BUCKET_BITS = 5; // 2^5 = 32 sub-buckets per power of two.
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKET_COUNT]; // Number of values recorded in each bucket.
+    private long totalCount = 0; // Number of values recorded.
+    private long totalNanos = 0; // Sum of the values recorded, for the mean.
+    private long min = Long.MAX_VALUE; // Smallest value recorded.
+    private long max = 0; // Largest value recorded.
+
+    /**
+     * Records one latency.
+     *
+     * @param nanos The latency in nanoseconds; negative values count as zero.
+     */
+    public void record(long nanos)
+    {
+        long value = Math.max(0, nanos);
+        counts[bucketOf(value)]++;
+        totalCount++;
+        totalNanos += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Returns the latency below which a given share of the recorded values fall.
+     *
+     * @param percentile From 0 to 100, e.g. 99 for p99.
+     * @return The latency in nanoseconds (accurate to the bucket width), or 0 if empty.
+     */
+    public long getValueAtPercentile(double percentile)
+    {
+        if (totalCount == 0)
+        {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++)
+        {
+            seen += counts[bucket];
+            if (seen >= target)
+            {
+                return Math.min(highestValueIn(bucket), max);
+            }
+        }
+        return max;
+    }
+
+    public long getCount()
+    {
+        return totalCount;
+    }
+
+    public long getMin()
+    {
+        return totalCount == 0 ? 0 : min;
+    }
+
+    public long getMax()
+    {
+        return max;
+    }
+
+    public double getMean()
+    {
+        return totalCount == 0 ? 0 : (double) totalNanos / totalCount;
+    }
+
+    /**
+     * Adds every value recorded in another histogram, e.g. to combine per-thread histograms.
+     *
+     * @param other The histogram to add; left unchanged.
+     */
+    public void add(LatencyHistogram other)
+    {
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++)
+        {
+            counts[bucket] += other.counts[bucket];
+        }
+        totalCount += other.totalCount;
+        totalNanos += other.totalNanos;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Clears every recorded value.
+     */
+    public void reset()
+    {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        totalNanos = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+
+    /**
+     * Formats the count, p50, p99 and max in milliseconds on one line.
+     *
+     * @param name Label printed in front of the numbers.
+     * @return A line such as "input to tick: n=42 p50=3.10 ms p99=16.20 ms max=16.90 ms".
+     */
+    public String summary(String name)
+    {
+        return String.format("%s: n=%d p50=%.2f ms p99=%.2f ms max=%.2f ms", name, totalCount,
+            getValueAtPercentile(50) / 1e6, getValueAtPercentile(99) / 1e6, getMax() / 1e6);
+    }
+
+    // Small values get a bucket each; larger ones share a bucket with values of the same leading bits.
+    private static int bucketOf(long value)
+    {
+        if (value < SUB_BUCKETS)
+        {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value); // Position of the highest set bit.
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    // The largest value that falls into a bucket.
+    private static long highestValueIn(int bucket)
+    {
+        if (bucket < SUB_BUCKETS)
+        {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long subBucket = bucket % SUB_BUCKETS;
+        return ((SUB_BUCKETS + subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,93 @@
+package FightingGame;
+
+/**
+ * Measures how long player input takes to reach the screen.
+ * Each key event carries the System.nanoTime() at which the window received it. The match
+ * notes when the tick that applies it runs, and the game loop notes when the next frame
+ * that shows the result has been drawn, giving three histograms:
+ * <ul>
+ *   <li>input to tick: time spent queued before the simulation applied the input,</li>
+ *   <li>tick to render: time from that tick until a frame showing its result was drawn,</li>
+ *   <li>input to render: the sum of both, the closest measure of input-to-photon latency
+ *       available without display hardware timestamps.</li>
+ * </ul>
+ * Game-design delays such as an attack's wind-up come on top and are not measured here.
+ */
+public class LatencyRecorder
+{
+    private static final int MAX_PENDING = 256; // Inputs applied but not yet rendered.
+
+    private final LatencyHistogram inputToTick = new LatencyHistogram();
+    private final LatencyHistogram tickToRender = new LatencyHistogram();
+    private final LatencyHistogram inputToRender = new LatencyHistogram();
+
+    private final long[] pendingInputNanos = new long[MAX_PENDING]; // When each pending input was received.
+    private final long[] pendingTickNanos = new long[MAX_PENDING]; // When each pending input was applied.
+    private int pendingCount = 0;
+    private long overflowed = 0; // Inputs not tracked to the screen because too many were pending.
+
+    /**
+     * Records that a tick has applied an input.
+     *
+     * @param inputNanos When the input was received.
+     * @param tickNanos  When the tick applied it.
+     */
+    public void inputApplied(long inputNanos, long tickNanos)
+    {
+        inputToTick.record(tickNanos - inputNanos);
+        if (pendingCount == MAX_PENDING)
+        {
+            overflowed++;
+            return;
+        }
+        pendingInputNanos[pendingCount] = inputNanos;
+        pendingTickNanos[pendingCount] = tickNanos;
+        pendingCount++;
+    }
+
+    /**
+     * Records that a frame has been drawn, completing every input applied since the last frame.
+     * Headless matches never call this.
+     *
+     * @param renderNanos When the frame finished drawing.
+     */
+    public void frameRendered(long renderNanos)
+    {
+        for (int i = 0; i < pendingCount; i++)
+        {
+            tickToRender.record(renderNanos - pendingTickNanos[i]);
+            inputToRender.record(renderNanos - pendingInputNanos[i]);
+        }
+        pendingCount = 0;
+    }
+
+    public LatencyHistogram getInputToTick()
+    {
+        return inputToTick;
+    }
+
+    public LatencyHistogram getTickToRender()
+    {
+        return tickToRender;
+    }
+
+    public LatencyHistogram getInputToRender()
+    {
+        return inputToRender;
+    }
+
+    /**
+     * Prints p50, p99 and max of each histogram.
+     */
+    public void dump()
+    {
+        System.out.println("Input latency:");
+        System.out.println("  " + inputToTick.summary("input to tick"));
+        System.out.println("  " + tickToRender.summary("tick to render"));
+        System.out.println("  " + inputToRender.summary("input to render"));
+        if (overflowed > 0)
+        {
+            System.out.println("  " + overflowed + " inputs were not tracked to the screen.");
+        }
+    }
+}
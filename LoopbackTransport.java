@@ -0,0 +1,168 @@
+package FightingGame;
+
+import java.util.ArrayList; // Packets in flight toward an endpoint.
+import java.util.List;
+import java.util.function.LongSupplier; // The clock packets are delayed against.
+
+/**
+ * In-process {@link InputTransport} that links two endpoints through a simulated network,
+ * so online play and rollback can be tested on one machine. Every packet is delayed by a
+ * fixed latency plus random jitter and may be lost; jitter also reorders packets.
+ * <p>
+ * Each packet carries every input the peer has not acknowledged yet (up to
+ * {@link #MAX_INPUTS_PER_PACKET}) and the highest tick up to which this side has received
+ * everything, so lost packets are covered by the next one. All randomness comes from a
+ * seeded generator and the clock is supplied by the caller, so a run with a virtual clock
+ * is exactly reproducible. Packets are small objects; this is a test transport.
+ */
+public class LoopbackTransport implements InputTransport
+{
+    public static final int MAX_INPUTS_PER_PACKET = 32; // Unacknowledged inputs repeated in each packet.
+    private static final int HISTORY = 256; // Ticks of sent and received input kept; a power of two.
+
+    // One datagram on the simulated wire.
+    private static final class Packet
+    {
+        final long deliverAtNanos; // When the packet reaches the other endpoint.
+        final long ack; // Sender has every input up to this tick.
+        final long firstTick; // Tick of inputs[0].
+        final long[] inputs; // Consecutive inputs starting at firstTick.
+
+        Packet(long deliverAtNanos, long ack, long firstTick, long[] inputs)
+        {
+            this.deliverAtNanos = deliverAtNanos;
+            this.ack = ack;
+            this.firstTick = firstTick;
+            this.inputs = inputs;
+        }
+    }
+
+    private final long latencyNanos; // One-way delay of every packet.
+    private final long jitterNanos; // Extra random delay, from 0 up to this.
+    private final double lossRate; // Chance that a packet is dropped.
+    private final MatchRandom random; // Jitter and loss rolls.
+    private final LongSupplier clock; // Current time in nanoseconds.
+
+    private LoopbackTransport peer; // The other end of the link.
+    private final List<Packet> inFlight = new ArrayList<>(); // Packets on their way to this endpoint.
+    private boolean closed = false;
+
+    private final long[] sent = new long[HISTORY]; // Local inputs by tick.
+    private long lastSentTick = 0; // Highest tick passed to sendInput.
+    private long peerAck = 0; // The peer has every local input up to this tick.
+
+    private final long[] receivedTicks = new long[HISTORY]; // Tick stored in each slot, to tell new inputs from old.
+    private long receivedThrough = 0; // Every remote input up to this tick has arrived.
+
+    private long packetsSent = 0;
+    private long packetsLost = 0;
+
+    private LoopbackTransport(long latencyNanos, long jitterNanos, double lossRate, long seed, LongSupplier clock)
+    {
+        this.latencyNanos = latencyNanos;
+        this.jitterNanos = jitterNanos;
+        this.lossRate = lossRate;
+        this.random = new MatchRandom(seed);
+        this.clock = clock;
+    }
+
+    /**
+     * Creates two linked endpoints.
+     *
+     * @param latencyMs One-way latency in milliseconds.
+     * @param jitterMs  Maximum extra random delay in milliseconds.
+     * @param lossRate  Chance from 0 to 1 that any packet is lost.
+     * @param seed      Seed for the jitter and loss rolls.
+     * @param clock     Time source in nanoseconds, e.g. System::nanoTime or a virtual clock.
+     * @return The two endpoints; give one to each side of the match.
+     */
+    public static LoopbackTransport[] createPair(int latencyMs, int jitterMs, double lossRate, long seed, LongSupplier clock)
+    {
+        LoopbackTransport a = new LoopbackTransport(latencyMs * 1_000_000L, jitterMs * 1_000_000L, lossRate, seed, clock);
+        LoopbackTransport b = new LoopbackTransport(latencyMs * 1_000_000L, jitterMs * 1_000_000L, lossRate, ~seed, clock);
+        a.peer = b;
+        b.peer = a;
+        return new LoopbackTransport[] { a, b };
+    }
+
+    @Override
+    public void sendInput(long tick, long input)
+    {
+        if (closed)
+        {
+            return;
+        }
+        if (tick > lastSentTick)
+        {
+            sent[(int) (tick & (HISTORY - 1))] = input;
+            lastSentTick = tick;
+        }
+
+        long first = Math.max(peerAck + 1, lastSentTick - MAX_INPUTS_PER_PACKET + 1);
+        long[] inputs = new long[(int) Math.max(0, lastSentTick - first + 1)];
+        for (int i = 0; i < inputs.length; i++)
+        {
+            inputs[i] = sent[(int) ((first + i) & (HISTORY - 1))];
+        }
+
+        packetsSent++;
+        if (random.nextDouble() < lossRate)
+        {
+            packetsLost++;
+            return; // Lost on the wire.
+        }
+        long delay = latencyNanos + (long) (random.nextDouble() * jitterNanos);
+        peer.inFlight.add(new Packet(clock.getAsLong() + delay, receivedThrough, first, inputs));
+    }
+
+    @Override
+    public int poll(Receiver receiver)
+    {
+        long now = clock.getAsLong();
+        int delivered = 0;
+        for (int p = 0; p < inFlight.size(); p++)
+        {
+            Packet packet = inFlight.get(p);
+            if (packet.deliverAtNanos > now)
+            {
+                continue; // Still on the wire.
+            }
+            inFlight.remove(p--);
+            peerAck = Math.max(peerAck, packet.ack);
+            for (int i = 0; i < packet.inputs.length; i++)
+            {
+                long tick = packet.firstTick + i;
+                int slot = (int) (tick & (HISTORY - 1));
+                if (tick <= receivedThrough || receivedTicks[slot] == tick)
+                {
+                    continue; // Already delivered.
+                }
+                receivedTicks[slot] = tick;
+                receiver.remoteInput(tick, packet.inputs[i]);
+                delivered++;
+            }
+            while (receivedTicks[(int) ((receivedThrough + 1) & (HISTORY - 1))] == receivedThrough + 1)
+            {
+                receivedThrough++;
+            }
+        }
+        return delivered;
+    }
+
+    @Override
+    public void close()
+    {
+        closed = true;
+        inFlight.clear();
+    }
+
+    public long getPacketsSent()
+    {
+        return packetsSent;
+    }
+
+    public long getPacketsLost()
+    {
+        return packetsLost;
+    }
+}
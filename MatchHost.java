@@ -0,0 +1,284 @@
+package FightingGame;
+
+import java.util.concurrent.atomic.AtomicReferenceArray; // Match slots, shared between the carriers and the input thread.
+import java.util.concurrent.locks.LockSupport; // Sleeps a carrier until its next tick is due.
+
+/**
+ * Runs many independent matches in real time on a small, fixed pool of carrier threads.
+ * Every match is a self-contained {@link MatchSimulation} with its own state, clock, random
+ * generator and input queue, so nothing is shared between matches. Matches live in numbered
+ * slots; slot {@code i} belongs to carrier {@code i % carriers}, which ticks all of its
+ * matches once per tick period and then sleeps until the next tick is due. The carriers
+ * start a fraction of a period apart, so their passes do not all land at once.
+ * <p>
+ * Each carrier keeps its own counters: how long every tick took to run (tick cost), how long
+ * after it was due it finished (tick latency), and how often a whole pass ran over by more
+ * than a tick period (overruns), after which the carrier skips ahead rather than bursting to
+ * catch up. {@link #collectStats} merges and clears them.
+ * <p>
+ * Inputs reach a match through its {@link InputRingBuffer}, which takes a single producer:
+ * {@link #offerInput} may only ever be called from one thread, e.g. the server's socket thread.
+ */
+public class MatchHost implements AutoCloseable
+{
+    /**
+     * Decides what happens to a slot when its match ends. Called on the match's carrier thread.
+     */
+    public interface MatchEnded
+    {
+        /**
+         * @param slot  The slot of the finished match.
+         * @param match The finished match.
+         * @return The match to play next in the slot, or null to free it.
+         */
+        MatchSimulation matchEnded(int slot, MatchSimulation match);
+    }
+
+    /**
+     * Totals collected from every carrier since the last call to {@link #collectStats}.
+     */
+    public static final class Stats
+    {
+        public final LatencyHistogram tickCost = new LatencyHistogram(); // Nanoseconds spent in each tick.
+        public final LatencyHistogram tickLatency = new LatencyHistogram(); // Nanoseconds from a tick being due to it finishing.
+        public long ticks = 0; // Ticks simulated.
+        public long overruns = 0; // Passes that ended more than a tick period late.
+        public long matchesEnded = 0; // Matches that finished.
+    }
+
+    private final AtomicReferenceArray<MatchSimulation> slots; // The match in each slot, or null.
+    private final MatchEnded onEnd;
+    private final long tickNanos; // Length of a tick period.
+    private final Carrier[] carriers;
+    private volatile boolean running = false;
+
+    /**
+     * Creates a host with no matches. Call {@link #start()} to begin ticking.
+     *
+     * @param carrierCount Number of carrier threads, e.g. the number of cores.
+     * @param capacity     Most matches hosted at once.
+     * @param tickRate     Ticks per second of every hosted match.
+     * @param onEnd        Decides what replaces a finished match.
+     */
+    public MatchHost(int carrierCount, int capacity, int tickRate, MatchEnded onEnd)
+    {
+        if (carrierCount <= 0 || capacity <= 0 || tickRate <= 0)
+        {
+            throw new IllegalArgumentException("Carrier count, capacity and tick rate must be positive.");
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.onEnd = onEnd;
+        this.tickNanos = 1_000_000_000L / tickRate;
+        this.carriers = new Carrier[carrierCount];
+        for (int i = 0; i < carrierCount; i++)
+        {
+            carriers[i] = new Carrier(i);
+        }
+    }
+
+    /**
+     * Starts the carrier threads.
+     */
+    public void start()
+    {
+        running = true;
+        long now = System.nanoTime();
+        for (Carrier carrier : carriers)
+        {
+            carrier.deadline = now + tickNanos * carrier.index / carriers.length; // Staggered starts.
+            carrier.thread.start();
+        }
+    }
+
+    /**
+     * Stops the carriers and waits for them to finish their current pass.
+     */
+    @Override
+    public void close()
+    {
+        running = false;
+        for (Carrier carrier : carriers)
+        {
+            LockSupport.unpark(carrier.thread);
+            try
+            {
+                carrier.thread.join();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Puts a match into a free slot; its carrier starts ticking it on its next pass.
+     * The match must not be ticked by anything else from now on.
+     *
+     * @param match A new match.
+     * @return The match's slot, which identifies it in the input protocol.
+     * @throws IllegalStateException If every slot is taken.
+     */
+    public int addMatch(MatchSimulation match)
+    {
+        for (int slot = 0; slot < slots.length(); slot++)
+        {
+            if (slots.get(slot) == null && slots.compareAndSet(slot, null, match))
+            {
+                return slot;
+            }
+        }
+        throw new IllegalStateException("The host is full (" + slots.length() + " matches).");
+    }
+
+    /**
+     * Returns the match in a slot, or null if the slot is free or out of range.
+     */
+    public MatchSimulation getMatch(int slot)
+    {
+        return slot >= 0 && slot < slots.length() ? slots.get(slot) : null;
+    }
+
+    /**
+     * Queues a key event for a hosted match; it takes effect on the match's next tick.
+     * Must always be called from the same thread.
+     *
+     * @param slot    The match's slot.
+     * @param player  0 for player 1, 1 for player 2.
+     * @param changed The PlayerInput bits pressed or released.
+     * @param isPress True for a press, false for a release.
+     * @return False if there is no such match or player, or the match's queue is full.
+     */
+    public boolean offerInput(int slot, int player, long changed, boolean isPress)
+    {
+        MatchSimulation match = getMatch(slot);
+        if (match == null || player < 0 || player > 1)
+        {
+            return false;
+        }
+        return match.getInputQueue().offer(player, changed, isPress, System.nanoTime());
+    }
+
+    public int getCapacity()
+    {
+        return slots.length();
+    }
+
+    public int getCarrierCount()
+    {
+        return carriers.length;
+    }
+
+    /**
+     * Returns the number of matches currently hosted.
+     */
+    public int getMatchCount()
+    {
+        int count = 0;
+        for (int slot = 0; slot < slots.length(); slot++)
+        {
+            if (slots.get(slot) != null)
+            {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Adds every carrier's counters to a total and clears them, e.g. to end a warm-up or
+     * report one measurement window. Waits for each carrier to finish its current pass.
+     *
+     * @param into Receives the totals.
+     */
+    public void collectStats(Stats into)
+    {
+        for (Carrier carrier : carriers)
+        {
+            synchronized (carrier)
+            {
+                into.tickCost.add(carrier.tickCost);
+                into.tickLatency.add(carrier.tickLatency);
+                into.ticks += carrier.ticks;
+                into.overruns += carrier.overruns;
+                into.matchesEnded += carrier.matchesEnded;
+                carrier.tickCost.reset();
+                carrier.tickLatency.reset();
+                carrier.ticks = 0;
+                carrier.overruns = 0;
+                carrier.matchesEnded = 0;
+            }
+        }
+    }
+
+    // One carrier thread and the counters only it updates (guarded by its own lock).
+    private final class Carrier implements Runnable
+    {
+        final int index;
+        final Thread thread;
+        final LatencyHistogram tickCost = new LatencyHistogram();
+        final LatencyHistogram tickLatency = new LatencyHistogram();
+        long ticks = 0;
+        long overruns = 0;
+        long matchesEnded = 0;
+        long deadline; // When the next pass is due. Set by start() before the thread runs, then only by the carrier under the lock.
+
+        Carrier(int index)
+        {
+            this.index = index;
+            this.thread = new Thread(this, "match-carrier-" + index);
+            thread.setDaemon(true);
+        }
+
+        @Override
+        public void run()
+        {
+            while (running)
+            {
+                long wait = deadline - System.nanoTime();
+                if (wait > 0)
+                {
+                    LockSupport.parkNanos(wait);
+                    continue;
+                }
+                synchronized (this)
+                {
+                    tickAll();
+                    deadline += tickNanos;
+                    long now = System.nanoTime();
+                    if (now - deadline > tickNanos)
+                    {
+                        overruns++; // Overloaded: let the matches run slow instead of bursting to catch up.
+                        deadline = now;
+                    }
+                }
+            }
+        }
+
+        // Ticks every match of this carrier once.
+        private void tickAll()
+        {
+            int step = carriers.length;
+            for (int slot = index; slot < slots.length(); slot += step)
+            {
+                MatchSimulation match = slots.get(slot);
+                if (match == null)
+                {
+                    continue;
+                }
+                long start = System.nanoTime();
+                match.tick();
+                long end = System.nanoTime();
+                tickCost.record(end - start);
+                tickLatency.record(end - deadline);
+                ticks++;
+                if (match.isOver())
+                {
+                    matchesEnded++;
+                    slots.set(slot, onEnd != null ? onEnd.matchEnded(slot, match) : null);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package FightingGame;
+
+/**
+ * Seedable random number generator owned by a single match (xoshiro256**).
+ * Every roll that affects gameplay, such as critical hits, misses and teleport targets,
+ * comes from the match's generator, so a match replays bit for bit from its seed, and
+ * matches simulated side by side never share or contend on a generator.
+ * The whole state is four longs in a small block; a match's generator keeps them in the
+ * match's state block, so saving the match saves the generator too.
+ * Not thread-safe; only the thread running the match may use it.
+ */
+public class MatchRandom
+{
+    public static final int STATE_LONGS = 4; // Size of the array used by copyState and restoreState, and of the generator's state block.
+
+    // Offsets of the state words in the block.
+    private static final int S0 = 0;
+    private static final int S1 = 1;
+    private static final int S2 = 2;
+    private static final int S3 = 3;
+
+    private final long seed; // The seed this generator was created with.
+    private final StateBlock state; // The four state words.
+
+    /**
+     * Creates a generator whose sequence is fully determined by a seed.
+     *
+     * @param seed Any value; equal seeds give equal sequences.
+     */
+    public MatchRandom(long seed)
+    {
+        this(seed, new StateBlock(STATE_LONGS));
+    }
+
+    /**
+     * Creates a generator whose state lives in a given block, e.g. a region of a match's state.
+     *
+     * @param seed  Any value; equal seeds give equal sequences.
+     * @param state At least {@link #STATE_LONGS} words; overwritten with the seeded state.
+     */
+    MatchRandom(long seed, StateBlock state)
+    {
+        this.seed = seed;
+        this.state = state;
+        // Spread the seed over the four state words with SplitMix64, which never yields all zeros here.
+        long x = seed;
+        state.putLong(S0, mix(x += 0x9E3779B97F4A7C15L));
+        state.putLong(S1, mix(x += 0x9E3779B97F4A7C15L));
+        state.putLong(S2, mix(x += 0x9E3779B97F4A7C15L));
+        state.putLong(S3, mix(x + 0x9E3779B97F4A7C15L));
+    }
+
+    /**
+     * Picks a seed for a new match, different on every call.
+     *
+     * @return A seed to pass to the constructor and to keep for replays.
+     */
+    public static long newSeed()
+    {
+        return mix(System.nanoTime() ^ Thread.currentThread().getId() * 0x9E3779B97F4A7C15L);
+    }
+
+    public long getSeed()
+    {
+        return seed;
+    }
+
+    /**
+     * Returns the next 64 random bits.
+     */
+    public long nextLong()
+    {
+        long s0 = state.getLong(S0);
+        long s1 = state.getLong(S1);
+        long s2 = state.getLong(S2);
+        long s3 = state.getLong(S3);
+
+        long result = Long.rotateLeft(s1 * 5, 7) * 9;
+        long t = s1 << 17;
+        s2 ^= s0;
+        s3 ^= s1;
+        s1 ^= s2;
+        s0 ^= s3;
+        s2 ^= t;
+        s3 = Long.rotateLeft(s3, 45);
+
+        state.putLong(S0, s0);
+        state.putLong(S1, s1);
+        state.putLong(S2, s2);
+        state.putLong(S3, s3);
+        return result;
+    }
+
+    /**
+     * Returns a random value from 0 (inclusive) to 1 (exclusive), like Math.random().
+     */
+    public double nextDouble()
+    {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Copies the generator state out, e.g. to resume the sequence in another generator.
+     *
+     * @param into Array with at least {@link #STATE_LONGS} elements.
+     */
+    public void copyState(long[] into)
+    {
+        for (int i = 0; i < STATE_LONGS; i++)
+        {
+            into[i] = state.getLong(i);
+        }
+    }
+
+    /**
+     * Restores state saved by {@link #copyState}, so the same rolls come out again.
+     *
+     * @param from Array with at least {@link #STATE_LONGS} elements.
+     */
+    public void restoreState(long[] from)
+    {
+        for (int i = 0; i < STATE_LONGS; i++)
+        {
+            state.putLong(i, from[i]);
+        }
+    }
+
+    // SplitMix64 finalizer: scrambles every bit of the input into every bit of the output.
+    private static long mix(long z)
+    {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,367 @@
+package FightingGame;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer; // Per-connection receive buffers and the load client's send buffer.
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector; // One thread serves every client connection.
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+
+/**
+ * Headless match server: a {@link MatchHost} ticking matches in real time, plus a local TCP
+ * socket through which clients send key events for the hosted matches.
+ * <p>
+ * The protocol is a stream of fixed-size {@value #FRAME_BYTES}-byte frames, big-endian:
+ * the match's slot (int), the player, 0 or 1 (short), 1 for a press or 0 for a release
+ * (short), and the PlayerInput bits that changed (long). Events take effect on the match's
+ * next tick, exactly like key presses in the local game. A single selector thread reads
+ * every connection, so it is the one producer every match's input queue allows.
+ * <p>
+ * Run on its own, the server is a load test: it hosts the given number of bot matches, in
+ * which player 1 is steered by a client over the socket and player 2 by a server-side bot,
+ * replaces every match that ends with a new one, and after a warm-up reports ticks per
+ * second, tick latency percentiles and overruns.
+ * <p>
+ * Usage: {@code MatchServer [matches] [seconds] [carrier threads] [port]}
+ */
+public class MatchServer implements AutoCloseable
+{
+    public static final int FRAME_BYTES = 16; // Size of one input frame.
+    private static final int RECEIVE_BUFFER_BYTES = 64 * 1024; // Per connection; holds many frames.
+    private static final int WARMUP_SECONDS = 3; // Run before measuring, so the JIT has compiled the tick.
+
+    private final MatchHost host;
+    private final Selector selector;
+    private final ServerSocketChannel listener;
+    private final Thread thread;
+    private volatile boolean running = true;
+    private volatile long framesReceived = 0; // Written only by the selector thread.
+    private volatile long framesRejected = 0; // Frames for a missing match or a full input queue.
+
+    /**
+     * Opens the input socket on the loopback interface and starts reading it.
+     *
+     * @param host The matches the frames are for.
+     * @param port The TCP port, or 0 for any free one.
+     * @throws IOException If the socket cannot be opened.
+     */
+    public MatchServer(MatchHost host, int port) throws IOException
+    {
+        this.host = host;
+        this.selector = Selector.open();
+        this.listener = ServerSocketChannel.open();
+        listener.bind(new InetSocketAddress("127.0.0.1", port));
+        listener.configureBlocking(false);
+        listener.register(selector, SelectionKey.OP_ACCEPT);
+        this.thread = new Thread(this::serve, "match-server-input");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Returns the port the server is listening on.
+     */
+    public int getPort()
+    {
+        return listener.socket().getLocalPort();
+    }
+
+    public long getFramesReceived()
+    {
+        return framesReceived;
+    }
+
+    public long getFramesRejected()
+    {
+        return framesRejected;
+    }
+
+    /**
+     * Writes one input frame, e.g. in a client.
+     *
+     * @param out     Buffer with at least {@link #FRAME_BYTES} bytes remaining.
+     * @param slot    The match's slot.
+     * @param player  0 for player 1, 1 for player 2.
+     * @param changed The PlayerInput bits pressed or released.
+     * @param isPress True for a press, false for a release.
+     */
+    public static void putFrame(ByteBuffer out, int slot, int player, long changed, boolean isPress)
+    {
+        out.putInt(slot);
+        out.putShort((short) player);
+        out.putShort((short) (isPress ? 1 : 0));
+        out.putLong(changed);
+    }
+
+    /**
+     * Stops reading and closes the socket and every client connection.
+     */
+    @Override
+    public void close()
+    {
+        running = false;
+        selector.wakeup();
+        try
+        {
+            thread.join();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // The selector thread: accepts clients and hands their frames to the host.
+    private void serve()
+    {
+        try
+        {
+            while (running)
+            {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext())
+                {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (key.isAcceptable())
+                    {
+                        accept();
+                    }
+                    else if (key.isReadable())
+                    {
+                        read(key);
+                    }
+                }
+            }
+        }
+        catch (IOException e)
+        {
+            System.err.println("Match server input stopped: " + e.getMessage());
+        }
+        finally
+        {
+            for (SelectionKey key : selector.keys())
+            {
+                closeQuietly(key);
+            }
+            try
+            {
+                selector.close();
+            }
+            catch (IOException e)
+            {
+                // Already shutting down.
+            }
+        }
+    }
+
+    private void accept() throws IOException
+    {
+        SocketChannel client = listener.accept();
+        if (client == null)
+        {
+            return;
+        }
+        client.configureBlocking(false);
+        client.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        client.register(selector, SelectionKey.OP_READ, ByteBuffer.allocateDirect(RECEIVE_BUFFER_BYTES));
+    }
+
+    // Reads what a client sent and applies every complete frame; a partial frame waits for the rest.
+    private void read(SelectionKey key)
+    {
+        SocketChannel client = (SocketChannel) key.channel();
+        ByteBuffer buffer = (ByteBuffer) key.attachment();
+        int read;
+        try
+        {
+            read = client.read(buffer);
+        }
+        catch (IOException e)
+        {
+            read = -1; // Connection reset.
+        }
+        if (read < 0)
+        {
+            closeQuietly(key);
+            return;
+        }
+
+        buffer.flip();
+        long received = 0;
+        long rejected = 0;
+        while (buffer.remaining() >= FRAME_BYTES)
+        {
+            int slot = buffer.getInt();
+            int player = buffer.getShort();
+            boolean isPress = buffer.getShort() != 0;
+            long changed = buffer.getLong();
+            received++;
+            if (!host.offerInput(slot, player, changed, isPress))
+            {
+                rejected++;
+            }
+        }
+        buffer.compact();
+        framesReceived += received;
+        framesRejected += rejected;
+    }
+
+    private static void closeQuietly(SelectionKey key)
+    {
+        key.cancel();
+        try
+        {
+            key.channel().close();
+        }
+        catch (IOException e)
+        {
+            // Nothing left to release.
+        }
+    }
+
+    // Creates a server-side match: random characters, player 2 played by a bot.
+    private static MatchSimulation newMatch(long seed)
+    {
+        MatchRandom picks = new MatchRandom(seed);
+        int characters = CharacterRoster.size();
+        MatchSimulation match = new MatchSimulation(
+            CharacterRoster.createFighter((int) (picks.nextDouble() * characters), MatchSimulation.PLAYER1_START_X, MatchSimulation.START_Y),
+            CharacterRoster.createFighter((int) (picks.nextDouble() * characters), MatchSimulation.PLAYER2_START_X, MatchSimulation.START_Y),
+            GameConfig.TICK_RATE, picks.nextLong());
+        match.setVerbose(false);
+        BotController bot = new BotController(~seed);
+        match.setInputSource((m, tick) -> m.setInput(1, bot.inputFor(m, 1, tick)));
+        return match;
+    }
+
+    /**
+     * Load-test client: steers player 1 of every hosted match over the socket, changing each
+     * one's direction (and sometimes attacking) about twice a second, as a human might.
+     */
+    private static final class LoadClient implements Runnable
+    {
+        private static final long[] MOVES = { PlayerInput.LEFT, PlayerInput.RIGHT, PlayerInput.UP, PlayerInput.DOWN,
+            PlayerInput.LEFT | PlayerInput.ATTACK, PlayerInput.RIGHT | PlayerInput.ATTACK, PlayerInput.SHIELD, 0 };
+
+        private final SocketChannel channel;
+        private final long[] held; // What player 1 of each slot is holding.
+        private final MatchRandom random = new MatchRandom(17);
+        private final ByteBuffer out = ByteBuffer.allocateDirect(64 * 1024);
+        private volatile boolean running = true;
+
+        LoadClient(int port, int matches) throws IOException
+        {
+            channel = SocketChannel.open(new InetSocketAddress("127.0.0.1", port));
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            held = new long[matches];
+        }
+
+        @Override
+        public void run()
+        {
+            long tickNanos = 1_000_000_000L / GameConfig.TICK_RATE;
+            int perTick = Math.max(1, held.length / (GameConfig.TICK_RATE / 2)); // Every match changes about twice a second.
+            int next = 0;
+            try
+            {
+                while (running)
+                {
+                    for (int i = 0; i < perTick; i++, next = (next + 1) % held.length)
+                    {
+                        if (out.remaining() < 2 * FRAME_BYTES)
+                        {
+                            flush();
+                        }
+                        long move = MOVES[(int) (random.nextDouble() * MOVES.length)];
+                        if (held[next] != 0)
+                        {
+                            putFrame(out, next, 0, held[next], false);
+                        }
+                        if (move != 0)
+                        {
+                            putFrame(out, next, 0, move, true);
+                        }
+                        held[next] = move;
+                    }
+                    flush();
+                    Thread.sleep(tickNanos / 1_000_000);
+                }
+                channel.close();
+            }
+            catch (IOException | InterruptedException e)
+            {
+                if (running)
+                {
+                    System.err.println("Load client stopped: " + e.getMessage());
+                }
+            }
+        }
+
+        private void flush() throws IOException
+        {
+            out.flip();
+            while (out.hasRemaining())
+            {
+                channel.write(out);
+            }
+            out.clear();
+        }
+    }
+
+    public static void main(String[] args) throws Exception
+    {
+        int matches = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int carriers = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        int port = args.length > 3 ? Integer.parseInt(args[3]) : 0;
+
+        MatchHost host = new MatchHost(carriers, matches, GameConfig.TICK_RATE,
+            (slot, finished) -> newMatch(finished.getRandom().getSeed() * 31 + slot)); // Keep the load steady.
+        for (int i = 0; i < matches; i++)
+        {
+            host.addMatch(newMatch(i));
+        }
+        try (MatchServer server = new MatchServer(host, port))
+        {
+            System.out.println(String.format("Match server: %d matches on %d carrier thread(s) at %d ticks/s, inputs on 127.0.0.1:%d.",
+                matches, carriers, GameConfig.TICK_RATE, server.getPort()));
+            LoadClient client = new LoadClient(server.getPort(), matches);
+            Thread clientThread = new Thread(client, "match-server-load");
+            clientThread.setDaemon(true);
+            host.start();
+            clientThread.start();
+
+            MatchHost.Stats stats = new MatchHost.Stats();
+            Thread.sleep(WARMUP_SECONDS * 1000L);
+            host.collectStats(stats); // Discard the warm-up.
+            long framesBefore = server.getFramesReceived();
+            long rejectedBefore = server.getFramesRejected();
+            stats = new MatchHost.Stats();
+            long start = System.nanoTime();
+            Thread.sleep(seconds * 1000L);
+            host.collectStats(stats);
+            double elapsed = (System.nanoTime() - start) / 1e9;
+            client.running = false;
+            host.close();
+
+            double ticksPerSecond = stats.ticks / elapsed;
+            double due = (double) matches * GameConfig.TICK_RATE;
+            System.out.println(String.format("Measured %.1f s: %,.0f ticks/s (%.1f%% of the %,.0f due), %d overruns, %d matches ended.",
+                elapsed, ticksPerSecond, 100 * ticksPerSecond / due, due, stats.overruns, stats.matchesEnded));
+            LatencyHistogram latency = stats.tickLatency;
+            System.out.println(String.format("Tick latency (due to done): p50=%.2f ms p99=%.2f ms p99.9=%.2f ms max=%.2f ms",
+                latency.getValueAtPercentile(50) / 1e6, latency.getValueAtPercentile(99) / 1e6,
+                latency.getValueAtPercentile(99.9) / 1e6, latency.getMax() / 1e6));
+            LatencyHistogram cost = stats.tickCost;
+            System.out.println(String.format("Tick cost: mean=%.1f us p50=%.1f us p99=%.1f us max=%.1f us",
+                cost.getMean() / 1e3, cost.getValueAtPercentile(50) / 1e3, cost.getValueAtPercentile(99) / 1e3, cost.getMax() / 1e3));
+            System.out.println(String.format("Inputs: %d frames received, %d rejected.",
+                server.getFramesReceived() - framesBefore, server.getFramesRejected() - rejectedBefore));
+        }
+    }
+}
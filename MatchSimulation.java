@@ -0,0 +1,726 @@
+package FightingGame;
+
+import java.util.Arrays; // Resets the per-tick collision flags.
+
+/**
+ * Headless simulation of a single match between two fighters.
+ * Owns the match clock, both fighters and every projectile in flight, and advances
+ * them in fixed-length ticks with {@link #tick()}, so gameplay is identical at any
+ * frame rate. Nothing here depends on JavaFX, so bot matches can run at full CPU speed;
+ * {@link GameApp} feeds real frame time to {@link #step(double)} and renders the state.
+ * <p>
+ * Everything the match changes while it ticks lives in one flat block of words ({@link StateBlock}): a small
+ * header (tick count, held inputs), then the random generator, stats, both fighters and the
+ * projectiles, with the effect queue last. Each component works on its own region of the
+ * block, so {@link #saveState} and {@link #restoreState} are a single bulk copy of the
+ * block's live prefix, with nothing to allocate or walk.
+ */
+public class MatchSimulation
+{
+    /**
+     * Supplies each tick's inputs from somewhere other than the keyboard, such as a replay.
+     */
+    public interface InputSource
+    {
+        /**
+         * Called at the start of every tick, before inputs are applied.
+         *
+         * @param match The match, whose inputs can be set with {@link MatchSimulation#setInput}.
+         * @param tick  The tick about to be simulated (the first tick is 1).
+         */
+        void supplyInputs(MatchSimulation match, long tick);
+    }
+
+    // Constants for arena dimensions
+    public static final int ARENA_WIDTH = 610;
+    public static final int ARENA_HEIGHT = 450;
+
+    // Constants for fighter boundaries
+    public static final double BOUNDARY_TOP = 100;
+    public static final double BOUNDARY_BOTTOM = 350;
+    public static final double BOUNDARY_LEFT = 50;
+    public static final double BOUNDARY_RIGHT = 550;
+
+    // Where the fighters stand when a match starts
+    public static final double PLAYER1_START_X = 100;
+    public static final double PLAYER2_START_X = 400;
+    public static final double START_Y = 200;
+
+    public static final double MATCH_DURATION_SECONDS = 200; // Length of a match.
+    static final int MAX_PROJECTILES_PER_PLAYER = 6; // Maximum number of active projectiles per fighter.
+    static final int MAX_EFFECTS = 256; // Most timed effects pending at once; a normal match peaks around 15.
+
+    // Layout of the state block header.
+    static final int TICK_COUNT = 0; // Ticks simulated since the match started (long).
+    private static final int OVER = 1; // Set once the match has been decided (flag).
+    private static final int INPUTS = 2; // Each fighter's PlayerInput bits for the next tick (2 longs).
+    private static final int PREVIOUS_INPUTS = 4; // Each fighter's input on the previous tick, for press/release edges (2 longs).
+    private static final int TAPPED_INPUTS = 6; // Actions pressed since the last tick, kept even if already released (2 longs).
+    private static final int HEADER_WORDS = 8;
+
+    private final Fighter player1; // The first fighter.
+    private final Fighter player2; // The second fighter.
+    private final StateBlock state; // Every piece of simulation state, see the class comment.
+    private final int effectsOffset; // Where the effect queue, the last region of the block, starts.
+    private final ProjectileStore projectiles; // Every projectile in flight.
+    private final EffectScheduler effects; // Timed ability and attack effects.
+    private final SpatialHashGrid collisionGrid = new SpatialHashGrid(0, 0, ARENA_WIDTH, ARENA_HEIGHT, GameConfig.COLLISION_CELL_SIZE);
+    private final SpatialHashGrid.PairVisitor projectilePairVisitor = this::resolveProjectilePair;
+    private final SpatialHashGrid.ItemVisitor fighterHitVisitor = this::resolveFighterHit;
+    private boolean[] destroyed = new boolean[2 * MAX_PROJECTILES_PER_PLAYER]; // Projectiles destroyed during this tick's collision pass.
+    private int hitTarget; // Index of the fighter being tested by the current grid query.
+    private final EffectScheduler.Handler effectHandler = (kind, target, amount) -> getFighter(target).applyEffect(kind, amount);
+
+    private final InputRingBuffer inputQueue = new InputRingBuffer(256); // Key events waiting for the next tick.
+    private final InputRingBuffer.Handler inputEventHandler = this::applyInputEvent;
+    private long inputEventsApplied = 0; // Queued events applied so far.
+    private final LatencyRecorder latency = new LatencyRecorder(); // Input-to-tick and input-to-render timings.
+    private FrameMetrics metrics; // Per-phase tick timings; null unless the view is recording them.
+    private InputSource inputSource; // Supplies inputs instead of the keyboard, e.g. during playback; may be null.
+    private ReplayWriter replay; // Records each tick's inputs; null when not recording.
+    private final MatchStats stats; // Damage by source and ability uses, for balance reports.
+    private boolean verbose = true; // Whether fighters print combat messages.
+
+    private final int tickRate; // Simulation ticks per second.
+    private final double tickSeconds; // Length of one tick in seconds.
+    private final FixedStepClock clock; // Converts frame time into whole ticks for step().
+    private final MatchRandom random; // Source of every random roll in this match.
+
+    /**
+     * Creates a match between two fighters at the configured tick rate.
+     *
+     * @param player1 The first fighter.
+     * @param player2 The second fighter.
+     */
+    public MatchSimulation(Fighter player1, Fighter player2)
+    {
+        this(player1, player2, GameConfig.TICK_RATE);
+    }
+
+    /**
+     * Creates a match between two fighters and makes them opponents.
+     *
+     * @param player1  The first fighter.
+     * @param player2  The second fighter.
+     * @param tickRate Simulation ticks per second.
+     */
+    public MatchSimulation(Fighter player1, Fighter player2, int tickRate)
+    {
+        this(player1, player2, tickRate, MatchRandom.newSeed());
+    }
+
+    /**
+     * Creates a match whose random rolls all follow from a seed, so it can be replayed exactly.
+     *
+     * @param player1  The first fighter.
+     * @param player2  The second fighter.
+     * @param tickRate Simulation ticks per second.
+     * @param seed     Seed of the match's random number generator.
+     */
+    public MatchSimulation(Fighter player1, Fighter player2, int tickRate, long seed)
+    {
+        if (player1 == null || player2 == null)
+        {
+            throw new IllegalArgumentException("MatchSimulation requires exactly two fighters.");
+        }
+        this.player1 = player1;
+        this.player2 = player2;
+        this.clock = new FixedStepClock(tickRate);
+        this.tickRate = tickRate;
+        this.tickSeconds = clock.getTickSeconds();
+
+        // Lay out the state block and give each component its region; the effect queue goes last
+        // because only its pending records need saving.
+        int projectileCapacity = 2 * MAX_PROJECTILES_PER_PLAYER;
+        int randomOffset = HEADER_WORDS;
+        int statsOffset = randomOffset + MatchRandom.STATE_LONGS;
+        int fightersOffset = statsOffset + MatchStats.STATE_WORDS;
+        int projectilesOffset = fightersOffset + 2 * Fighter.STATE_WORDS;
+        effectsOffset = projectilesOffset + ProjectileStore.stateWords(projectileCapacity, 2);
+        state = new StateBlock(effectsOffset + EffectScheduler.stateWords(MAX_EFFECTS));
+
+        this.random = new MatchRandom(seed, state.region(randomOffset, MatchRandom.STATE_LONGS));
+        this.stats = new MatchStats(state.region(statsOffset, MatchStats.STATE_WORDS));
+        player1.bindState(state.region(fightersOffset, Fighter.STATE_WORDS));
+        player2.bindState(state.region(fightersOffset + Fighter.STATE_WORDS, Fighter.STATE_WORDS));
+        this.projectiles = new ProjectileStore(projectileCapacity, 2,
+            state.region(projectilesOffset, ProjectileStore.stateWords(projectileCapacity, 2)));
+        this.effects = new EffectScheduler(MAX_EFFECTS,
+            state.region(effectsOffset, EffectScheduler.stateWords(MAX_EFFECTS)));
+
+        player1.setOpponent(player2);
+        player2.setOpponent(player1);
+        player1.setMatch(this, 0);
+        player2.setMatch(this, 1);
+    }
+
+    /**
+     * Advances the match by a frame's worth of real time.
+     * Runs as many fixed ticks as fit; the remainder carries over to the next frame.
+     *
+     * @param deltaTime Elapsed real time in seconds.
+     * @return The number of ticks that were simulated.
+     */
+    public int step(double deltaTime)
+    {
+        int ticks = clock.advance(deltaTime);
+        for (int i = 0; i < ticks && !isOver(); i++)
+        {
+            tick();
+        }
+        return ticks;
+    }
+
+    /**
+     * Advances the match by exactly one fixed tick.
+     * Moves the fighters, ticks shields and projectiles, then checks for a winner.
+     */
+    public void tick()
+    {
+        if (isOver())
+        {
+            return; // Nothing changes once the match has ended.
+        }
+
+        long tickCount = state.getLong(TICK_COUNT) + 1;
+        state.putLong(TICK_COUNT, tickCount);
+        long start = metrics != null ? System.nanoTime() : 0;
+
+        effects.runDue(tickCount, effectHandler); // Land attacks and expire ability effects due this tick.
+        long effectsDone = metrics != null ? System.nanoTime() : 0;
+
+        inputQueue.drain(inputEventHandler); // Apply key events that arrived since the last tick, in order.
+        if (inputSource != null)
+        {
+            inputSource.supplyInputs(this, tickCount);
+        }
+        applyInput(0);
+        applyInput(1);
+        long inputDone = metrics != null ? System.nanoTime() : 0;
+
+        player1.applyMovement(tickSeconds);
+        player2.applyMovement(tickSeconds);
+        player1.updateShieldState(tickSeconds);
+        player2.updateShieldState(tickSeconds);
+        long movementDone = metrics != null ? System.nanoTime() : 0;
+
+        projectiles.integrate(tickSeconds);
+        projectiles.cullOutside(0, 0, ARENA_WIDTH, ARENA_HEIGHT); // Drop projectiles that have left the arena.
+        resolveCollisions(); // Projectiles clash with each other and hit fighters.
+
+        if (metrics != null)
+        {
+            metrics.addPhase(FrameMetrics.PHASE_MOVEMENT, (effectsDone - start) + (movementDone - inputDone));
+            metrics.addPhase(FrameMetrics.PHASE_INPUT, inputDone - effectsDone);
+            metrics.addPhase(FrameMetrics.PHASE_PROJECTILES, System.nanoTime() - movementDone);
+            metrics.addTick();
+        }
+
+        // Check for the end of the match.
+        if (getTimeRemaining() <= 0 || player1.getHealth() <= 0 || player2.getHealth() <= 0)
+        {
+            state.putFlag(OVER, true);
+            effects.cancelAll(); // Pending effects die with the round.
+            if (replay != null)
+            {
+                replay.recordEnd(tickCount);
+            }
+        }
+    }
+
+    /**
+     * Copies the whole simulation state into a snapshot with one bulk copy, without allocating.
+     *
+     * @param snapshot A snapshot created for this match.
+     */
+    public void saveState(MatchSnapshot snapshot)
+    {
+        checkLayout(snapshot);
+        int length = usedWords();
+        snapshot.block.copyFrom(0, state, 0, length);
+        snapshot.length = length;
+    }
+
+    /**
+     * Puts the match back into the state saved in a snapshot, e.g. to re-simulate ticks
+     * with corrected inputs or to reset a training session. The next tick simulated is the
+     * one after the snapshot's.
+     *
+     * @param snapshot A snapshot filled by {@link #saveState} on this match or one with the same layout.
+     */
+    public void restoreState(MatchSnapshot snapshot)
+    {
+        checkLayout(snapshot);
+        if (snapshot.length == 0)
+        {
+            throw new IllegalStateException("The snapshot has not been saved yet.");
+        }
+        state.copyFrom(0, snapshot.block, 0, snapshot.length);
+    }
+
+    // Snapshots are only interchangeable between matches with the same block layout.
+    private void checkLayout(MatchSnapshot snapshot)
+    {
+        if (snapshot.block.size() != state.size())
+        {
+            throw new IllegalArgumentException("The snapshot was made for a match with a different state layout.");
+        }
+    }
+
+    // The header and every region up to the last pending effect; the rest of the effect queue is unused.
+    private int usedWords()
+    {
+        return effectsOffset + effects.usedWords();
+    }
+
+    /**
+     * Returns the size of the match's state block in words, which is also the size of each snapshot.
+     */
+    public int getStateWords()
+    {
+        return state.size();
+    }
+
+    /**
+     * Hashes the state both sides of an online match must agree on, to detect desyncs.
+     *
+     * @return A hash of every word of live simulation state.
+     */
+    public long checksum()
+    {
+        long hash = 0;
+        int length = usedWords();
+        for (int at = 0; at < length; at++)
+        {
+            hash = hash * 31 + state.getLong(at);
+        }
+        return hash;
+    }
+
+    /**
+     * Sets the actions a fighter holds from the next tick on.
+     *
+     * @param fighterIndex 0 for player 1, 1 for player 2.
+     * @param input        The fighter's PlayerInput bits.
+     */
+    public void setInput(int fighterIndex, long input)
+    {
+        state.putLong(INPUTS + fighterIndex, input);
+    }
+
+    public long getInput(int fighterIndex)
+    {
+        return state.getLong(INPUTS + fighterIndex);
+    }
+
+    /**
+     * Returns the queue that key events are offered to. Only one thread may offer events,
+     * and they are applied at the start of the next tick.
+     */
+    public InputRingBuffer getInputQueue()
+    {
+        return inputQueue;
+    }
+
+    public long getInputEventsApplied()
+    {
+        return inputEventsApplied;
+    }
+
+    /**
+     * Returns the input latency histograms. The view reports each drawn frame to it.
+     */
+    public LatencyRecorder getLatency()
+    {
+        return latency;
+    }
+
+    /**
+     * Starts or stops timing the input, movement and projectile phases of each tick.
+     *
+     * @param metrics The recorder to add phase times to, or null to stop timing.
+     */
+    public void setMetrics(FrameMetrics metrics)
+    {
+        this.metrics = metrics;
+    }
+
+    public FrameMetrics getMetrics()
+    {
+        return metrics;
+    }
+
+    public MatchStats getStats()
+    {
+        return stats;
+    }
+
+    /**
+     * Turns the fighters' combat messages on or off. Headless batches of matches run quietly.
+     *
+     * @param verbose True to print combat messages (the default).
+     */
+    public void setVerbose(boolean verbose)
+    {
+        this.verbose = verbose;
+    }
+
+    public boolean isVerbose()
+    {
+        return verbose;
+    }
+
+    /**
+     * Makes every tick take its inputs from a source such as a replay, applied after any key events.
+     *
+     * @param inputSource The source, or null to use only key events and setInput.
+     */
+    public void setInputSource(InputSource inputSource)
+    {
+        this.inputSource = inputSource;
+    }
+
+    /**
+     * Records the input each fighter acts on every tick, and the tick the match ends on.
+     *
+     * @param replay The writer to record to, or null to stop recording.
+     */
+    public void setReplayWriter(ReplayWriter replay)
+    {
+        this.replay = replay;
+    }
+
+    // Applies one queued key event to the held input of its player.
+    private void applyInputEvent(int player, long actions, boolean pressed, long timestampNanos)
+    {
+        int held = INPUTS + player;
+        int tapped = TAPPED_INPUTS + player;
+        if (pressed)
+        {
+            state.putLong(held, state.getLong(held) | actions);
+            state.putLong(tapped, state.getLong(tapped) | actions); // A press released before this tick still counts once.
+        }
+        else
+        {
+            state.putLong(held, state.getLong(held) & ~actions);
+        }
+
+        inputEventsApplied++;
+        latency.inputApplied(timestampNanos, System.nanoTime());
+    }
+
+    // Turns one fighter's input bits for this tick into movement and actions.
+    private void applyInput(int index)
+    {
+        Fighter fighter = getFighter(index);
+        Fighter opponent = getFighter(1 - index);
+        long input = state.getLong(INPUTS + index) | state.getLong(TAPPED_INPUTS + index);
+        long previous = state.getLong(PREVIOUS_INPUTS + index);
+        state.putLong(PREVIOUS_INPUTS + index, input);
+        state.putLong(TAPPED_INPUTS + index, 0);
+        if (replay != null)
+        {
+            replay.recordInput(getTickCount(), index, input);
+        }
+
+        // Only directions held this tick move the fighter.
+        fighter.stopMoving();
+        if ((input & PlayerInput.UP) != 0)
+        {
+            fighter.moveUp();
+        }
+        if ((input & PlayerInput.DOWN) != 0)
+        {
+            fighter.moveDown();
+        }
+        if ((input & PlayerInput.LEFT) != 0)
+        {
+            fighter.moveLeft();
+        }
+        if ((input & PlayerInput.RIGHT) != 0)
+        {
+            fighter.moveRight();
+        }
+
+        // Holding attack swings again as soon as the last attack has recovered.
+        if ((input & PlayerInput.ATTACK) != 0)
+        {
+            fighter.releaseShieldKey(); // Automatically disable the shield if attacking
+            fighter.performAttack(opponent);
+        }
+
+        if (PlayerInput.pressed(input, previous, PlayerInput.SPECIAL))
+        {
+            fighter.performSpecialAbility(opponent);
+        }
+
+        // The shield stays up while its key is held.
+        if ((input & PlayerInput.SHIELD) != 0)
+        {
+            fighter.activateShield();
+        }
+        else if (PlayerInput.released(input, previous, PlayerInput.SHIELD))
+        {
+            fighter.releaseShieldKey();
+        }
+
+        // Projectiles charge while the key is held and launch when it is released.
+        if (PlayerInput.pressed(input, previous, PlayerInput.PROJECTILE))
+        {
+            fighter.startCharging();
+        }
+        else if (PlayerInput.released(input, previous, PlayerInput.PROJECTILE))
+        {
+            fighter.launchChargedProjectile(opponent);
+        }
+    }
+
+    /**
+     * Resolves projectile-projectile and projectile-fighter collisions for this tick.
+     * The projectiles are bucketed into a uniform grid over the arena (broadphase),
+     * and only projectiles sharing a cell are tested with circle maths (narrowphase).
+     */
+    private void resolveCollisions()
+    {
+        int count = projectiles.getCount();
+        if (count == 0)
+        {
+            return;
+        }
+        if (destroyed.length < count)
+        {
+            destroyed = new boolean[Math.max(count, destroyed.length * 2)];
+        }
+        Arrays.fill(destroyed, 0, count, false);
+
+        collisionGrid.clear();
+        for (int i = 0; i < count; i++)
+        {
+            double radius = projectiles.getRadius(i);
+            collisionGrid.insert(i, projectiles.getX(i) - radius, projectiles.getY(i) - radius,
+                projectiles.getX(i) + radius, projectiles.getY(i) + radius);
+        }
+        collisionGrid.build();
+
+        collisionGrid.forEachPair(projectilePairVisitor);
+        checkFighterHits(0);
+        checkFighterHits(1);
+
+        // Remove destroyed projectiles, walking backwards so swapped-in slots are already resolved.
+        for (int i = count - 1; i >= 0; i--)
+        {
+            if (destroyed[i])
+            {
+                projectiles.remove(i);
+            }
+        }
+    }
+
+    // Larger projectiles destroy smaller ones; equal sizes cancel each other out.
+    private void resolveProjectilePair(int a, int b)
+    {
+        if (destroyed[a] || destroyed[b])
+        {
+            return;
+        }
+        if (projectiles.getOwner(a) == projectiles.getOwner(b) || !projectiles.overlaps(a, b))
+        {
+            return; // A fighter's own projectiles pass through each other.
+        }
+
+        double sizeA = projectiles.getRadius(a);
+        double sizeB = projectiles.getRadius(b);
+        if (sizeA > sizeB)
+        {
+            destroyed[b] = true; // Smaller projectile is destroyed
+        }
+        else if (sizeA < sizeB)
+        {
+            destroyed[a] = true; // Smaller projectile is destroyed
+        }
+        else
+        {
+            destroyed[a] = true; // Both projectiles are the same size and cancel each other out
+            destroyed[b] = true;
+        }
+    }
+
+    // Queries the grid around a fighter's body box for opposing projectiles.
+    private void checkFighterHits(int index)
+    {
+        Fighter target = getFighter(index);
+        hitTarget = index;
+        collisionGrid.forEachInBox(target.getX() + Fighter.BODY_LEFT, target.getY() + Fighter.BODY_TOP,
+            target.getX() + Fighter.BODY_RIGHT, target.getY() + Fighter.BODY_BOTTOM, fighterHitVisitor);
+    }
+
+    private void resolveFighterHit(int slot)
+    {
+        if (destroyed[slot] || projectiles.getOwner(slot) == hitTarget)
+        {
+            return;
+        }
+        Fighter target = getFighter(hitTarget);
+        if (!SpatialHashGrid.circleIntersectsBox(projectiles.getX(slot), projectiles.getY(slot), projectiles.getRadius(slot),
+            target.getX() + Fighter.BODY_LEFT, target.getY() + Fighter.BODY_TOP,
+            target.getX() + Fighter.BODY_RIGHT, target.getY() + Fighter.BODY_BOTTOM))
+        {
+            return;
+        }
+        double dealt = target.takeDamage((int) projectiles.getDamage(slot));
+        stats.recordDamage(projectiles.getOwner(slot), MatchStats.PROJECTILE, dealt);
+        destroyed[slot] = true;
+    }
+
+    /**
+     * Schedules a timed effect on a fighter, measured on the match clock.
+     *
+     * @param kind    One of the EffectScheduler kind constants.
+     * @param target  Index of the affected fighter (0 or 1).
+     * @param amount  Magnitude of the effect.
+     * @param delayMs Delay in milliseconds before the effect fires.
+     * @return A handle that can be used to cancel the effect.
+     */
+    public long scheduleEffect(int kind, int target, double amount, long delayMs)
+    {
+        long delayTicks = Math.max(1, Math.round(delayMs * tickRate / 1000.0));
+        return effects.schedule(kind, target, amount, getTickCount() + delayTicks);
+    }
+
+    public EffectScheduler getEffects()
+    {
+        return effects;
+    }
+
+    /**
+     * Launches a projectile into the match, unless its owner already has the
+     * maximum number of projectiles in flight.
+     *
+     * @param owner   Index of the launching fighter (0 or 1).
+     * @param startX  Starting X-coordinate.
+     * @param startY  Starting Y-coordinate.
+     * @param targetX X-coordinate the projectile is aimed at.
+     * @param targetY Y-coordinate the projectile is aimed at.
+     * @param size    Radius of the projectile.
+     * @param speed   Travel speed in pixels per frame at 60 Hz.
+     * @return True if the projectile was launched.
+     */
+    public boolean launchProjectile(int owner, double startX, double startY, double targetX, double targetY, double size, double speed)
+    {
+        if (projectiles.getOwnerCount(owner) >= MAX_PROJECTILES_PER_PLAYER)
+        {
+            getFighter(owner).log(getFighter(owner).getName() + " cannot launch more than "
+                + MAX_PROJECTILES_PER_PLAYER + " projectiles.");
+            return false;
+        }
+
+        return projectiles.launch(owner, startX, startY, targetX, targetY, size, speed) >= 0;
+    }
+
+    /**
+     * Returns how many projectiles a fighter has in flight, e.g. for the HUD or a bot.
+     *
+     * @param fighterIndex 0 for player 1, 1 for player 2.
+     * @return The fighter's live projectile count.
+     */
+    public int getProjectileCount(int fighterIndex)
+    {
+        return projectiles.getOwnerCount(fighterIndex);
+    }
+
+    /**
+     * Returns how many more projectiles a fighter may launch before hitting the limit.
+     *
+     * @param fighterIndex 0 for player 1, 1 for player 2.
+     * @return The number of projectiles the fighter can still launch.
+     */
+    public int getProjectilesRemaining(int fighterIndex)
+    {
+        return MAX_PROJECTILES_PER_PLAYER - projectiles.getOwnerCount(fighterIndex);
+    }
+
+    public ProjectileStore getProjectiles()
+    {
+        return projectiles;
+    }
+
+    /**
+     * Returns a fighter by its slot in the match.
+     *
+     * @param index 0 for player 1, 1 for player 2.
+     * @return The fighter in that slot.
+     */
+    public Fighter getFighter(int index)
+    {
+        return index == 0 ? player1 : player2;
+    }
+
+    public Fighter getPlayer1()
+    {
+        return player1;
+    }
+
+    public Fighter getPlayer2()
+    {
+        return player2;
+    }
+
+    public double getTimeRemaining()
+    {
+        return Math.max(0, MATCH_DURATION_SECONDS - getTickCount() * tickSeconds);
+    }
+
+    /**
+     * Returns the simulated time since the match started, used by fighters for cooldowns.
+     *
+     * @return Elapsed match time in milliseconds.
+     */
+    public long getTimeMillis()
+    {
+        return getTickCount() * 1000 / tickRate;
+    }
+
+    /**
+     * Returns the match's random number generator. Critical hits, misses and teleports roll on it.
+     */
+    public MatchRandom getRandom()
+    {
+        return random;
+    }
+
+    public long getTickCount()
+    {
+        return state.getLong(TICK_COUNT);
+    }
+
+    public int getTickRate()
+    {
+        return tickRate;
+    }
+
+    /**
+     * Returns how far the current frame is between the last tick and the next one,
+     * for drawing positions smoothly between ticks.
+     *
+     * @return A value from 0 up to, but not including, 1.
+     */
+    public double getInterpolationAlpha()
+    {
+        return clock.getAlpha();
+    }
+
+    public boolean isOver()
+    {
+        return state.getFlag(OVER);
+    }
+
+    /**
+     * Returns the winning fighter, decided by remaining health.
+     *
+     * @return The fighter with more health left.
+     */
+    public Fighter getWinner()
+    {
+        return player1.getHealth() > player2.getHealth() ? player1 : player2;
+    }
+}
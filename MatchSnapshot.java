@@ -0,0 +1,42 @@
+package FightingGame;
+
+/**
+ * A saved copy of everything a {@link MatchSimulation} changes while it ticks: the tick
+ * count, held inputs, random generator, stats, both fighters, projectiles and pending effects.
+ * The match keeps all of it in one flat block, so a snapshot is a block of the same size,
+ * and saving or restoring is one bulk copy of the part in use. Snapshots are created once
+ * and refilled with {@link MatchSimulation#saveState}, so saving and restoring every tick,
+ * as rollback netcode does, never allocates. Anything that is not simulation
+ * state (metrics, replay writer, input queue, view) is left out.
+ */
+public final class MatchSnapshot
+{
+    final StateBlock block; // The saved state, laid out like the match's block.
+    int length = 0; // Words of the block that were in use when it was saved; 0 before the first save.
+
+    /**
+     * Creates an empty snapshot sized for a match.
+     *
+     * @param match The match it will hold the state of.
+     */
+    public MatchSnapshot(MatchSimulation match)
+    {
+        block = new StateBlock(match.getStateWords());
+    }
+
+    /**
+     * Returns the tick the snapshot was taken after; restoring it makes this tick the last one simulated.
+     */
+    public long getTick()
+    {
+        return block.getLong(MatchSimulation.TICK_COUNT);
+    }
+
+    /**
+     * Returns how many words the last save copied.
+     */
+    public int getLength()
+    {
+        return length;
+    }
+}
@@ -0,0 +1,97 @@
+package FightingGame;
+
+/**
+ * Per-match counters for balance analysis: the health damage each fighter dealt, split by
+ * source, and how often each used their special ability. Updated by the simulation as hits
+ * land. The counters are part of the match state, so a rolled-back hit is uncounted again.
+ */
+public class MatchStats
+{
+    // Damage sources
+    public static final int ATTACK = 0; // Basic attacks with no ability boost.
+    public static final int SPECIAL = 1; // Basic attacks landed while a special ability boosted them.
+    public static final int PROJECTILE = 2; // Charged projectiles.
+    public static final int SOURCE_COUNT = 3;
+
+    private static final String[] SOURCE_NAMES = { "attack", "special", "projectile" };
+
+    // Layout of the counters in the state block.
+    private static final int DAMAGE = 0; // Health damage dealt: a double per fighter and source, fighter-major.
+    private static final int ABILITY_USES = DAMAGE + 2 * SOURCE_COUNT; // Special abilities used: an int per fighter.
+    static final int STATE_WORDS = ABILITY_USES + 2;
+
+    private final StateBlock state; // The counters.
+
+    /**
+     * Creates zeroed counters in a block of their own.
+     */
+    public MatchStats()
+    {
+        this(new StateBlock(STATE_WORDS));
+    }
+
+    /**
+     * Creates counters that live in a given block, e.g. a region of a match's state.
+     *
+     * @param state At least {@link #STATE_WORDS} zeroed words.
+     */
+    MatchStats(StateBlock state)
+    {
+        this.state = state;
+    }
+
+    // Position of one damage counter in the block.
+    private static int damageAt(int player, int source)
+    {
+        return DAMAGE + player * SOURCE_COUNT + source;
+    }
+
+    /**
+     * Adds health damage dealt by a fighter. Damage absorbed by shields is not counted.
+     *
+     * @param attacker 0 for player 1, 1 for player 2.
+     * @param source   One of the source constants.
+     * @param amount   Health the target lost.
+     */
+    public void recordDamage(int attacker, int source, double amount)
+    {
+        int at = damageAt(attacker, source);
+        state.putDouble(at, state.getDouble(at) + amount);
+    }
+
+    /**
+     * Counts one use of a fighter's special ability.
+     *
+     * @param player 0 for player 1, 1 for player 2.
+     */
+    public void recordAbilityUse(int player)
+    {
+        int at = ABILITY_USES + player;
+        state.putInt(at, state.getInt(at) + 1);
+    }
+
+    public double getDamage(int player, int source)
+    {
+        return state.getDouble(damageAt(player, source));
+    }
+
+    public double getTotalDamage(int player)
+    {
+        double total = 0;
+        for (int source = 0; source < SOURCE_COUNT; source++)
+        {
+            total += getDamage(player, source);
+        }
+        return total;
+    }
+
+    public int getAbilityUses(int player)
+    {
+        return state.getInt(ABILITY_USES + player);
+    }
+
+    public static String sourceName(int source)
+    {
+        return SOURCE_NAMES[source];
+    }
+}
@@ -0,0 +1,66 @@
+package FightingGame;
+
+/**
+ * Bit layout of a player's input for one tick.
+ * Each action a player can hold is one bit of a {@code long}, so a whole tick of input
+ * is a single primitive that is cheap to sample, compare, record and replay.
+ * Key bindings map physical keys onto these bits; see {@link InputBindings}.
+ */
+public final class PlayerInput
+{
+    public static final long UP = 1L; // Move up while held.
+    public static final long DOWN = 1L << 1; // Move down while held.
+    public static final long LEFT = 1L << 2; // Move left while held.
+    public static final long RIGHT = 1L << 3; // Move right while held.
+    public static final long ATTACK = 1L << 4; // Attack whenever able while held.
+    public static final long SPECIAL = 1L << 5; // Use the special ability when pressed.
+    public static final long SHIELD = 1L << 6; // Hold the shield up.
+    public static final long PROJECTILE = 1L << 7; // Charge while held, launch on release.
+
+    public static final int ACTION_COUNT = 8; // Number of action bits in use.
+
+    // Setting names of the actions, in bit order (e.g. "attack" is bit 4).
+    private static final String[] ACTION_NAMES = { "up", "down", "left", "right", "attack", "special", "shield", "projectile" };
+
+    private PlayerInput()
+    {
+        // Constants only.
+    }
+
+    /**
+     * Returns the setting name of an action bit, e.g. "attack".
+     *
+     * @param bitIndex Index of the action's bit (0 to ACTION_COUNT - 1).
+     * @return The action's name.
+     */
+    public static String actionName(int bitIndex)
+    {
+        return ACTION_NAMES[bitIndex];
+    }
+
+    /**
+     * Checks whether an action went from released to held between two ticks.
+     *
+     * @param input    This tick's input.
+     * @param previous The previous tick's input.
+     * @param action   The action bit.
+     * @return True on the tick the action was pressed.
+     */
+    public static boolean pressed(long input, long previous, long action)
+    {
+        return (input & action) != 0 && (previous & action) == 0;
+    }
+
+    /**
+     * Checks whether an action went from held to released between two ticks.
+     *
+     * @param input    This tick's input.
+     * @param previous The previous tick's input.
+     * @param action   The action bit.
+     * @return True on the tick the action was released.
+     */
+    public static boolean released(long input, long previous, long action)
+    {
+        return (input & action) == 0 && (previous & action) != 0;
+    }
+}
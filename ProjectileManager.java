@@ -1,150 +1,81 @@
 package FightingGame;
 
-import java.util.ArrayList;  
-//Provides a dynamic array implementation for managing collections of objects like projectiles.
-import java.util.Iterator; 
-//Allows traversal of collections while enabling safe removal of elements during iteration.
-import java.util.List;
-
-import javafx.application.Platform;        
-//Represents a visual element in the JavaFX scene graph, such as characters or projectiles.
-import javafx.scene.layout.Pane; 
-//A container for organizing and displaying visual elements (nodes) in the JavaFX scene. 
-//Defines the List interface for creating ordered collections, commonly used for managing game elements.
+import javafx.scene.paint.Color;
+//Colors the projectile sprites.
+import javafx.scene.shape.Circle;
+//Represents a projectile on screen.
 
 /**
- * Manages the lifecycle of projectiles in the game, including movement, collisions, and visual updates.
+ * Connects the projectiles of the running {@link MatchSimulation} to the game window.
+ * The simulation owns the projectiles; this class draws them. One sprite is created
+ * per projectile slot when a match starts, and each frame {@link #syncSprites(double)}
+ * copies the slots onto the sprites in a single pass, hiding the unused ones, so firing
+ * a projectile never allocates a node or changes the scene graph.
  */
-public class ProjectileManager 
+public class ProjectileManager
 {
 
-    private static final int MAX_PROJECTILES_PER_PLAYER = 6; 
-    // Maximum number of active projectiles allowed.
+    private static MatchSimulation simulation;
+    // The match whose projectiles are currently on screen.
+
+    private static Circle[] sprites = new Circle[0];
+    // Sprite for each projectile slot; sprite i draws the projectile in slot i.
 
-    private static final List<Projectile> activeProjectiles = new ArrayList<>(); 
-    // Tracks all active projectiles in the game.
+    private static int visibleSprites = 0;
+    // Number of sprites shown after the last sync.
 
     /**
-     * Adds a projectile to the scene and tracks it.
-     * @param projectile The projectile to be added.
+     * Attaches the manager to a match so its projectiles are drawn in the game window.
+     * Adds one hidden sprite per projectile the match can have in flight.
+     * @param match The match being displayed.
      */
-    public static void addProjectile(Projectile projectile) 
+    public static void attach(MatchSimulation match)
     {
-        Character owner = projectile.getOwner();
-
-        if (owner == null) 
-        {
-            System.err.println("Projectile owner is null. Cannot add projectile.");
-            return;
-        }
-
-        // Count projectiles for this owner
-        long ownerProjectileCount = activeProjectiles.stream()
-            .filter(p -> p.getOwner() == owner)
-            .count();
-
-        // Enforce max projectiles per player
-        if (ownerProjectileCount >= MAX_PROJECTILES_PER_PLAYER) 
+        simulation = match;
+        visibleSprites = 0;
+        sprites = new Circle[match.getProjectiles().getCapacity()];
+        for (int i = 0; i < sprites.length; i++)
         {
-            System.out.println(owner.getName() + " cannot launch more than " + MAX_PROJECTILES_PER_PLAYER + " projectiles.");
-            return;
+            Circle sprite = new Circle(0, Color.DARKORANGE);
+            sprite.setVisible(false);
+            sprite.setManaged(false); // Sprites take no part in layout
+            sprites[i] = sprite;
         }
-
-        // Add the projectile to the active list
-        synchronized (activeProjectiles) 
-        {
-            activeProjectiles.add(projectile);
-        }
-
-        // Add the projectile sprite to the UI
-        Platform.runLater(() -> GameApp.root.getChildren().add(projectile.getSprite()));
-
+        GameApp.root.getChildren().addAll(sprites);
     }
 
     /**
-     * Handles a collision between two projectiles.
-     * @param p1 The first projectile.
-     * @param p2 The second projectile.
+     * Moves every projectile sprite to its simulated position and hides sprites whose
+     * projectiles are gone.
+     * @param alpha How far the frame is between the last two ticks, for smooth drawing.
      */
-    public static void handleProjectileCollision(Projectile p1, Projectile p2)
+    public static void syncSprites(double alpha)
     {
-        if (p1.collidesWith(p2)) 
+        ProjectileStore projectiles = simulation.getProjectiles();
+        int count = projectiles.getCount();
+        for (int i = 0; i < count; i++)
         {
-            System.out.println("Collision detected between two projectiles.");
-
-            // Compare projectilfe sizes
-            if (p1.getSize() > p2.getSize()) 
-            {
-                System.out.println("Projectile " + p1 + " destroyed projectile " + p2 + ".");
-                removeProjectile(p2); // Smaller projectile is destroyed
-            } 
-            else if (p1.getSize() < p2.getSize()) 
-            {
-                System.out.println("Projectile " + p2 + " destroyed projectile " + p1 + ".");
-                removeProjectile(p1); // Smaller projectile is destroyed
-            } 
-            else
-            {
-                System.out.println("Both projectiles are the same size and cancel each other out.");
-                removeProjectile(p1);
-                removeProjectile(p2); // Both projectiles are removed
-            }
+            Circle sprite = sprites[i];
+            sprite.setRadius(projectiles.getRadius(i));
+            sprite.setLayoutX(projectiles.getRenderX(i, alpha));
+            sprite.setLayoutY(projectiles.getRenderY(i, alpha));
+            sprite.setVisible(true);
         }
-    }
-
-
-    /**
-     * Handles a collision between a projectile and a character.
-     * @param projectile The projectile involved in the collision.
-     * @param target The character that was hit.
-     * @param iterator The iterator for active projectiles.
-     */
-    public static void handleCollision(Projectile projectile, Character target, Iterator<Projectile> iterator) 
-    {
-        if (projectile.getBounds() != null &&
-            projectile.getBounds().intersects(target.getCharacterSprite().getBoundsInParent()))
+        for (int i = count; i < visibleSprites; i++)
         {
-            
-        	target.takeDamage((int) projectile.getDamage(), projectile);
-            System.out.println(target.getName() + " took damage. Remaining health: " + target.getHealth());
-
-            // Remove the projectile from the root pane and active list.
-            Pane root = (Pane) projectile.getSprite().getParent();
-            if (root != null) 
-            {
-                root.getChildren().remove(projectile.getSprite());
-            }
-            iterator.remove(); // Safely remove the projectile using the iterator.
+            sprites[i].setVisible(false); // The projectile left play; keep the sprite for the next shot
         }
+        visibleSprites = count;
     }
 
     /**
-     * Removes a projectile from the active projectiles list.
-     * 
-     * @param projectile The projectile to be removed.
+     * Retrieves the projectiles of the running match.
+     *
+     * @return The store holding every projectile in flight.
      */
-    public static void removeFromActiveProjectiles(Projectile projectile) 
+    public static ProjectileStore getActiveProjectiles()
     {
-        activeProjectiles.remove(projectile); 
-        // Remove the projectile from the active list.
-    }
-    static void removeProjectile(Projectile projectile) 
-    {
-        activeProjectiles.remove(projectile); // Remove from active list
-        Platform.runLater(() ->
-        {
-            GameApp.root.getChildren().remove(projectile.getSprite()); // Remove from UI
-        });
+        return simulation.getProjectiles(); // Return the active projectiles.
     }
 
-    /**
-     * Retrieves the current list of active projectiles.
-     * 
-     * @return A list containing all active projectiles in the game.
-     */
-    public static List<Projectile> getActiveProjectiles()
-    {
-        return activeProjectiles; // Return the list of active projectiles.
-    }
-    
-} 
\ No newline at end of file
+}
@@ -0,0 +1,344 @@
+package FightingGame;
+
+/**
+ * Fixed-capacity store of the projectiles in flight, laid out as parallel primitive arrays
+ * inside one block: a column of doubles per property, with slot {@code i} of every column
+ * describing the same projectile. Live projectiles always occupy slots {@code 0..count-1}:
+ * removing one moves the last projectile into its slot (swap-remove). Integration and
+ * culling are plain loops down the columns, and launching a projectile never allocates.
+ * A live count per owner is kept alongside the slots, so per-player limits are checked in
+ * constant time. Not thread-safe; a match is driven from a single thread.
+ */
+public class ProjectileStore
+{
+    private static final double FRAMES_PER_SECOND = 60.0; // Launch speeds are expressed in pixels per 60 Hz frame.
+
+    // Layout of the block header.
+    private static final int COUNT = 0; // Number of projectiles in flight (int).
+    private static final int LAUNCHED = 1; // Projectiles placed into a slot (long).
+    private static final int DROPPED = 2; // Launches refused because every slot was taken (long).
+    private static final int OWNER_COUNTS = 3; // Projectiles in flight per owner (an int each), updated with every launch and removal.
+
+    private final int capacity; // Maximum number of projectiles in flight.
+    private final int owners; // Number of fighters that can own projectiles.
+    private final StateBlock state; // Header and columns.
+
+    // Where each per-projectile column starts in the block; slot i of a column is at column + i.
+    private final int x; // Centre X-coordinate.
+    private final int y; // Centre Y-coordinate.
+    private final int previousX; // X-coordinate before the last update, for render interpolation.
+    private final int previousY; // Y-coordinate before the last update, for render interpolation.
+    private final int vx; // Horizontal velocity in pixels per second.
+    private final int vy; // Vertical velocity in pixels per second.
+    private final int radius; // Radius of the projectile.
+    private final int damage; // Damage dealt when the projectile hits a fighter.
+    private final int id; // Launch number of the projectile, which stays with it when it changes slot (long).
+    private final int owner; // Index of the fighter that launched the projectile (0 or 1); an int column.
+
+    /**
+     * Creates an empty store in a block of its own.
+     *
+     * @param capacity The maximum number of projectiles in flight at once.
+     * @param owners   The number of fighters that can own projectiles.
+     */
+    public ProjectileStore(int capacity, int owners)
+    {
+        this(capacity, owners, new StateBlock(stateWords(capacity, owners)));
+    }
+
+    /**
+     * Creates an empty store that lives in a given block, e.g. a region of a match's state.
+     *
+     * @param capacity The maximum number of projectiles in flight at once.
+     * @param owners   The number of fighters that can own projectiles.
+     * @param state    At least {@link #stateWords(int, int)} zeroed words.
+     */
+    ProjectileStore(int capacity, int owners, StateBlock state)
+    {
+        if (capacity <= 0 || owners <= 0)
+        {
+            throw new IllegalArgumentException("Store capacity and owner count must be positive.");
+        }
+        this.capacity = capacity;
+        this.owners = owners;
+        this.state = state;
+        x = OWNER_COUNTS + owners;
+        y = x + capacity;
+        previousX = y + capacity;
+        previousY = previousX + capacity;
+        vx = previousY + capacity;
+        vy = vx + capacity;
+        radius = vy + capacity;
+        damage = radius + capacity;
+        id = damage + capacity;
+        owner = id + capacity;
+    }
+
+    /**
+     * Returns the size of the block a store needs, in words.
+     *
+     * @param capacity The maximum number of projectiles in flight at once.
+     * @param owners   The number of fighters that can own projectiles.
+     */
+    static int stateWords(int capacity, int owners)
+    {
+        return OWNER_COUNTS + owners + 10 * capacity;
+    }
+
+    // Position of a slot in a column.
+    private static int at(int column, int slot)
+    {
+        return column + slot;
+    }
+
+    private static int ownerCountAt(int ownerIndex)
+    {
+        return OWNER_COUNTS + ownerIndex;
+    }
+
+    /**
+     * Launches a projectile from a start point toward a target point.
+     *
+     * @param ownerIndex Index of the launching fighter, below the store's owner count.
+     * @param startX     Starting X-coordinate.
+     * @param startY     Starting Y-coordinate.
+     * @param targetX    X-coordinate the projectile is aimed at.
+     * @param targetY    Y-coordinate the projectile is aimed at.
+     * @param size       Radius of the projectile (grows with charge time).
+     * @param speed      Travel speed in pixels per frame at 60 Hz.
+     * @return The projectile's slot, or -1 if the store is full.
+     */
+    public int launch(int ownerIndex, double startX, double startY, double targetX, double targetY, double size, double speed)
+    {
+        int count = state.getInt(COUNT);
+        if (count == capacity)
+        {
+            state.putLong(DROPPED, state.getLong(DROPPED) + 1);
+            return -1;
+        }
+
+        // Aim the velocity at the target; fall back to a horizontal shot if both points coincide.
+        double dx = targetX - startX;
+        double dy = targetY - startY;
+        double distance = Math.sqrt(dx * dx + dy * dy);
+        if (distance == 0)
+        {
+            dx = 1;
+            distance = 1;
+        }
+
+        int slot = count;
+        state.putInt(COUNT, count + 1);
+        state.putDouble(at(x, slot), startX);
+        state.putDouble(at(y, slot), startY);
+        state.putDouble(at(previousX, slot), startX);
+        state.putDouble(at(previousY, slot), startY);
+        state.putDouble(at(vx, slot), dx / distance * speed * FRAMES_PER_SECOND);
+        state.putDouble(at(vy, slot), dy / distance * speed * FRAMES_PER_SECOND);
+        state.putDouble(at(radius, slot), size);
+        state.putDouble(at(damage, slot), size / 5.0); // Bigger projectiles hit harder.
+        state.putLong(at(id, slot), state.getLong(LAUNCHED));
+        state.putInt(at(owner, slot), ownerIndex);
+        state.putInt(ownerCountAt(ownerIndex), state.getInt(ownerCountAt(ownerIndex)) + 1);
+        state.putLong(LAUNCHED, state.getLong(LAUNCHED) + 1);
+        return slot;
+    }
+
+    /**
+     * Moves every projectile along its velocity.
+     *
+     * @param deltaTime Elapsed time in seconds.
+     */
+    public void integrate(double deltaTime)
+    {
+        int count = state.getInt(COUNT);
+        state.copyFrom(previousX, state, x, count);
+        state.copyFrom(previousY, state, y, count);
+        for (int i = 0; i < count; i++)
+        {
+            state.putDouble(x + i, state.getDouble(x + i) + state.getDouble(vx + i) * deltaTime);
+        }
+        for (int i = 0; i < count; i++)
+        {
+            state.putDouble(y + i, state.getDouble(y + i) + state.getDouble(vy + i) * deltaTime);
+        }
+    }
+
+    /**
+     * Removes every projectile whose centre has left a rectangle.
+     *
+     * @return The number of projectiles removed.
+     */
+    public int cullOutside(double minX, double minY, double maxX, double maxY)
+    {
+        int removed = 0;
+        for (int i = state.getInt(COUNT) - 1; i >= 0; i--) // Walk backwards so swapped-in projectiles are already checked.
+        {
+            double px = state.getDouble(at(x, i));
+            double py = state.getDouble(at(y, i));
+            if (px < minX || px > maxX || py < minY || py > maxY)
+            {
+                remove(i);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Removes the projectile in a slot by moving the last projectile into it.
+     *
+     * @param slot The slot to free.
+     */
+    public void remove(int slot)
+    {
+        int ownerCount = ownerCountAt(getOwner(slot));
+        state.putInt(ownerCount, state.getInt(ownerCount) - 1);
+        int last = state.getInt(COUNT) - 1;
+        state.putInt(COUNT, last);
+        if (slot == last)
+        {
+            return;
+        }
+        for (int column = x; column <= owner; column += capacity) // Every column, raw words.
+        {
+            state.putLong(at(column, slot), state.getLong(at(column, last)));
+        }
+    }
+
+    /**
+     * Removes every projectile.
+     */
+    public void clear()
+    {
+        state.putInt(COUNT, 0);
+        for (int i = 0; i < owners; i++)
+        {
+            state.putInt(ownerCountAt(i), 0);
+        }
+    }
+
+    /**
+     * Checks whether two projectiles overlap.
+     *
+     * @return True if the two circles overlap.
+     */
+    public boolean overlaps(int a, int b)
+    {
+        double dx = getX(b) - getX(a);
+        double dy = getY(b) - getY(a);
+        double reach = getRadius(a) + getRadius(b);
+        return dx * dx + dy * dy <= reach * reach;
+    }
+
+    /**
+     * Returns the X-coordinate to draw, blended between the last two updates.
+     *
+     * @param slot  The projectile's slot.
+     * @param alpha How far the frame is between the previous update (0) and the current one (1).
+     * @return The interpolated X-coordinate.
+     */
+    public double getRenderX(int slot, double alpha)
+    {
+        double from = state.getDouble(at(previousX, slot));
+        return from + (getX(slot) - from) * alpha;
+    }
+
+    /**
+     * Returns the Y-coordinate to draw, blended between the last two updates.
+     *
+     * @param slot  The projectile's slot.
+     * @param alpha How far the frame is between the previous update (0) and the current one (1).
+     * @return The interpolated Y-coordinate.
+     */
+    public double getRenderY(int slot, double alpha)
+    {
+        double from = state.getDouble(at(previousY, slot));
+        return from + (getY(slot) - from) * alpha;
+    }
+
+    public int getCount()
+    {
+        return state.getInt(COUNT);
+    }
+
+    public int getCapacity()
+    {
+        return capacity;
+    }
+
+    /**
+     * Returns how many projectiles a fighter has in flight.
+     *
+     * @param ownerIndex Index of the fighter.
+     * @return The fighter's live projectile count.
+     */
+    public int getOwnerCount(int ownerIndex)
+    {
+        return state.getInt(ownerCountAt(ownerIndex));
+    }
+
+    public double getX(int slot)
+    {
+        return state.getDouble(at(x, slot));
+    }
+
+    public double getY(int slot)
+    {
+        return state.getDouble(at(y, slot));
+    }
+
+    public double getRadius(int slot)
+    {
+        return state.getDouble(at(radius, slot));
+    }
+
+    public double getDamage(int slot)
+    {
+        return state.getDouble(at(damage, slot));
+    }
+
+    public double getVelocityX(int slot)
+    {
+        return state.getDouble(at(vx, slot));
+    }
+
+    public double getVelocityY(int slot)
+    {
+        return state.getDouble(at(vy, slot));
+    }
+
+    /**
+     * Returns a projectile's launch number: 0 for the first projectile of the match, then 1,
+     * and so on. Unlike the slot, it identifies the projectile for as long as it flies.
+     *
+     * @param slot The projectile's slot.
+     * @return The projectile's id.
+     */
+    public long getId(int slot)
+    {
+        return state.getLong(at(id, slot));
+    }
+
+    public int getOwner(int slot)
+    {
+        return state.getInt(at(owner, slot));
+    }
+
+    /**
+     * Returns how many projectiles have been launched into the store.
+     */
+    public long getLaunched()
+    {
+        return state.getLong(LAUNCHED);
+    }
+
+    /**
+     * Returns how many launches were refused because the store was full.
+     * Stays at zero while the per-player cap is respected.
+     */
+    public long getDropped()
+    {
+        return state.getLong(DROPPED);
+    }
+}
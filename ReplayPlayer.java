@@ -0,0 +1,108 @@
+package FightingGame;
+
+import java.io.IOException; // Thrown if the replay cannot be read.
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Feeds a recorded replay's inputs into a match tick by tick.
+ * The match is rebuilt from the replay's seed and roster picks, so it plays out exactly as
+ * recorded, either in the game window ({@link GameApp#startReplay}) or headless at full
+ * speed through {@link #main}.
+ */
+public class ReplayPlayer implements MatchSimulation.InputSource
+{
+    private final ReplayReader replay;
+    private int next = 0; // Next input change to apply.
+
+    public ReplayPlayer(ReplayReader replay)
+    {
+        this.replay = replay;
+    }
+
+    /**
+     * Applies every input change recorded for this tick.
+     */
+    @Override
+    public void supplyInputs(MatchSimulation match, long tick)
+    {
+        while (next < replay.getChangeCount() && replay.getChangeTick(next) <= tick)
+        {
+            match.setInput(replay.getChangePlayer(next), replay.getChangeInput(next));
+            next++;
+        }
+    }
+
+    /**
+     * Creates the recorded match between two fighters and drives it from the replay.
+     *
+     * @param replay  The decoded replay.
+     * @param player1 Fresh fighter for player 1's pick.
+     * @param player2 Fresh fighter for player 2's pick.
+     * @return A match ready to tick.
+     */
+    public static MatchSimulation createMatch(ReplayReader replay, Fighter player1, Fighter player2)
+    {
+        player1.setPosition(MatchSimulation.PLAYER1_START_X, MatchSimulation.START_Y);
+        player2.setPosition(MatchSimulation.PLAYER2_START_X, MatchSimulation.START_Y);
+        MatchSimulation match = new MatchSimulation(player1, player2, replay.getTickRate(), replay.getSeed());
+        match.setInputSource(new ReplayPlayer(replay));
+        return match;
+    }
+
+    /**
+     * Creates the recorded match with headless fighters from the roster. The match is quiet,
+     * so playing it at full speed is not slowed down by printing every combat message.
+     *
+     * @param replay The decoded replay.
+     * @return A match ready to tick.
+     */
+    public static MatchSimulation createHeadlessMatch(ReplayReader replay)
+    {
+        MatchSimulation match = createMatch(replay,
+            CharacterRoster.createFighter(replay.getPick(0), MatchSimulation.PLAYER1_START_X, MatchSimulation.START_Y),
+            CharacterRoster.createFighter(replay.getPick(1), MatchSimulation.PLAYER2_START_X, MatchSimulation.START_Y));
+        match.setVerbose(false);
+        return match;
+    }
+
+    /**
+     * Re-simulates a replay headless, as fast as possible, and reports the result.
+     *
+     * @param args The path of the replay file.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length != 1)
+        {
+            System.err.println("Usage: ReplayPlayer <replay file>");
+            System.exit(2);
+        }
+        Path file = Paths.get(args[0]);
+        ReplayReader replay = ReplayReader.read(file);
+        MatchSimulation match = createHeadlessMatch(replay);
+
+        // A replay without an end record plays until the match decides itself.
+        long maxTicks = (long) (MatchSimulation.MATCH_DURATION_SECONDS * replay.getTickRate()) + 1;
+        long start = System.nanoTime();
+        while (!match.isOver() && match.getTickCount() < maxTicks)
+        {
+            match.tick();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println("Replay " + file + ": " + replay.getFileBytes() + " bytes, seed " + replay.getSeed() + ", "
+            + replay.getChangeCount() + " input changes.");
+        System.out.println(match.getPlayer1().getName() + " " + match.getPlayer1().getHealth() + " HP vs "
+            + match.getPlayer2().getName() + " " + match.getPlayer2().getHealth() + " HP, winner "
+            + match.getWinner().getName() + ".");
+        System.out.println(String.format("%d ticks in %.1f ms (%.0f ticks/s).", match.getTickCount(), seconds * 1e3,
+            match.getTickCount() / seconds));
+        if (replay.getEndTick() >= 0 && replay.getEndTick() != match.getTickCount())
+        {
+            System.out.println("Warning: the recorded match ended on tick " + replay.getEndTick()
+                + "; the simulation has diverged from the recording.");
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package FightingGame;
+
+import java.io.IOException; // Thrown if the file cannot be read or is not a replay.
+import java.nio.BufferUnderflowException; // Raised when a replay file is cut short.
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel; // Reads the whole replay file in one go.
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays; // Trims the decoded arrays.
+
+/**
+ * Decodes a replay written by {@link ReplayWriter} into flat arrays of input changes.
+ * A replay without an end record (e.g. the game was closed mid-match) still loads; its
+ * end tick is reported as -1.
+ */
+public class ReplayReader
+{
+    private final long seed;
+    private final int tickRate;
+    private final int pick1;
+    private final int pick2;
+    private final long[] ticks; // Tick of each input change.
+    private final int[] players; // Player of each input change.
+    private final long[] inputs; // The player's full input from that tick on.
+    private final int changeCount;
+    private final long endTick; // Tick the match ended on, or -1 if not recorded.
+    private final long fileBytes;
+
+    private ReplayReader(long seed, int tickRate, int pick1, int pick2, long[] ticks, int[] players, long[] inputs,
+                         int changeCount, long endTick, long fileBytes)
+    {
+        this.seed = seed;
+        this.tickRate = tickRate;
+        this.pick1 = pick1;
+        this.pick2 = pick2;
+        this.ticks = ticks;
+        this.players = players;
+        this.inputs = inputs;
+        this.changeCount = changeCount;
+        this.endTick = endTick;
+        this.fileBytes = fileBytes;
+    }
+
+    /**
+     * Reads and decodes a replay file.
+     *
+     * @param file The replay to read.
+     * @return The decoded replay.
+     * @throws IOException If the file cannot be read or is not a replay.
+     */
+    public static ReplayReader read(Path file) throws IOException
+    {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE)
+            {
+                throw new IOException("Replay file is too large: " + file);
+            }
+            buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0)
+            {
+                // Keep reading until the buffer is full.
+            }
+            buffer.flip();
+        }
+        return decode(buffer, file.toString());
+    }
+
+    /**
+     * Decodes a replay held in memory.
+     *
+     * @param buffer The replay bytes, from the current position to the limit.
+     * @param source Name of where the bytes came from, for error messages.
+     * @return The decoded replay.
+     * @throws IOException If the bytes are not a replay.
+     */
+    public static ReplayReader decode(ByteBuffer buffer, String source) throws IOException
+    {
+        long fileBytes = buffer.remaining();
+        try
+        {
+            for (byte expected : ReplayWriter.MAGIC)
+            {
+                if (buffer.get() != expected)
+                {
+                    throw new IOException("Not a replay file: " + source);
+                }
+            }
+            int version = buffer.get();
+            if (version != ReplayWriter.VERSION)
+            {
+                throw new IOException("Unsupported replay version " + version + ": " + source);
+            }
+            long seed = buffer.getLong();
+            int tickRate = (int) readVarint(buffer);
+            int pick1 = (int) readVarint(buffer);
+            int pick2 = (int) readVarint(buffer);
+
+            long[] ticks = new long[256];
+            int[] players = new int[256];
+            long[] inputs = new long[256];
+            long[] current = new long[2]; // Each player's input as the changes are replayed.
+            int count = 0;
+            long tick = 0;
+            long endTick = -1;
+            while (buffer.hasRemaining())
+            {
+                long header = readVarint(buffer);
+                long change = readVarint(buffer);
+                tick += header >>> 1;
+                if (change == 0)
+                {
+                    endTick = tick;
+                    break;
+                }
+                int player = (int) (header & 1);
+                current[player] ^= change;
+                if (count == ticks.length)
+                {
+                    ticks = Arrays.copyOf(ticks, count * 2);
+                    players = Arrays.copyOf(players, count * 2);
+                    inputs = Arrays.copyOf(inputs, count * 2);
+                }
+                ticks[count] = tick;
+                players[count] = player;
+                inputs[count] = current[player];
+                count++;
+            }
+            return new ReplayReader(seed, tickRate, pick1, pick2, ticks, players, inputs, count, endTick, fileBytes);
+        }
+        catch (BufferUnderflowException e)
+        {
+            throw new IOException("Replay file is truncated: " + source, e);
+        }
+    }
+
+    public long getSeed()
+    {
+        return seed;
+    }
+
+    public int getTickRate()
+    {
+        return tickRate;
+    }
+
+    /**
+     * Returns a player's roster pick.
+     *
+     * @param player 0 for player 1, 1 for player 2.
+     * @return The index into {@link CharacterRoster#getArchetypes()}.
+     */
+    public int getPick(int player)
+    {
+        return player == 0 ? pick1 : pick2;
+    }
+
+    public int getChangeCount()
+    {
+        return changeCount;
+    }
+
+    public long getChangeTick(int change)
+    {
+        return ticks[change];
+    }
+
+    public int getChangePlayer(int change)
+    {
+        return players[change];
+    }
+
+    public long getChangeInput(int change)
+    {
+        return inputs[change];
+    }
+
+    /**
+     * Returns the tick the recorded match ended on, or -1 if the recording stopped early.
+     */
+    public long getEndTick()
+    {
+        return endTick;
+    }
+
+    public long getFileBytes()
+    {
+        return fileBytes;
+    }
+
+    private static long readVarint(ByteBuffer buffer) throws IOException
+    {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7)
+        {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+            {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in replay.");
+    }
+}
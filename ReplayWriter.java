@@ -0,0 +1,245 @@
+package FightingGame;
+
+import java.io.Closeable; // Lets the writer be closed like a stream.
+import java.io.IOException; // Thrown if the replay file cannot be written.
+import java.nio.ByteBuffer; // Chunks of encoded replay data.
+import java.nio.channels.FileChannel; // Writes the chunks to disk.
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue; // Chunks ready to be reused by the game thread.
+import java.util.concurrent.ExecutorService; // The background thread that does the file I/O.
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records a match as a compact binary replay: the seed, both roster picks and the input each
+ * fighter acted on every tick. Because the simulation is deterministic, that is enough to
+ * re-simulate the whole match (see {@link ReplayPlayer}).
+ * <p>
+ * Only input changes are stored, each as two varints: the ticks since the previous change
+ * (shifted left, with the player in the low bit) and the XOR of the new input with that
+ * player's previous one. A 200-second match therefore takes a few kilobytes.
+ * <p>
+ * File layout:
+ * <pre>
+ *   "SOVR"                        magic
+ *   version                       1 byte
+ *   seed                          8 bytes, big-endian
+ *   tick rate, pick 1, pick 2     varints
+ *   changes                       varint (tickDelta &lt;&lt; 1 | player), varint (input XOR previous)
+ *   end                           varint (tickDelta &lt;&lt; 1), varint 0
+ * </pre>
+ * The game thread only encodes into an in-memory chunk; full chunks are written to the file
+ * channel by a background thread, so recording never waits on the disk.
+ */
+public class ReplayWriter implements Closeable
+{
+    static final byte[] MAGIC = { 'S', 'O', 'V', 'R' };
+    static final int VERSION = 1;
+
+    private static final int CHUNK_BYTES = 4096; // Size of each encoding buffer.
+    private static final int SPARE_CHUNKS = 4; // Buffers kept for reuse between the two threads.
+    private static final int MAX_RECORD_BYTES = 20; // Two varints of at most 10 bytes each.
+
+    private final Path file;
+    private final FileChannel channel;
+    private final ExecutorService io; // Single thread that writes chunks in order.
+    private final ArrayBlockingQueue<ByteBuffer> spare = new ArrayBlockingQueue<>(SPARE_CHUNKS); // Written chunks, ready to refill.
+    private ByteBuffer current = ByteBuffer.allocate(CHUNK_BYTES); // Chunk being filled by the game thread.
+    private volatile IOException failure; // First write error seen by the background thread.
+
+    private final long[] lastInputs = new long[2]; // Input last recorded for each player.
+    private long lastTick = 0; // Tick of the last record.
+    private long bytesRecorded = 0; // Encoded bytes so far, including the header.
+    private boolean ended = false; // Set once the end of the match is recorded.
+
+    /**
+     * Creates the replay file and writes its header.
+     *
+     * @param file     Where to write the replay; replaced if it exists.
+     * @param seed     The match's random seed.
+     * @param tickRate The match's ticks per second.
+     * @param pick1    Player 1's roster index.
+     * @param pick2    Player 2's roster index.
+     * @throws IOException If the file cannot be created.
+     */
+    public ReplayWriter(Path file, long seed, int tickRate, int pick1, int pick2) throws IOException
+    {
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+        this.io = Executors.newSingleThreadExecutor(task ->
+        {
+            Thread thread = new Thread(task, "replay-writer");
+            thread.setDaemon(true); // Never keeps the game from exiting.
+            return thread;
+        });
+
+        current.put(MAGIC);
+        current.put((byte) VERSION);
+        current.putLong(seed);
+        writeVarint(tickRate);
+        writeVarint(pick1);
+        writeVarint(pick2);
+        bytesRecorded = current.position();
+    }
+
+    /**
+     * Records the input a player acts on this tick. Unchanged inputs cost nothing.
+     *
+     * @param tick   The tick being simulated.
+     * @param player 0 for player 1, 1 for player 2.
+     * @param input  The player's PlayerInput bits.
+     */
+    public void recordInput(long tick, int player, long input)
+    {
+        if (ended || input == lastInputs[player])
+        {
+            return;
+        }
+        ensureRoom();
+        int start = current.position();
+        writeVarint(((tick - lastTick) << 1) | player);
+        writeVarint(input ^ lastInputs[player]);
+        bytesRecorded += current.position() - start;
+        lastInputs[player] = input;
+        lastTick = tick;
+    }
+
+    /**
+     * Records the tick the match ended on. Later inputs are ignored.
+     *
+     * @param tick The last simulated tick.
+     */
+    public void recordEnd(long tick)
+    {
+        if (ended)
+        {
+            return;
+        }
+        ensureRoom();
+        int start = current.position();
+        writeVarint((tick - lastTick) << 1);
+        writeVarint(0); // No real change is ever 0, so this marks the end.
+        bytesRecorded += current.position() - start;
+        lastTick = tick;
+        ended = true;
+    }
+
+    public Path getFile()
+    {
+        return file;
+    }
+
+    public long getBytesRecorded()
+    {
+        return bytesRecorded;
+    }
+
+    /**
+     * Writes what is left, waits for the background thread and closes the file.
+     *
+     * @throws IOException If any part of the replay could not be written.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        if (io.isShutdown())
+        {
+            return;
+        }
+        flushChunk();
+        io.execute(() ->
+        {
+            try
+            {
+                channel.force(false);
+                channel.close();
+            }
+            catch (IOException e)
+            {
+                fail(e);
+            }
+        });
+        io.shutdown();
+        try
+        {
+            if (!io.awaitTermination(5, TimeUnit.SECONDS))
+            {
+                throw new IOException("Timed out writing replay " + file);
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while writing replay " + file, e);
+        }
+        if (failure != null)
+        {
+            throw failure;
+        }
+    }
+
+    // Hands the current chunk to the background thread if another record might not fit.
+    private void ensureRoom()
+    {
+        if (current.remaining() < MAX_RECORD_BYTES)
+        {
+            flushChunk();
+        }
+    }
+
+    // Queues the current chunk for writing and continues in a spare one.
+    private void flushChunk()
+    {
+        if (current.position() == 0)
+        {
+            return;
+        }
+        ByteBuffer chunk = current;
+        chunk.flip();
+        ByteBuffer next = spare.poll();
+        current = next != null ? next : ByteBuffer.allocate(CHUNK_BYTES); // Only allocates if the disk falls behind.
+        io.execute(() -> write(chunk));
+    }
+
+    // Runs on the background thread.
+    private void write(ByteBuffer chunk)
+    {
+        try
+        {
+            while (chunk.hasRemaining())
+            {
+                channel.write(chunk);
+            }
+        }
+        catch (IOException e)
+        {
+            fail(e);
+        }
+        finally
+        {
+            chunk.clear();
+            spare.offer(chunk); // Dropped if enough spares are already waiting.
+        }
+    }
+
+    private void fail(IOException e)
+    {
+        if (failure == null)
+        {
+            failure = e;
+        }
+    }
+
+    // Unsigned LEB128: seven bits per byte, high bit set on every byte but the last.
+    private void writeVarint(long value)
+    {
+        while ((value & ~0x7FL) != 0)
+        {
+            current.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        current.put((byte) value);
+    }
+}
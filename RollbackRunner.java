@@ -0,0 +1,115 @@
+package FightingGame;
+
+/**
+ * Offline test of rollback netcode: plays bot matches in which each player runs on its own
+ * {@link RollbackSession} with its own copy of the match, linked by a {@link LoopbackTransport}
+ * that adds latency, jitter and packet loss. Time is virtual, so matches run at full speed
+ * and a run is reproducible from its seed. At the end of every match both copies must agree;
+ * the runner reports desyncs, rollback depths and re-simulation times.
+ * <p>
+ * Usage: {@code RollbackRunner [matches] [latency ms] [jitter ms] [loss %] [seed]}
+ */
+public class RollbackRunner
+{
+    /**
+     * Result of one online test match.
+     */
+    public static final class Result
+    {
+        final long ticks; // Length of the match.
+        final boolean inSync; // Whether both sides ended in the same state.
+        final String winner;
+
+        Result(long ticks, boolean inSync, String winner)
+        {
+            this.ticks = ticks;
+            this.inSync = inSync;
+            this.winner = winner;
+        }
+    }
+
+    /**
+     * Plays one match between two bot peers over a simulated network.
+     *
+     * @param pick1     Player 1's roster index.
+     * @param pick2     Player 2's roster index.
+     * @param seed      Match seed, shared by both sides; the network and bots derive theirs from it.
+     * @param latencyMs One-way latency.
+     * @param jitterMs  Maximum extra random delay.
+     * @param lossRate  Chance that a packet is lost.
+     * @param stats     Counters both sessions report into.
+     * @return Whether the two sides stayed in sync.
+     */
+    public static Result playMatch(int pick1, int pick2, long seed, int latencyMs, int jitterMs, double lossRate, RollbackStats stats)
+    {
+        long tickNanos = 1_000_000_000L / GameConfig.TICK_RATE;
+        long[] now = { 0 }; // Virtual clock shared by both sides and the link.
+        LoopbackTransport[] link = LoopbackTransport.createPair(latencyMs, jitterMs, lossRate, seed * 31 + 7, () -> now[0]);
+
+        RollbackSession[] peers = new RollbackSession[2];
+        BotController[] bots = new BotController[2];
+        for (int side = 0; side < 2; side++)
+        {
+            MatchSimulation match = new MatchSimulation(
+                CharacterRoster.createFighter(pick1, MatchSimulation.PLAYER1_START_X, MatchSimulation.START_Y),
+                CharacterRoster.createFighter(pick2, MatchSimulation.PLAYER2_START_X, MatchSimulation.START_Y),
+                GameConfig.TICK_RATE, seed);
+            match.setVerbose(false);
+            peers[side] = new RollbackSession(match, side, link[side]);
+            peers[side].setStats(stats);
+            bots[side] = new BotController(~seed + side);
+        }
+
+        // One frame per tick on both machines until both agree the match is over. Sides that
+        // have drifted apart can wait on each other forever, so give up after two match lengths.
+        long maxFrames = (long) (2 * MatchSimulation.MATCH_DURATION_SECONDS * GameConfig.TICK_RATE);
+        for (long frame = 0; frame < maxFrames && (!peers[0].isFinished() || !peers[1].isFinished()); frame++)
+        {
+            now[0] += tickNanos;
+            for (int side = 0; side < 2; side++)
+            {
+                MatchSimulation match = peers[side].getMatch();
+                peers[side].advance(bots[side].inputFor(match, side, match.getTickCount() + 1));
+            }
+        }
+        link[0].close();
+        link[1].close();
+
+        MatchSimulation a = peers[0].getMatch();
+        MatchSimulation b = peers[1].getMatch();
+        boolean inSync = a.getTickCount() == b.getTickCount() && a.checksum() == b.checksum();
+        return new Result(a.getTickCount(), inSync, a.getWinner().getName());
+    }
+
+    public static void main(String[] args)
+    {
+        int matches = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int latencyMs = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+        int jitterMs = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        double lossRate = args.length > 3 ? Double.parseDouble(args[3]) / 100 : 0.05;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 1;
+
+        System.out.println(String.format("Rollback test: %d matches, %d ms latency, %d ms jitter, %.1f%% loss, seed %d.",
+            matches, latencyMs, jitterMs, lossRate * 100, seed));
+        RollbackStats stats = new RollbackStats(RollbackSession.MAX_PREDICTION);
+        int characters = CharacterRoster.size();
+        int desyncs = 0;
+        long start = System.nanoTime();
+        for (int m = 0; m < matches; m++)
+        {
+            MatchRandom picks = new MatchRandom(seed + m);
+            int pick1 = (int) (picks.nextDouble() * characters);
+            int pick2 = (int) (picks.nextDouble() * characters);
+            Result result = playMatch(pick1, pick2, picks.nextLong(), latencyMs, jitterMs, lossRate, stats);
+            if (!result.inSync)
+            {
+                desyncs++;
+                System.out.println("Match " + (m + 1) + " desynced after " + result.ticks + " ticks.");
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println(String.format("%d matches in %.1f s, %d desynced.", matches, seconds, desyncs));
+        System.out.println(stats.report());
+    }
+}
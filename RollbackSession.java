@@ -0,0 +1,316 @@
+package FightingGame;
+
+/**
+ * GGPO-style rollback for one side of an online match.
+ * The local player's input is applied on the tick it is made; the remote player's input is
+ * predicted (the last one received is assumed to still be held) until the real one arrives
+ * over an {@link InputTransport}. The state after every tick is saved in a ring of
+ * {@link MatchSnapshot}s, so when a received input differs from the prediction the match is
+ * restored to the tick before it and re-simulated up to the present with the corrected
+ * inputs, all before the next frame is drawn. A session never runs more than
+ * {@link #MAX_PREDICTION} ticks ahead of the last confirmed remote input; beyond that it waits.
+ * <p>
+ * Each side runs its own {@link MatchSimulation} with the same fighters and seed. Call
+ * {@link #step(double)} once per frame, or {@link #advance(long)} once per tick.
+ */
+public class RollbackSession implements MatchSimulation.InputSource
+{
+    public static final int MAX_PREDICTION = 8; // Most ticks simulated past the last confirmed remote input.
+    private static final int HISTORY = 64; // Ticks of inputs and snapshots kept; a power of two above MAX_PREDICTION.
+
+    /**
+     * Chooses the local player's input for the next tick, e.g. from the keyboard or a bot.
+     */
+    public interface LocalInput
+    {
+        /**
+         * @param match  The match as the local side currently sees it.
+         * @param player The local player's index.
+         * @param tick   The tick the input is for.
+         * @return The PlayerInput bits to hold on that tick.
+         */
+        long inputFor(MatchSimulation match, int player, long tick);
+    }
+
+    private final MatchSimulation match;
+    private final int localPlayer; // 0 or 1.
+    private final int remotePlayer;
+    private final InputTransport transport;
+    private final InputTransport.Receiver receiver = this::remoteInput;
+    private final FixedStepClock clock; // Turns frame time into ticks for step().
+    private LocalInput localInput; // Where step() gets local input; the key queue by default.
+    private RollbackStats stats = new RollbackStats(MAX_PREDICTION);
+
+    private final long[][] usedInputs = new long[2][HISTORY]; // The input each player was simulated with, by tick.
+    private final long[] remoteInputs = new long[HISTORY]; // Remote inputs received, by tick.
+    private final long[] remoteTicks = new long[HISTORY]; // Tick each remoteInputs slot belongs to.
+    private final MatchSnapshot[] snapshots = new MatchSnapshot[HISTORY]; // State after each tick.
+    private long confirmedThrough = 0; // Every remote input up to this tick has arrived.
+    private long rollbackFrom = Long.MAX_VALUE; // Earliest simulated tick whose remote input turned out wrong.
+
+    private final InputRingBuffer localQueue = new InputRingBuffer(256); // Key events for the local player.
+    private final InputRingBuffer.Handler localEventHandler = this::applyLocalEvent;
+    private long localHeld = 0; // Local actions currently held.
+    private long localTapped = 0; // Local actions pressed since the last tick, even if released again.
+
+    /**
+     * Creates a session around a match that has not started yet.
+     *
+     * @param match       This side's copy of the match.
+     * @param localPlayer Index of the player controlled on this machine (0 or 1).
+     * @param transport   Link to the other side.
+     */
+    public RollbackSession(MatchSimulation match, int localPlayer, InputTransport transport)
+    {
+        this.match = match;
+        this.localPlayer = localPlayer;
+        this.remotePlayer = 1 - localPlayer;
+        this.transport = transport;
+        this.clock = new FixedStepClock(match.getTickRate());
+        this.localInput = (m, player, tick) -> takeLocalInput();
+
+        for (int i = 0; i < HISTORY; i++)
+        {
+            snapshots[i] = new MatchSnapshot(match);
+            remoteTicks[i] = -1;
+        }
+        remoteTicks[0] = 0; // Tick 0 has no input; predictions start from "nothing held".
+        match.setInputSource(this);
+        match.saveState(snapshots[0]);
+    }
+
+    /**
+     * Advances by a frame's worth of real time: applies remote inputs that arrived, rolls
+     * back if a prediction was wrong, then runs as many new ticks as fit.
+     *
+     * @param deltaTime Elapsed real time in seconds.
+     * @return The number of new ticks simulated.
+     */
+    public int step(double deltaTime)
+    {
+        int ticks = clock.advance(deltaTime);
+        synchronize();
+        int simulated = 0;
+        for (int i = 0; i < ticks; i++)
+        {
+            long tick = match.getTickCount() + 1;
+            if (!canAdvance())
+            {
+                stall();
+                break;
+            }
+            advanceTick(localInput.inputFor(match, localPlayer, tick));
+            simulated++;
+        }
+        return simulated;
+    }
+
+    /**
+     * Runs one tick with the given local input, after applying any remote inputs that
+     * arrived. Nothing is simulated while the session waits for the remote player.
+     *
+     * @param input The local player's PlayerInput bits for the next tick.
+     * @return True if a tick was simulated.
+     */
+    public boolean advance(long input)
+    {
+        synchronize();
+        if (!canAdvance())
+        {
+            stall();
+            return false;
+        }
+        advanceTick(input);
+        return true;
+    }
+
+    /**
+     * Applies every remote input that has arrived and corrects the match if any of them
+     * differs from what was predicted.
+     */
+    public void synchronize()
+    {
+        transport.poll(receiver);
+        if (rollbackFrom <= match.getTickCount())
+        {
+            rollback();
+        }
+    }
+
+    @Override
+    public void supplyInputs(MatchSimulation match, long tick)
+    {
+        int slot = (int) (tick & (HISTORY - 1));
+        long remote = remoteTicks[slot] == tick ? remoteInputs[slot] : predictRemote();
+        usedInputs[remotePlayer][slot] = remote;
+        match.setInput(localPlayer, usedInputs[localPlayer][slot]);
+        match.setInput(remotePlayer, remote);
+    }
+
+    // True unless the next tick would be too far ahead of the remote player, or the match is settled.
+    private boolean canAdvance()
+    {
+        return !match.isOver() && match.getTickCount() - confirmedThrough < MAX_PREDICTION;
+    }
+
+    // Waits for the remote player, resending so a lost packet cannot stall both sides.
+    private void stall()
+    {
+        if (!match.isOver())
+        {
+            stats.recordStall();
+        }
+        long tick = match.getTickCount();
+        if (tick > 0)
+        {
+            transport.sendInput(tick, usedInputs[localPlayer][(int) (tick & (HISTORY - 1))]);
+        }
+    }
+
+    // Simulates the next live tick.
+    private void advanceTick(long input)
+    {
+        long tick = match.getTickCount() + 1;
+        int slot = (int) (tick & (HISTORY - 1));
+        usedInputs[localPlayer][slot] = input;
+        transport.sendInput(tick, input);
+        stats.recordTick(remoteTicks[slot] != tick);
+        match.tick();
+        match.saveState(snapshots[slot]);
+    }
+
+    // Restores the state before the first wrong tick and simulates forward again.
+    private void rollback()
+    {
+        long start = System.nanoTime();
+        long target = match.getTickCount();
+        long from = rollbackFrom;
+        rollbackFrom = Long.MAX_VALUE;
+
+        boolean verbose = match.isVerbose();
+        FrameMetrics metrics = match.getMetrics();
+        match.setVerbose(false); // Messages were printed the first time.
+        match.setMetrics(null); // Frame phases time live ticks only.
+        match.restoreState(snapshots[(int) ((from - 1) & (HISTORY - 1))]);
+        while (match.getTickCount() < target)
+        {
+            match.tick();
+            match.saveState(snapshots[(int) (match.getTickCount() & (HISTORY - 1))]);
+            if (match.isOver())
+            {
+                break; // The corrected inputs end the match sooner.
+            }
+        }
+        match.setVerbose(verbose);
+        match.setMetrics(metrics);
+        stats.recordRollback((int) (target - from + 1), System.nanoTime() - start);
+    }
+
+    // Stores a remote input and notes whether an already simulated tick guessed it wrong.
+    private void remoteInput(long tick, long input)
+    {
+        int slot = (int) (tick & (HISTORY - 1));
+        remoteInputs[slot] = input;
+        remoteTicks[slot] = tick;
+        if (tick <= match.getTickCount() && usedInputs[remotePlayer][slot] != input)
+        {
+            rollbackFrom = Math.min(rollbackFrom, tick);
+        }
+        while (remoteTicks[(int) ((confirmedThrough + 1) & (HISTORY - 1))] == confirmedThrough + 1)
+        {
+            confirmedThrough++;
+        }
+    }
+
+    // The remote player is assumed to keep holding their last confirmed input.
+    private long predictRemote()
+    {
+        return remoteInputs[(int) (confirmedThrough & (HISTORY - 1))];
+    }
+
+    // Turns the key events since the last tick into the local player's input.
+    private long takeLocalInput()
+    {
+        localQueue.drain(localEventHandler);
+        long input = localHeld | localTapped;
+        localTapped = 0;
+        return input;
+    }
+
+    // Applies one key event; every player's bindings control the local fighter.
+    private void applyLocalEvent(int player, long actions, boolean pressed, long timestampNanos)
+    {
+        if (pressed)
+        {
+            localHeld |= actions;
+            localTapped |= actions;
+        }
+        else
+        {
+            localHeld &= ~actions;
+        }
+    }
+
+    /**
+     * Returns the queue the window offers the local player's key events to.
+     */
+    public InputRingBuffer getLocalInputQueue()
+    {
+        return localQueue;
+    }
+
+    /**
+     * Makes step() take the local player's input from a source other than the key queue, such as a bot.
+     */
+    public void setLocalInput(LocalInput localInput)
+    {
+        this.localInput = localInput;
+    }
+
+    /**
+     * Reports into a shared counter set, e.g. one per tournament of test matches.
+     */
+    public void setStats(RollbackStats stats)
+    {
+        this.stats = stats;
+    }
+
+    public RollbackStats getStats()
+    {
+        return stats;
+    }
+
+    public MatchSimulation getMatch()
+    {
+        return match;
+    }
+
+    public int getLocalPlayer()
+    {
+        return localPlayer;
+    }
+
+    /**
+     * Returns the last tick for which the remote input, and so the simulated state, is final.
+     */
+    public long getConfirmedTick()
+    {
+        return Math.min(confirmedThrough, match.getTickCount());
+    }
+
+    /**
+     * Returns how far the current frame is between the last tick and the next one.
+     */
+    public double getInterpolationAlpha()
+    {
+        return clock.getAlpha();
+    }
+
+    /**
+     * True once the match has ended on a tick whose inputs are all confirmed, so no late input can undo the result.
+     */
+    public boolean isFinished()
+    {
+        return match.isOver() && confirmedThrough >= match.getTickCount();
+    }
+}
@@ -0,0 +1,129 @@
+package FightingGame;
+
+/**
+ * Counters for rollback sessions: how often and how far they rolled back, how long
+ * re-simulating took, and how often a session had to wait for the remote player.
+ * One instance can be shared by several sessions on the same thread to report them together.
+ */
+public class RollbackStats
+{
+    private final long[] depthCounts; // Rollbacks by depth in ticks; the last entry also counts deeper ones.
+    private final LatencyHistogram resimulationNanos = new LatencyHistogram(); // Time to restore and re-simulate, per rollback.
+    private long ticks = 0; // Live ticks simulated.
+    private long rollbacks = 0; // Mispredictions corrected.
+    private long resimulatedTicks = 0; // Ticks simulated again because of rollbacks.
+    private long predictedTicks = 0; // Ticks first simulated with a predicted remote input.
+    private long stalls = 0; // Ticks skipped because the remote player was too far behind.
+
+    /**
+     * @param maxDepth Deepest rollback counted separately.
+     */
+    public RollbackStats(int maxDepth)
+    {
+        depthCounts = new long[maxDepth + 1];
+    }
+
+    void recordTick(boolean predicted)
+    {
+        ticks++;
+        if (predicted)
+        {
+            predictedTicks++;
+        }
+    }
+
+    void recordRollback(int depth, long nanos)
+    {
+        rollbacks++;
+        resimulatedTicks += depth;
+        depthCounts[Math.min(depth, depthCounts.length - 1)]++;
+        resimulationNanos.record(nanos);
+    }
+
+    void recordStall()
+    {
+        stalls++;
+    }
+
+    public long getTicks()
+    {
+        return ticks;
+    }
+
+    public long getRollbacks()
+    {
+        return rollbacks;
+    }
+
+    public long getResimulatedTicks()
+    {
+        return resimulatedTicks;
+    }
+
+    public long getPredictedTicks()
+    {
+        return predictedTicks;
+    }
+
+    public long getStalls()
+    {
+        return stalls;
+    }
+
+    /**
+     * Returns how many rollbacks went back a given number of ticks.
+     *
+     * @param depth Ticks re-simulated; the deepest depth also counts deeper rollbacks.
+     */
+    public long getDepthCount(int depth)
+    {
+        return depthCounts[Math.min(depth, depthCounts.length - 1)];
+    }
+
+    public int getMaxDepth()
+    {
+        for (int depth = depthCounts.length - 1; depth > 0; depth--)
+        {
+            if (depthCounts[depth] > 0)
+            {
+                return depth;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the time each rollback took to restore a snapshot and re-simulate.
+     */
+    public LatencyHistogram getResimulationTimes()
+    {
+        return resimulationNanos;
+    }
+
+    /**
+     * Formats the counters, the depth distribution and the re-simulation times.
+     *
+     * @return A few lines of text for the console.
+     */
+    public String report()
+    {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("Ticks: %d live, %d predicted, %d re-simulated, %d stalled.%n",
+            ticks, predictedTicks, resimulatedTicks, stalls));
+        text.append(String.format("Rollbacks: %d (%.1f per 100 ticks), max depth %d ticks, mean depth %.2f.%n",
+            rollbacks, ticks == 0 ? 0.0 : 100.0 * rollbacks / ticks, getMaxDepth(),
+            rollbacks == 0 ? 0.0 : (double) resimulatedTicks / rollbacks));
+        text.append("Depth:");
+        for (int depth = 1; depth < depthCounts.length; depth++)
+        {
+            if (depthCounts[depth] > 0)
+            {
+                text.append(' ').append(depth).append(depth == depthCounts.length - 1 ? "+=" : "=").append(depthCounts[depth]);
+            }
+        }
+        text.append(String.format("%nRe-simulation time: n=%d p50=%.1f us p99=%.1f us max=%.1f us",
+            resimulationNanos.getCount(), resimulationNanos.getValueAtPercentile(50) / 1e3,
+            resimulationNanos.getValueAtPercentile(99) / 1e3, resimulationNanos.getMax() / 1e3));
+        return text.toString();
+    }
+}
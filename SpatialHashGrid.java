@@ -0,0 +1,255 @@
+package FightingGame;
+
+import java.util.Arrays; // Grows the item arrays and resets per-cell counters.
+
+/**
+ * Uniform-grid broadphase for collision queries in the arena.
+ * Items are inserted each tick as axis-aligned boxes, then {@link #build()} sorts them
+ * into cells with a counting sort over flat int arrays. Candidate pairs and box queries
+ * only look at items sharing a cell, so collision cost grows with local density instead
+ * of with the square of the number of projectiles.
+ */
+public class SpatialHashGrid
+{
+    /**
+     * Receives candidate pairs from {@link #forEachPair}.
+     */
+    public interface PairVisitor
+    {
+        void visit(int a, int b);
+    }
+
+    /**
+     * Receives candidate items from {@link #forEachInBox}.
+     */
+    public interface ItemVisitor
+    {
+        void visit(int id);
+    }
+
+    private final double originX; // Left edge of the grid.
+    private final double originY; // Top edge of the grid.
+    private final double cellSize; // Width and height of one cell.
+    private final int columns; // Number of cells across.
+    private final int rows; // Number of cells down.
+
+    private final int[] cellStart; // Offset of each cell's first entry in cellItems (plus one end marker).
+    private int[] cellItems = new int[64]; // Item ids, grouped by cell after build().
+
+    // Cell range covered by each inserted item, indexed by insertion order.
+    private int[] itemIds = new int[32];
+    private int[] minColumns = new int[32];
+    private int[] minRows = new int[32];
+    private int[] maxColumns = new int[32];
+    private int[] maxRows = new int[32];
+    private int itemCount = 0; // Items inserted since the last clear().
+    private int entryCount = 0; // Total cell entries (items can span several cells).
+
+    private int[] visitStamps = new int[32]; // Last query that reported each item, to avoid duplicates.
+    private int queryStamp = 0; // Incremented for every box query.
+
+    /**
+     * Creates a grid covering a rectangular area.
+     *
+     * @param originX  Left edge of the covered area.
+     * @param originY  Top edge of the covered area.
+     * @param width    Width of the covered area.
+     * @param height   Height of the covered area.
+     * @param cellSize Width and height of one cell; roughly the size of a typical item works best.
+     */
+    public SpatialHashGrid(double originX, double originY, double width, double height, double cellSize)
+    {
+        if (cellSize <= 0 || width <= 0 || height <= 0)
+        {
+            throw new IllegalArgumentException("Grid dimensions and cell size must be positive.");
+        }
+        this.originX = originX;
+        this.originY = originY;
+        this.cellSize = cellSize;
+        this.columns = (int) Math.ceil(width / cellSize);
+        this.rows = (int) Math.ceil(height / cellSize);
+        this.cellStart = new int[columns * rows + 1];
+    }
+
+    /**
+     * Removes every item so the grid can be refilled for a new tick.
+     */
+    public void clear()
+    {
+        itemCount = 0;
+        entryCount = 0;
+    }
+
+    /**
+     * Adds an item's bounding box. Call {@link #build()} after inserting every item.
+     * Items outside the grid are clamped to its edge cells.
+     *
+     * @param id   Caller-defined id of the item (e.g., its index in a list), 0 or greater.
+     * @param minX Left edge of the item's box.
+     * @param minY Top edge of the item's box.
+     * @param maxX Right edge of the item's box.
+     * @param maxY Bottom edge of the item's box.
+     */
+    public void insert(int id, double minX, double minY, double maxX, double maxY)
+    {
+        if (itemCount == itemIds.length)
+        {
+            int capacity = itemIds.length * 2;
+            itemIds = Arrays.copyOf(itemIds, capacity);
+            minColumns = Arrays.copyOf(minColumns, capacity);
+            minRows = Arrays.copyOf(minRows, capacity);
+            maxColumns = Arrays.copyOf(maxColumns, capacity);
+            maxRows = Arrays.copyOf(maxRows, capacity);
+        }
+        if (id >= visitStamps.length)
+        {
+            visitStamps = Arrays.copyOf(visitStamps, Math.max(id + 1, visitStamps.length * 2));
+        }
+
+        int item = itemCount++;
+        itemIds[item] = id;
+        minColumns[item] = column(minX);
+        minRows[item] = row(minY);
+        maxColumns[item] = column(maxX);
+        maxRows[item] = row(maxY);
+        entryCount += (maxColumns[item] - minColumns[item] + 1) * (maxRows[item] - minRows[item] + 1);
+    }
+
+    /**
+     * Sorts the inserted items into their cells. Must be called before querying.
+     */
+    public void build()
+    {
+        if (cellItems.length < entryCount)
+        {
+            cellItems = new int[Math.max(entryCount, cellItems.length * 2)];
+        }
+
+        // Count the entries in each cell.
+        Arrays.fill(cellStart, 0);
+        for (int item = 0; item < itemCount; item++)
+        {
+            for (int r = minRows[item]; r <= maxRows[item]; r++)
+            {
+                for (int c = minColumns[item]; c <= maxColumns[item]; c++)
+                {
+                    cellStart[r * columns + c + 1]++;
+                }
+            }
+        }
+
+        // Turn the counts into start offsets.
+        for (int cell = 1; cell < cellStart.length; cell++)
+        {
+            cellStart[cell] += cellStart[cell - 1];
+        }
+
+        // Place each entry, using the start offsets as write cursors, then shift them back.
+        for (int item = 0; item < itemCount; item++)
+        {
+            for (int r = minRows[item]; r <= maxRows[item]; r++)
+            {
+                for (int c = minColumns[item]; c <= maxColumns[item]; c++)
+                {
+                    cellItems[cellStart[r * columns + c]++] = item;
+                }
+            }
+        }
+        for (int cell = cellStart.length - 1; cell > 0; cell--)
+        {
+            cellStart[cell] = cellStart[cell - 1];
+        }
+        cellStart[0] = 0;
+    }
+
+    /**
+     * Reports every pair of items whose cells overlap, exactly once per pair.
+     *
+     * @param visitor Receives the ids of both items.
+     */
+    public void forEachPair(PairVisitor visitor)
+    {
+        for (int r = 0; r < rows; r++)
+        {
+            for (int c = 0; c < columns; c++)
+            {
+                int cell = r * columns + c;
+                int end = cellStart[cell + 1];
+                for (int i = cellStart[cell]; i < end; i++)
+                {
+                    int a = cellItems[i];
+                    for (int j = i + 1; j < end; j++)
+                    {
+                        int b = cellItems[j];
+                        // Items sharing several cells are reported only from the first cell they share.
+                        if (c == Math.max(minColumns[a], minColumns[b]) && r == Math.max(minRows[a], minRows[b]))
+                        {
+                            visitor.visit(itemIds[a], itemIds[b]);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Reports every item whose cells overlap a box, each item at most once.
+     *
+     * @param minX    Left edge of the box.
+     * @param minY    Top edge of the box.
+     * @param maxX    Right edge of the box.
+     * @param maxY    Bottom edge of the box.
+     * @param visitor Receives the id of each candidate item.
+     */
+    public void forEachInBox(double minX, double minY, double maxX, double maxY, ItemVisitor visitor)
+    {
+        int stamp = ++queryStamp;
+        int lastColumn = column(maxX);
+        int lastRow = row(maxY);
+        for (int r = row(minY); r <= lastRow; r++)
+        {
+            for (int c = column(minX); c <= lastColumn; c++)
+            {
+                int cell = r * columns + c;
+                for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++)
+                {
+                    int id = itemIds[cellItems[i]];
+                    if (visitStamps[id] != stamp)
+                    {
+                        visitStamps[id] = stamp;
+                        visitor.visit(id);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests whether a circle overlaps an axis-aligned box.
+     *
+     * @return True if the closest point of the box lies within the circle's radius.
+     */
+    public static boolean circleIntersectsBox(double centerX, double centerY, double radius,
+                                              double minX, double minY, double maxX, double maxY)
+    {
+        double closestX = Math.max(minX, Math.min(centerX, maxX));
+        double closestY = Math.max(minY, Math.min(centerY, maxY));
+        double dx = centerX - closestX;
+        double dy = centerY - closestY;
+        return dx * dx + dy * dy <= radius * radius;
+    }
+
+    // Converts an X-coordinate to a column, clamped to the grid.
+    private int column(double x)
+    {
+        int c = (int) Math.floor((x - originX) / cellSize);
+        return Math.max(0, Math.min(columns - 1, c));
+    }
+
+    // Converts a Y-coordinate to a row, clamped to the grid.
+    private int row(double y)
+    {
+        int r = (int) Math.floor((y - originY) / cellSize);
+        return Math.max(0, Math.min(rows - 1, r));
+    }
+}
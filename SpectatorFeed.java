@@ -0,0 +1,274 @@
+package FightingGame;
+
+import java.nio.ByteBuffer; // Encoded frames, shared read-only by every subscriber.
+import java.util.Arrays; // Grows and shrinks the subscriber list.
+
+/**
+ * Broadcasts a match to any number of spectators as a stream of small frames, each encoding
+ * the state after a tick as the difference from a baseline the spectators already have.
+ * <p>
+ * Spectators acknowledge the last tick they decoded, and the feed keeps the states of the
+ * last {@link #HISTORY} ticks it published. Every tick it encodes one delta, against the
+ * oldest acknowledged tick still in its history, and delivers the same bytes to every
+ * subscriber that has that baseline, so the cost of encoding does not grow with the number
+ * of spectators. Subscribers that are new, have fallen too far behind or joined after the
+ * baseline get a keyframe instead, which is also encoded at most once per tick.
+ * <p>
+ * Frames are expected to reach each subscriber in order and without loss, as over a stream
+ * socket or in-process; a subscriber that loses frames must stop acknowledging and will be
+ * sent a keyframe once its last acknowledged tick leaves the history. Frame layout:
+ * <pre>
+ *   tick                          varint
+ *   ticks back to the baseline    varint, 0 for a keyframe (encoded against the empty state)
+ *   difference                    see {@link SpectatorState}
+ * </pre>
+ * {@link #publish} is called by the thread running the match; subscribers may acknowledge
+ * from any thread.
+ */
+public class SpectatorFeed
+{
+    public static final int HISTORY = 32; // Ticks of published states kept as baselines (about half a second).
+    private static final int MAX_FRAME_BYTES = 2048; // Far above a full keyframe with every projectile slot taken.
+
+    /**
+     * Receives encoded frames. The buffer is read-only and only valid during the call;
+     * a subscriber that sends it on or decodes it later must copy it.
+     */
+    public interface Subscriber
+    {
+        void receive(ByteBuffer frame);
+    }
+
+    /**
+     * One subscriber's place in the feed.
+     */
+    public static final class Subscription
+    {
+        final Subscriber subscriber;
+        private volatile long acked = 0; // Last tick the subscriber decoded; 0 until its first keyframe.
+        private long since = 0; // Tick of the first keyframe it was sent; every later frame followed. Publisher thread only.
+
+        Subscription(Subscriber subscriber)
+        {
+            this.subscriber = subscriber;
+        }
+
+        /**
+         * Acknowledges that every frame up to a tick has been decoded.
+         *
+         * @param tick The tick of the last frame decoded.
+         */
+        public void ack(long tick)
+        {
+            acked = tick;
+        }
+
+        public long getAcked()
+        {
+            return acked;
+        }
+    }
+
+    private final SpectatorState[] history = new SpectatorState[HISTORY]; // Published states, by tick % HISTORY.
+    private final SpectatorState empty; // Baseline of keyframes.
+    private final SpectatorState carried; // Copy of the last state when its history slot is about to be reused.
+    private SpectatorState last; // The state published most recently.
+    private volatile Subscription[] subscriptions = new Subscription[0]; // Replaced whole on every change.
+
+    private final ByteBuffer delta = ByteBuffer.allocate(MAX_FRAME_BYTES);
+    private final ByteBuffer keyframe = ByteBuffer.allocate(MAX_FRAME_BYTES);
+    private final ByteBuffer deltaView = delta.asReadOnlyBuffer(); // What subscribers are handed.
+    private final ByteBuffer keyframeView = keyframe.asReadOnlyBuffer();
+
+    private long framesEncoded = 0; // Deltas and keyframes encoded.
+    private long keyframesEncoded = 0;
+    private long bytesEncoded = 0;
+    private long framesDelivered = 0; // Frames handed to subscribers; one encoded frame may be delivered many times.
+
+    /**
+     * Creates a feed with no subscribers.
+     *
+     * @param maxProjectiles Most projectiles the match can have in flight, e.g. its store's capacity.
+     */
+    public SpectatorFeed(int maxProjectiles)
+    {
+        for (int i = 0; i < HISTORY; i++)
+        {
+            history[i] = new SpectatorState(maxProjectiles);
+            history[i].tick = -1;
+        }
+        empty = new SpectatorState(maxProjectiles);
+        carried = new SpectatorState(maxProjectiles);
+        last = empty;
+    }
+
+    /**
+     * Adds a subscriber; it receives a keyframe with the next published tick.
+     *
+     * @param subscriber Receives every frame from now on.
+     * @return The subscription, through which the subscriber acknowledges frames.
+     */
+    public synchronized Subscription subscribe(Subscriber subscriber)
+    {
+        Subscription subscription = new Subscription(subscriber);
+        Subscription[] grown = Arrays.copyOf(subscriptions, subscriptions.length + 1);
+        grown[grown.length - 1] = subscription;
+        subscriptions = grown;
+        return subscription;
+    }
+
+    /**
+     * Removes a subscriber; it receives no more frames.
+     */
+    public synchronized void unsubscribe(Subscription subscription)
+    {
+        Subscription[] current = subscriptions;
+        for (int i = 0; i < current.length; i++)
+        {
+            if (current[i] == subscription)
+            {
+                Subscription[] shrunk = Arrays.copyOf(current, current.length - 1);
+                System.arraycopy(current, i + 1, shrunk, i, current.length - i - 1);
+                subscriptions = shrunk;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Captures the match after its latest tick, encodes it and hands it to every subscriber.
+     * Does nothing if the tick was already published. If the match went back in time, e.g. a
+     * training reset, the history is dropped and every subscriber is sent a keyframe.
+     *
+     * @param match The match, after one or more ticks.
+     */
+    public void publish(MatchSimulation match)
+    {
+        long tick = match.getTickCount();
+        if (tick == last.tick)
+        {
+            return;
+        }
+        Subscription[] targets = subscriptions;
+        if (tick < last.tick)
+        {
+            for (SpectatorState state : history)
+            {
+                state.tick = -1;
+            }
+            for (Subscription subscription : targets)
+            {
+                subscription.since = 0;
+            }
+            last = empty;
+        }
+        SpectatorState current = history[slot(tick)];
+        if (current == last) // Published a whole history ago; keep its projectiles while the slot is refilled.
+        {
+            carried.copyFrom(last);
+            last = carried;
+        }
+        current.capture(match, last);
+        last = current;
+
+        // The oldest tick acknowledged by a subscriber that still has it is the shared baseline.
+        long baselineTick = Long.MAX_VALUE;
+        for (Subscription subscription : targets)
+        {
+            long acked = subscription.acked;
+            if (subscription.since > 0 && acked >= subscription.since && isStored(acked, tick))
+            {
+                baselineTick = Math.min(baselineTick, acked);
+            }
+        }
+        boolean haveDelta = false;
+        boolean haveKeyframe = false;
+
+        for (Subscription subscription : targets)
+        {
+            ByteBuffer frame;
+            if (baselineTick != Long.MAX_VALUE && subscription.since > 0 && subscription.since <= baselineTick
+                && subscription.acked >= baselineTick)
+            {
+                if (!haveDelta)
+                {
+                    encode(delta, current, history[slot(baselineTick)], tick - baselineTick);
+                    deltaView.limit(delta.position());
+                    haveDelta = true;
+                }
+                frame = deltaView;
+            }
+            else
+            {
+                if (!haveKeyframe)
+                {
+                    encode(keyframe, current, empty, 0);
+                    keyframeView.limit(keyframe.position());
+                    keyframesEncoded++;
+                    haveKeyframe = true;
+                }
+                frame = keyframeView;
+                if (subscription.since == 0)
+                {
+                    subscription.since = tick;
+                }
+            }
+            frame.position(0);
+            subscription.subscriber.receive(frame);
+            framesDelivered++;
+        }
+    }
+
+    public int getSubscriberCount()
+    {
+        return subscriptions.length;
+    }
+
+    /**
+     * Returns how many frames (deltas and keyframes) have been encoded.
+     */
+    public long getFramesEncoded()
+    {
+        return framesEncoded;
+    }
+
+    public long getKeyframesEncoded()
+    {
+        return keyframesEncoded;
+    }
+
+    /**
+     * Returns the total size of every encoded frame, counting each frame once however many
+     * subscribers received it.
+     */
+    public long getBytesEncoded()
+    {
+        return bytesEncoded;
+    }
+
+    public long getFramesDelivered()
+    {
+        return framesDelivered;
+    }
+
+    private void encode(ByteBuffer out, SpectatorState state, SpectatorState baseline, long ticksBack)
+    {
+        out.clear();
+        SpectatorState.putVarint(out, state.tick);
+        SpectatorState.putVarint(out, ticksBack);
+        state.encodeDelta(baseline, out);
+        framesEncoded++;
+        bytesEncoded += out.position();
+    }
+
+    // Whether a tick before the current one is still in the history.
+    private boolean isStored(long tick, long current)
+    {
+        return tick > 0 && tick < current && current - tick < HISTORY && history[slot(tick)].tick == tick;
+    }
+
+    private static int slot(long tick)
+    {
+        return (int) (tick % HISTORY);
+    }
+}
@@ -0,0 +1,401 @@
+package FightingGame;
+
+import java.nio.BufferUnderflowException; // A frame ended in the middle of a value.
+import java.nio.ByteBuffer; // Encoded spectator frames.
+import java.util.Arrays; // Clears the fighter fields.
+
+/**
+ * What a spectator sees of a match at one tick, quantized to what is worth sending:
+ * each fighter's position in quarter pixels, health in tenths, shield in thousandths and
+ * a few state flags, plus the projectiles in flight. Projectiles fly in straight lines, so
+ * each one is kept as it was when first seen (position, velocity and tick) and spectators
+ * move it along themselves; only spawns and despawns ever need sending.
+ * <p>
+ * A state is encoded as the difference from an older one (the baseline), or from the empty
+ * state for a keyframe:
+ * <pre>
+ *   fighter mask                  1 byte, bit i set if fighter i changed
+ *   per changed fighter           field mask byte (x, y, health, shield, flags), then a
+ *                                 zigzag varint difference per changed field
+ *   despawns                      count byte, then varint id gaps in increasing id order
+ *   spawns                        count byte, then per projectile: varint id gap, owner
+ *                                 byte, varint ticks since first seen, zigzag varints x, y,
+ *                                 x velocity, y velocity and varint radius
+ * </pre>
+ * The frame header (tick and baseline) is written by {@link SpectatorFeed}.
+ */
+final class SpectatorState
+{
+    static final int POSITION_SCALE = 4; // Positions and velocities are sent in quarter pixels.
+    static final int HEALTH_SCALE = 10; // Health is sent in tenths of a hit point.
+    static final int SHIELD_SCALE = 1000; // Shield level is sent in thousandths.
+
+    // Fighter flags.
+    static final int ATTACKING = 1;
+    static final int WINDING_UP = 1 << 1;
+    static final int SHIELD_ACTIVE = 1 << 2;
+    static final int SHIELD_AVAILABLE = 1 << 3;
+    static final int STUNNED = 1 << 4;
+    static final int INVISIBLE = 1 << 5;
+
+    // Fighter fields, in the order of their bits in a field mask.
+    static final int FIELD_X = 0;
+    static final int FIELD_Y = 1;
+    static final int FIELD_HEALTH = 2;
+    static final int FIELD_SHIELD = 3;
+    static final int FIELD_FLAGS = 4;
+    private static final int FIELD_COUNT = 5;
+
+    long tick = 0; // The tick this state was captured after; 0 for the empty state.
+    final int[][] fighters = new int[2][FIELD_COUNT]; // Quantized fields of each fighter.
+
+    // Projectiles in flight, sorted by id, as first seen.
+    int projectileCount = 0;
+    final long[] projectileIds;
+    final int[] owners;
+    final long[] firstSeen; // Tick the projectile was first captured at.
+    final int[] startX; // Position at that tick, quantized.
+    final int[] startY;
+    final int[] velocityX; // Quantized pixels per second.
+    final int[] velocityY;
+    final int[] radii; // Whole pixels.
+
+    /**
+     * Creates an empty state.
+     *
+     * @param maxProjectiles Most projectiles in flight at once; counts are sent as one byte, so at most 127.
+     */
+    SpectatorState(int maxProjectiles)
+    {
+        if (maxProjectiles > Byte.MAX_VALUE)
+        {
+            throw new IllegalArgumentException("Spectator frames carry at most " + Byte.MAX_VALUE + " projectiles.");
+        }
+        projectileIds = new long[maxProjectiles];
+        owners = new int[maxProjectiles];
+        firstSeen = new long[maxProjectiles];
+        startX = new int[maxProjectiles];
+        startY = new int[maxProjectiles];
+        velocityX = new int[maxProjectiles];
+        velocityY = new int[maxProjectiles];
+        radii = new int[maxProjectiles];
+    }
+
+    /**
+     * Resets to the empty state, which keyframes are encoded against.
+     */
+    void clear()
+    {
+        tick = 0;
+        for (int[] fighter : fighters)
+        {
+            Arrays.fill(fighter, 0);
+        }
+        projectileCount = 0;
+    }
+
+    /**
+     * Captures a match after a tick, carrying over projectiles already seen in the previous capture.
+     *
+     * @param match    The match.
+     * @param previous The state captured after an earlier tick (or the empty state).
+     */
+    void capture(MatchSimulation match, SpectatorState previous)
+    {
+        tick = match.getTickCount();
+        for (int i = 0; i < 2; i++)
+        {
+            Fighter fighter = match.getFighter(i);
+            int[] fields = fighters[i];
+            fields[FIELD_X] = quantize(fighter.getX(), POSITION_SCALE);
+            fields[FIELD_Y] = quantize(fighter.getY(), POSITION_SCALE);
+            fields[FIELD_HEALTH] = quantize(fighter.getHealth(), HEALTH_SCALE);
+            fields[FIELD_SHIELD] = quantize(fighter.getShieldLevel(), SHIELD_SCALE);
+            fields[FIELD_FLAGS] = (fighter.isAttacking() ? ATTACKING : 0)
+                | (fighter.isWindingUp() ? WINDING_UP : 0)
+                | (fighter.isShieldActive() ? SHIELD_ACTIVE : 0)
+                | (fighter.isShieldAvailable() ? SHIELD_AVAILABLE : 0)
+                | (fighter.isStunned() ? STUNNED : 0)
+                | (fighter.isInvisible() ? INVISIBLE : 0);
+        }
+
+        ProjectileStore store = match.getProjectiles();
+        projectileCount = 0;
+        for (int slot = 0; slot < store.getCount(); slot++)
+        {
+            // Insert in id order; slots are not, since removals move projectiles between slots.
+            long id = store.getId(slot);
+            int at = projectileCount++;
+            while (at > 0 && projectileIds[at - 1] > id)
+            {
+                moveProjectile(at - 1, at);
+                at--;
+            }
+            int seen = previous.indexOf(id);
+            if (seen >= 0)
+            {
+                copyProjectile(previous, seen, at);
+            }
+            else
+            {
+                projectileIds[at] = id;
+                owners[at] = store.getOwner(slot);
+                firstSeen[at] = tick;
+                startX[at] = quantize(store.getX(slot), POSITION_SCALE);
+                startY[at] = quantize(store.getY(slot), POSITION_SCALE);
+                velocityX[at] = quantize(store.getVelocityX(slot), POSITION_SCALE);
+                velocityY[at] = quantize(store.getVelocityY(slot), POSITION_SCALE);
+                radii[at] = (int) Math.round(store.getRadius(slot));
+            }
+        }
+    }
+
+    /**
+     * Makes this state an exact copy of another.
+     */
+    void copyFrom(SpectatorState other)
+    {
+        tick = other.tick;
+        for (int i = 0; i < 2; i++)
+        {
+            System.arraycopy(other.fighters[i], 0, fighters[i], 0, FIELD_COUNT);
+        }
+        projectileCount = other.projectileCount;
+        for (int i = 0; i < projectileCount; i++)
+        {
+            copyProjectile(other, i, i);
+        }
+    }
+
+    /**
+     * Writes the difference between a baseline and this state.
+     *
+     * @param baseline The state the reader already has, or the empty state.
+     * @param out      Receives the encoded difference.
+     */
+    void encodeDelta(SpectatorState baseline, ByteBuffer out)
+    {
+        int maskAt = out.position();
+        out.put((byte) 0);
+        int fighterMask = 0;
+        for (int i = 0; i < 2; i++)
+        {
+            int[] now = fighters[i];
+            int[] before = baseline.fighters[i];
+            int fieldMask = 0;
+            for (int field = 0; field < FIELD_COUNT; field++)
+            {
+                if (now[field] != before[field])
+                {
+                    fieldMask |= 1 << field;
+                }
+            }
+            if (fieldMask == 0)
+            {
+                continue;
+            }
+            fighterMask |= 1 << i;
+            out.put((byte) fieldMask);
+            for (int field = 0; field < FIELD_COUNT; field++)
+            {
+                if ((fieldMask & (1 << field)) != 0)
+                {
+                    putVarint(out, zigzag(now[field] - before[field]));
+                }
+            }
+        }
+        out.put(maskAt, (byte) fighterMask);
+
+        // Both lists are sorted by id, so one merge walk finds what left and what arrived.
+        int countAt = out.position();
+        out.put((byte) 0); // Despawn count, patched below.
+        int despawns = 0;
+        long lastId = 0;
+        for (int b = 0, n = 0; b < baseline.projectileCount; b++)
+        {
+            long id = baseline.projectileIds[b];
+            while (n < projectileCount && projectileIds[n] < id)
+            {
+                n++;
+            }
+            if (n == projectileCount || projectileIds[n] != id)
+            {
+                putVarint(out, id - lastId);
+                lastId = id;
+                despawns++;
+            }
+        }
+        out.put(countAt, (byte) despawns);
+
+        countAt = out.position();
+        out.put((byte) 0);
+        int spawns = 0;
+        lastId = 0;
+        for (int n = 0, b = 0; n < projectileCount; n++)
+        {
+            long id = projectileIds[n];
+            while (b < baseline.projectileCount && baseline.projectileIds[b] < id)
+            {
+                b++;
+            }
+            if (b == baseline.projectileCount || baseline.projectileIds[b] != id)
+            {
+                putVarint(out, id - lastId);
+                lastId = id;
+                out.put((byte) owners[n]);
+                putVarint(out, tick - firstSeen[n]);
+                putVarint(out, zigzag(startX[n]));
+                putVarint(out, zigzag(startY[n]));
+                putVarint(out, zigzag(velocityX[n]));
+                putVarint(out, zigzag(velocityY[n]));
+                putVarint(out, radii[n]);
+                spawns++;
+            }
+        }
+        out.put(countAt, (byte) spawns);
+    }
+
+    /**
+     * Rebuilds this state from a baseline and an encoded difference.
+     *
+     * @param baseline The state the difference was encoded against.
+     * @param tick     The tick of the encoded state.
+     * @param in       Positioned at the difference; left after it.
+     * @throws IllegalArgumentException If the difference is malformed.
+     */
+    void decodeDelta(SpectatorState baseline, long tick, ByteBuffer in)
+    {
+        try
+        {
+            this.tick = tick;
+            int fighterMask = in.get();
+            for (int i = 0; i < 2; i++)
+            {
+                System.arraycopy(baseline.fighters[i], 0, fighters[i], 0, FIELD_COUNT);
+                if ((fighterMask & (1 << i)) == 0)
+                {
+                    continue;
+                }
+                int fieldMask = in.get();
+                for (int field = 0; field < FIELD_COUNT; field++)
+                {
+                    if ((fieldMask & (1 << field)) != 0)
+                    {
+                        fighters[i][field] += unzigzag(getVarint(in));
+                    }
+                }
+            }
+
+            // Keep the baseline's projectiles minus the despawned ones, then merge in the spawns.
+            int despawns = in.get();
+            long despawnId = despawns > 0 ? getVarint(in) : Long.MAX_VALUE;
+            projectileCount = 0;
+            for (int b = 0; b < baseline.projectileCount; b++)
+            {
+                if (baseline.projectileIds[b] == despawnId)
+                {
+                    despawns--;
+                    despawnId = despawns > 0 ? despawnId + getVarint(in) : Long.MAX_VALUE;
+                    continue;
+                }
+                copyProjectile(baseline, b, projectileCount++);
+            }
+
+            int spawns = in.get();
+            long id = 0;
+            for (int s = 0; s < spawns; s++)
+            {
+                id += getVarint(in);
+                int at = projectileCount++;
+                while (at > 0 && projectileIds[at - 1] > id)
+                {
+                    moveProjectile(at - 1, at);
+                    at--;
+                }
+                projectileIds[at] = id;
+                owners[at] = in.get();
+                firstSeen[at] = tick - getVarint(in);
+                startX[at] = unzigzag(getVarint(in));
+                startY[at] = unzigzag(getVarint(in));
+                velocityX[at] = unzigzag(getVarint(in));
+                velocityY[at] = unzigzag(getVarint(in));
+                radii[at] = (int) getVarint(in);
+            }
+        }
+        catch (BufferUnderflowException | ArrayIndexOutOfBoundsException e)
+        {
+            throw new IllegalArgumentException("Malformed spectator frame.", e);
+        }
+    }
+
+    // Index of a projectile by id, or -1.
+    private int indexOf(long id)
+    {
+        for (int i = 0; i < projectileCount; i++)
+        {
+            if (projectileIds[i] == id)
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void moveProjectile(int from, int to)
+    {
+        copyProjectile(this, from, to);
+    }
+
+    private void copyProjectile(SpectatorState source, int from, int to)
+    {
+        projectileIds[to] = source.projectileIds[from];
+        owners[to] = source.owners[from];
+        firstSeen[to] = source.firstSeen[from];
+        startX[to] = source.startX[from];
+        startY[to] = source.startY[from];
+        velocityX[to] = source.velocityX[from];
+        velocityY[to] = source.velocityY[from];
+        radii[to] = source.radii[from];
+    }
+
+    static int quantize(double value, int scale)
+    {
+        return (int) Math.round(value * scale);
+    }
+
+    // Maps small negative and positive differences alike to small unsigned values.
+    private static long zigzag(long value)
+    {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static int unzigzag(long value)
+    {
+        return (int) ((value >>> 1) ^ -(value & 1));
+    }
+
+    static void putVarint(ByteBuffer out, long value)
+    {
+        while ((value & ~0x7FL) != 0)
+        {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    static long getVarint(ByteBuffer in)
+    {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7)
+        {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+            {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in spectator frame.");
+    }
+}
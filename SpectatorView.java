@@ -0,0 +1,208 @@
+package FightingGame;
+
+import java.nio.ByteBuffer; // Frames from the feed.
+
+/**
+ * A spectator's copy of a match, rebuilt from the frames of a {@link SpectatorFeed}.
+ * Keeps the states of the last {@link SpectatorFeed#HISTORY} decoded ticks, so every frame's
+ * baseline is at hand, and acknowledges each frame once decoded. Positions, health and
+ * shield come back at the precision they were sent with; projectiles are moved along their
+ * velocity from where they were first seen. Attached to a feed it is an in-process
+ * subscriber, e.g. for benchmarks; a remote client would decode the same frames.
+ */
+public class SpectatorView implements SpectatorFeed.Subscriber
+{
+    private final SpectatorState[] decoded = new SpectatorState[SpectatorFeed.HISTORY]; // By tick % HISTORY.
+    private final SpectatorState empty; // Baseline of keyframes.
+    private final int tickRate; // Ticks per second of the match, for moving projectiles.
+    private SpectatorState current; // The last decoded state.
+    private SpectatorFeed.Subscription subscription; // Where to acknowledge frames; null if not attached.
+    private long framesDecoded = 0;
+    private long bytesReceived = 0;
+
+    /**
+     * Creates a view with nothing decoded yet.
+     *
+     * @param tickRate       Ticks per second of the match.
+     * @param maxProjectiles Most projectiles the match can have in flight.
+     */
+    public SpectatorView(int tickRate, int maxProjectiles)
+    {
+        this.tickRate = tickRate;
+        for (int i = 0; i < decoded.length; i++)
+        {
+            decoded[i] = new SpectatorState(maxProjectiles);
+            decoded[i].tick = -1;
+        }
+        empty = new SpectatorState(maxProjectiles);
+        current = empty;
+    }
+
+    /**
+     * Subscribes to a feed; every frame it sends is decoded and acknowledged at once.
+     *
+     * @param feed The feed to watch.
+     */
+    public void attach(SpectatorFeed feed)
+    {
+        subscription = feed.subscribe(this);
+    }
+
+    @Override
+    public void receive(ByteBuffer frame)
+    {
+        long tick = decode(frame);
+        if (subscription != null)
+        {
+            subscription.ack(tick);
+        }
+    }
+
+    /**
+     * Applies one frame.
+     *
+     * @param frame A whole frame; read to its end.
+     * @return The tick the frame brought the view to.
+     * @throws IllegalArgumentException If the frame is malformed or its baseline has not been decoded.
+     */
+    public long decode(ByteBuffer frame)
+    {
+        bytesReceived += frame.remaining();
+        long tick = SpectatorState.getVarint(frame);
+        long ticksBack = SpectatorState.getVarint(frame);
+        SpectatorState baseline = empty;
+        if (ticksBack != 0)
+        {
+            long baselineTick = tick - ticksBack;
+            baseline = ticksBack < decoded.length && baselineTick > 0 ? decoded[slot(baselineTick)] : null;
+            if (baseline == null || baseline.tick != baselineTick)
+            {
+                throw new IllegalArgumentException("Frame for tick " + tick + " needs tick " + baselineTick + ", which was not decoded.");
+            }
+        }
+        SpectatorState target = decoded[slot(tick)];
+        target.decodeDelta(baseline, tick, frame);
+        current = target;
+        framesDecoded++;
+        return tick;
+    }
+
+    /**
+     * Returns the tick of the last decoded frame, or 0 before the first.
+     */
+    public long getTick()
+    {
+        return current.tick;
+    }
+
+    public double getFighterX(int player)
+    {
+        return (double) current.fighters[player][SpectatorState.FIELD_X] / SpectatorState.POSITION_SCALE;
+    }
+
+    public double getFighterY(int player)
+    {
+        return (double) current.fighters[player][SpectatorState.FIELD_Y] / SpectatorState.POSITION_SCALE;
+    }
+
+    public double getHealth(int player)
+    {
+        return (double) current.fighters[player][SpectatorState.FIELD_HEALTH] / SpectatorState.HEALTH_SCALE;
+    }
+
+    public double getShieldLevel(int player)
+    {
+        return (double) current.fighters[player][SpectatorState.FIELD_SHIELD] / SpectatorState.SHIELD_SCALE;
+    }
+
+    public boolean isAttacking(int player)
+    {
+        return hasFlag(player, SpectatorState.ATTACKING);
+    }
+
+    public boolean isWindingUp(int player)
+    {
+        return hasFlag(player, SpectatorState.WINDING_UP);
+    }
+
+    public boolean isShieldActive(int player)
+    {
+        return hasFlag(player, SpectatorState.SHIELD_ACTIVE);
+    }
+
+    public boolean isShieldAvailable(int player)
+    {
+        return hasFlag(player, SpectatorState.SHIELD_AVAILABLE);
+    }
+
+    public boolean isStunned(int player)
+    {
+        return hasFlag(player, SpectatorState.STUNNED);
+    }
+
+    public boolean isInvisible(int player)
+    {
+        return hasFlag(player, SpectatorState.INVISIBLE);
+    }
+
+    public int getProjectileCount()
+    {
+        return current.projectileCount;
+    }
+
+    /**
+     * Returns a projectile's id, which matches {@link ProjectileStore#getId} in the match.
+     *
+     * @param index From 0 to {@link #getProjectileCount()} - 1, in increasing id order.
+     */
+    public long getProjectileId(int index)
+    {
+        return current.projectileIds[index];
+    }
+
+    public int getProjectileOwner(int index)
+    {
+        return current.owners[index];
+    }
+
+    public double getProjectileX(int index)
+    {
+        return (current.startX[index] + current.velocityX[index] * secondsInFlight(index)) / SpectatorState.POSITION_SCALE;
+    }
+
+    public double getProjectileY(int index)
+    {
+        return (current.startY[index] + current.velocityY[index] * secondsInFlight(index)) / SpectatorState.POSITION_SCALE;
+    }
+
+    public double getProjectileRadius(int index)
+    {
+        return current.radii[index];
+    }
+
+    public long getFramesDecoded()
+    {
+        return framesDecoded;
+    }
+
+    public long getBytesReceived()
+    {
+        return bytesReceived;
+    }
+
+    private boolean hasFlag(int player, int flag)
+    {
+        return (current.fighters[player][SpectatorState.FIELD_FLAGS] & flag) != 0;
+    }
+
+    // Time since the projectile was first seen.
+    private double secondsInFlight(int index)
+    {
+        return (double) (current.tick - current.firstSeen[index]) / tickRate;
+    }
+
+    private static int slot(long tick)
+    {
+        return (int) (tick % SpectatorFeed.HISTORY);
+    }
+}
@@ -0,0 +1,110 @@
+package FightingGame;
+
+/**
+ * A flat block of 64-bit words that holds simulation state.
+ * A {@link MatchSimulation} keeps everything it changes while ticking in one block, and each
+ * component (fighters, projectiles, effects, stats, random generator) reads and writes its
+ * own region of it at fixed word offsets through a view made with {@link #region}. Saving or
+ * restoring a whole match is then one bulk copy, and a saved state holds no objects to
+ * allocate or walk. Doubles are stored as their raw bits and ints and flags take a word each,
+ * so every value is an aligned array element.
+ * Components created outside a match get a small block of their own and move into the
+ * match's block when the match is created.
+ */
+public final class StateBlock
+{
+    private final long[] words; // The whole block, shared by every view of it.
+    private final int base; // Index of this view's word 0 in the block.
+    private final int size; // Words in this view.
+
+    /**
+     * Allocates a zeroed block.
+     *
+     * @param size Number of words.
+     */
+    public StateBlock(int size)
+    {
+        this(new long[size], 0, size);
+    }
+
+    private StateBlock(long[] words, int base, int size)
+    {
+        this.words = words;
+        this.base = base;
+        this.size = size;
+    }
+
+    /**
+     * Returns a view of part of this block, indexed from 0, that shares its memory.
+     *
+     * @param offset First word of the region.
+     * @param length Words in the region.
+     * @return The region as its own block.
+     */
+    public StateBlock region(int offset, int length)
+    {
+        if (offset < 0 || length < 0 || offset + length > size)
+        {
+            throw new IndexOutOfBoundsException("Region " + offset + "+" + length + " is outside a block of " + size + " words.");
+        }
+        return new StateBlock(words, base + offset, length);
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public long getLong(int index)
+    {
+        return words[base + index];
+    }
+
+    public void putLong(int index, long value)
+    {
+        words[base + index] = value;
+    }
+
+    public double getDouble(int index)
+    {
+        return Double.longBitsToDouble(words[base + index]);
+    }
+
+    public void putDouble(int index, double value)
+    {
+        words[base + index] = Double.doubleToRawLongBits(value);
+    }
+
+    public int getInt(int index)
+    {
+        return (int) words[base + index];
+    }
+
+    public void putInt(int index, int value)
+    {
+        words[base + index] = value;
+    }
+
+    public boolean getFlag(int index)
+    {
+        return words[base + index] != 0;
+    }
+
+    public void putFlag(int index, boolean value)
+    {
+        words[base + index] = value ? 1 : 0;
+    }
+
+    /**
+     * Copies words from another block, or from elsewhere in this one, in a single bulk copy.
+     *
+     * @param index  First word to write in this block.
+     * @param source The block to read.
+     * @param from   First word to read in the source.
+     * @param length Number of words.
+     */
+    public void copyFrom(int index, StateBlock source, int from, int length)
+    {
+        System.arraycopy(source.words, source.base + from, words, base + index, length);
+    }
+}
@@ -0,0 +1,310 @@
+package FightingGame;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool; // Spreads matches over every core.
+import java.util.concurrent.RecursiveTask; // Splits a range of matches until it is small enough to play.
+
+/**
+ * Headless balance tournament: every pair of roster characters plays many bot matches,
+ * spread over a fork-join pool, and the runner reports each character's win rate, time to
+ * kill and damage by source with 95% confidence intervals, plus a matchup table.
+ * <p>
+ * Every match gets its own seed derived from the tournament seed and its number, so a
+ * tournament gives the same results however its matches are scheduled.
+ * <p>
+ * Usage: {@code TournamentRunner [matches per pairing] [threads] [seed]}
+ */
+public class TournamentRunner
+{
+    private static final int LEAF_MATCHES = 32; // Matches a task plays itself instead of splitting.
+    private static final double Z_95 = 1.96; // Normal quantile for 95% confidence intervals.
+
+    /**
+     * Sums over a range of matches. Each task fills its own tally, and tallies are merged
+     * as tasks complete, so matches never contend on shared counters.
+     */
+    static final class Tally
+    {
+        final int characters;
+        final long[] matches; // Matches played, per character.
+        final long[] wins; // Matches won on health or by knockout.
+        final long[] knockouts; // Wins by reducing the opponent to zero health.
+        final double[] ttkSum; // Seconds to knock out the opponent, summed over knockouts.
+        final double[] ttkSquares; // Squares of the same, for the confidence interval.
+        final double[][] damageSum; // Health damage dealt per match, per source.
+        final double[][] damageSquares;
+        final long[] abilityUses; // Special abilities used.
+        final long[][] matchupWins; // Wins of the row character against the column character.
+        final long[][] matchupMatches;
+        long ticks = 0; // Ticks simulated in total.
+
+        Tally(int characters)
+        {
+            this.characters = characters;
+            matches = new long[characters];
+            wins = new long[characters];
+            knockouts = new long[characters];
+            ttkSum = new double[characters];
+            ttkSquares = new double[characters];
+            damageSum = new double[characters][MatchStats.SOURCE_COUNT];
+            damageSquares = new double[characters][MatchStats.SOURCE_COUNT];
+            abilityUses = new long[characters];
+            matchupWins = new long[characters][characters];
+            matchupMatches = new long[characters][characters];
+        }
+
+        // Adds one finished match.
+        void add(MatchSimulation match, int[] picks)
+        {
+            ticks += match.getTickCount();
+            MatchStats stats = match.getStats();
+            for (int player = 0; player < 2; player++)
+            {
+                int self = picks[player];
+                int other = picks[1 - player];
+                Fighter fighter = match.getFighter(player);
+                Fighter opponent = match.getFighter(1 - player);
+
+                matches[self]++;
+                matchupMatches[self][other]++;
+                if (fighter.getHealth() > opponent.getHealth())
+                {
+                    wins[self]++;
+                    matchupWins[self][other]++;
+                    if (opponent.getHealth() <= 0)
+                    {
+                        double seconds = (double) match.getTickCount() / match.getTickRate();
+                        knockouts[self]++;
+                        ttkSum[self] += seconds;
+                        ttkSquares[self] += seconds * seconds;
+                    }
+                }
+                for (int source = 0; source < MatchStats.SOURCE_COUNT; source++)
+                {
+                    double damage = stats.getDamage(player, source);
+                    damageSum[self][source] += damage;
+                    damageSquares[self][source] += damage * damage;
+                }
+                abilityUses[self] += stats.getAbilityUses(player);
+            }
+        }
+
+        // Adds another tally's counts to this one.
+        void merge(Tally other)
+        {
+            ticks += other.ticks;
+            for (int c = 0; c < characters; c++)
+            {
+                matches[c] += other.matches[c];
+                wins[c] += other.wins[c];
+                knockouts[c] += other.knockouts[c];
+                ttkSum[c] += other.ttkSum[c];
+                ttkSquares[c] += other.ttkSquares[c];
+                abilityUses[c] += other.abilityUses[c];
+                for (int source = 0; source < MatchStats.SOURCE_COUNT; source++)
+                {
+                    damageSum[c][source] += other.damageSum[c][source];
+                    damageSquares[c][source] += other.damageSquares[c][source];
+                }
+                for (int d = 0; d < characters; d++)
+                {
+                    matchupWins[c][d] += other.matchupWins[c][d];
+                    matchupMatches[c][d] += other.matchupMatches[c][d];
+                }
+            }
+        }
+    }
+
+    // Plays matches [from, to) of the tournament, splitting the range across the pool.
+    private static final class MatchTask extends RecursiveTask<Tally>
+    {
+        private static final long serialVersionUID = 1L; // ForkJoinTask is Serializable; tasks are never serialized.
+
+        private final int[][] pairings;
+        private final int matchesPerPairing;
+        private final long seed;
+        private final int characters;
+        private final int from;
+        private final int to;
+
+        MatchTask(int[][] pairings, int matchesPerPairing, long seed, int characters, int from, int to)
+        {
+            this.pairings = pairings;
+            this.matchesPerPairing = matchesPerPairing;
+            this.seed = seed;
+            this.characters = characters;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Tally compute()
+        {
+            if (to - from > LEAF_MATCHES)
+            {
+                int middle = (from + to) >>> 1;
+                MatchTask left = new MatchTask(pairings, matchesPerPairing, seed, characters, from, middle);
+                MatchTask right = new MatchTask(pairings, matchesPerPairing, seed, characters, middle, to);
+                left.fork();
+                Tally tally = right.compute();
+                tally.merge(left.join());
+                return tally;
+            }
+
+            Tally tally = new Tally(characters);
+            int[] picks = new int[2];
+            for (int number = from; number < to; number++)
+            {
+                int[] pairing = pairings[number / matchesPerPairing];
+                boolean swap = (number % matchesPerPairing) % 2 == 1; // Alternate sides within a pairing.
+                picks[0] = swap ? pairing[1] : pairing[0];
+                picks[1] = swap ? pairing[0] : pairing[1];
+                long matchSeed = new MatchRandom(seed + number).nextLong();
+                tally.add(playMatch(picks[0], picks[1], matchSeed), picks);
+            }
+            return tally;
+        }
+    }
+
+    /**
+     * Plays one quiet bot match between two roster characters to the end.
+     *
+     * @param pick1 Player 1's roster index.
+     * @param pick2 Player 2's roster index.
+     * @param seed  The match seed; the bots derive their own seed from it.
+     * @return The finished match.
+     */
+    public static MatchSimulation playMatch(int pick1, int pick2, long seed)
+    {
+        Fighter player1 = CharacterRoster.createFighter(pick1, MatchSimulation.PLAYER1_START_X, MatchSimulation.START_Y);
+        Fighter player2 = CharacterRoster.createFighter(pick2, MatchSimulation.PLAYER2_START_X, MatchSimulation.START_Y);
+
+        MatchSimulation match = new MatchSimulation(player1, player2, GameConfig.TICK_RATE, seed);
+        match.setVerbose(false);
+        match.setInputSource(new BotController(~seed));
+        while (!match.isOver())
+        {
+            match.tick();
+        }
+        return match;
+    }
+
+    /**
+     * Plays every pairing of roster characters in parallel.
+     *
+     * @param matchesPerPairing Matches per pair of characters, split evenly between sides.
+     * @param threads           Worker threads in the fork-join pool.
+     * @param seed              Tournament seed.
+     * @return The merged counts.
+     */
+    public static Tally run(int matchesPerPairing, int threads, long seed)
+    {
+        int characters = CharacterRoster.size();
+        int[][] pairings = new int[characters * (characters - 1) / 2][];
+        int next = 0;
+        for (int a = 0; a < characters; a++)
+        {
+            for (int b = a + 1; b < characters; b++)
+            {
+                pairings[next++] = new int[] { a, b };
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try
+        {
+            return pool.invoke(new MatchTask(pairings, matchesPerPairing, seed, characters, 0,
+                pairings.length * matchesPerPairing));
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    public static void main(String[] args)
+    {
+        int matchesPerPairing = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+
+        List<CharacterDefinition> roster = CharacterRoster.getArchetypes();
+        int characters = roster.size();
+        int pairingCount = characters * (characters - 1) / 2;
+        System.out.println("Tournament: " + pairingCount + " pairings x " + matchesPerPairing + " matches on "
+            + threads + " threads, seed " + seed + ".");
+
+        long start = System.nanoTime();
+        Tally tally = run(matchesPerPairing, threads, seed);
+        double wallSeconds = (System.nanoTime() - start) / 1e9;
+        double simulatedSeconds = (double) tally.ticks / GameConfig.TICK_RATE;
+        System.out.println(String.format("Simulated %.0f s of play in %.1f s (%.2f million simulated seconds per minute).",
+            simulatedSeconds, wallSeconds, simulatedSeconds / wallSeconds * 60 / 1e6));
+        System.out.println();
+
+        System.out.println(String.format("%-8s %-20s %-20s %-16s %-16s %-16s %s", "Fighter", "Win rate", "Time to kill (s)",
+            "Attack dmg", "Special dmg", "Projectile dmg", "Specials"));
+        for (int c = 0; c < characters; c++)
+        {
+            long n = tally.matches[c];
+            double winRate = (double) tally.wins[c] / n;
+            double[] wilson = wilsonInterval(tally.wins[c], n);
+            StringBuilder line = new StringBuilder(String.format("%-8s %5.1f%% [%4.1f-%4.1f]  %-20s",
+                roster.get(c).getName(), 100 * winRate, 100 * wilson[0], 100 * wilson[1],
+                meanWithInterval(tally.ttkSum[c], tally.ttkSquares[c], tally.knockouts[c])));
+            for (int source = 0; source < MatchStats.SOURCE_COUNT; source++)
+            {
+                line.append(String.format(" %-16s", meanWithInterval(tally.damageSum[c][source],
+                    tally.damageSquares[c][source], n)));
+            }
+            line.append(String.format(" %.2f/match", (double) tally.abilityUses[c] / n));
+            System.out.println(line);
+        }
+        System.out.println("Damage is health lost by the opponent per match; special damage is from attacks boosted by a special ability.");
+        System.out.println();
+
+        // Matchup table: how often the row character beats the column character.
+        StringBuilder header = new StringBuilder(String.format("%-8s", "Win %"));
+        for (int d = 0; d < characters; d++)
+        {
+            header.append(String.format(" %7s", roster.get(d).getName()));
+        }
+        System.out.println(header);
+        for (int c = 0; c < characters; c++)
+        {
+            StringBuilder row = new StringBuilder(String.format("%-8s", roster.get(c).getName()));
+            for (int d = 0; d < characters; d++)
+            {
+                long n = tally.matchupMatches[c][d];
+                row.append(n == 0 ? String.format(" %7s", "-") : String.format(" %6.1f%%", 100.0 * tally.matchupWins[c][d] / n));
+            }
+            System.out.println(row);
+        }
+    }
+
+    // Wilson score interval for a proportion; better behaved than the normal one near 0% and 100%.
+    private static double[] wilsonInterval(long successes, long trials)
+    {
+        if (trials == 0)
+        {
+            return new double[] { 0, 0 };
+        }
+        double p = (double) successes / trials;
+        double z2 = Z_95 * Z_95;
+        double center = (p + z2 / (2 * trials)) / (1 + z2 / trials);
+        double margin = Z_95 * Math.sqrt(p * (1 - p) / trials + z2 / (4.0 * trials * trials)) / (1 + z2 / trials);
+        return new double[] { center - margin, center + margin };
+    }
+
+    // Formats a sample mean with its 95% confidence half-width, e.g. "42.1 +/- 0.8".
+    private static String meanWithInterval(double sum, double squares, long n)
+    {
+        if (n == 0)
+        {
+            return "-";
+        }
+        double mean = sum / n;
+        double variance = n > 1 ? Math.max(0, (squares - n * mean * mean) / (n - 1)) : 0;
+        return String.format("%.1f +/- %.1f", mean, Z_95 * Math.sqrt(variance / n));
+    }
+}
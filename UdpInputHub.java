@@ -0,0 +1,462 @@
+package FightingGame;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer; // Receive buffer and the held-back packets of the network shim.
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector; // One thread reads the socket for every match.
+import java.util.concurrent.atomic.AtomicReferenceArray; // Endpoints are opened on game threads and read on the hub thread.
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * One UDP socket carrying the inputs of many online matches, each side of each match being
+ * a {@link UdpInputTransport} opened here. A single selector thread reads every packet and
+ * hands it to the endpoint its match id names; endpoints send from the thread running their
+ * match. Packet layout, big-endian:
+ * <pre>
+ *   match id                      int
+ *   ack                           int, every input up to this tick arrived
+ *   first tick                    int
+ *   count                         byte, at most {@value #MAX_INPUTS_PER_PACKET}
+ *   inputs                        count bytes, the PlayerInput bits of each tick from the first
+ * </pre>
+ * For testing on one machine, {@link #simulateNetwork} makes the hub drop and delay the
+ * packets it receives; held-back packets wait in a fixed pool of buffers, so the shim does
+ * not allocate either.
+ * <p>
+ * Run on its own, the hub is a localhost test: two hubs, each playing one side of a number
+ * of bot matches in real time through its shim, after which both copies of every match
+ * must agree.
+ * <p>
+ * Usage: {@code UdpInputHub [matches] [seconds] [latency ms] [jitter ms] [loss %]}
+ */
+public class UdpInputHub implements AutoCloseable
+{
+    public static final int MAX_INPUTS_PER_PACKET = 32; // Unacknowledged ticks repeated in every packet (about half a second).
+    static final int HEADER_BYTES = 13; // Match id, ack, first tick and count.
+    static final int MAX_PACKET_BYTES = HEADER_BYTES + MAX_INPUTS_PER_PACKET;
+    private static final int HELD_PACKETS = 2048; // Packets the shim can delay at once; more are dropped.
+
+    /**
+     * Loss and delay applied to received packets, as {@link LoopbackTransport} does to sent ones.
+     */
+    private static final class Impairment
+    {
+        final long latencyNanos;
+        final long jitterNanos;
+        final double lossRate;
+        final MatchRandom random; // Used only by the hub thread.
+
+        Impairment(int latencyMs, int jitterMs, double lossRate, long seed)
+        {
+            this.latencyNanos = latencyMs * 1_000_000L;
+            this.jitterNanos = jitterMs * 1_000_000L;
+            this.lossRate = lossRate;
+            this.random = new MatchRandom(seed);
+        }
+    }
+
+    private final DatagramChannel channel;
+    private final Selector selector;
+    private final AtomicReferenceArray<UdpInputTransport> endpoints; // By match id.
+    private final Thread thread;
+    private volatile boolean running = true;
+    private volatile Impairment impairment = null; // Null for none.
+
+    // Hub thread only.
+    private final ByteBuffer receiveBuffer = ByteBuffer.allocateDirect(2 * MAX_PACKET_BYTES); // Room to notice oversized packets.
+    private final ByteBuffer held = ByteBuffer.allocateDirect(HELD_PACKETS * MAX_PACKET_BYTES); // One slot per held packet.
+    private final long[] heldUntil = new long[HELD_PACKETS]; // When each slot's packet arrives; 0 if the slot is free.
+    private final int[] heldLength = new int[HELD_PACKETS];
+    private int heldCount = 0;
+    private int nextFreeSlot = 0; // Where the search for a free slot starts.
+
+    private volatile long packetsReceived = 0; // Written only by the hub thread.
+    private volatile long packetsDropped = 0; // Lost by the shim, or more than it could hold.
+    private volatile long packetsRejected = 0; // Malformed or for a match that is not open.
+
+    /**
+     * Opens the socket and starts reading it.
+     *
+     * @param address    Where to bind, e.g. 127.0.0.1 and port 0 for any free port.
+     * @param maxMatches Match ids run from 0 to maxMatches - 1.
+     * @throws IOException If the socket cannot be opened.
+     */
+    public UdpInputHub(InetSocketAddress address, int maxMatches) throws IOException
+    {
+        this.endpoints = new AtomicReferenceArray<>(maxMatches);
+        this.selector = Selector.open();
+        this.channel = DatagramChannel.open();
+        channel.bind(address);
+        channel.configureBlocking(false);
+        channel.register(selector, SelectionKey.OP_READ);
+        this.thread = new Thread(this::serve, "udp-input-hub");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Opens this side of a match.
+     *
+     * @param matchId The match, which must use the same id on the peer's hub.
+     * @param remote  The peer's hub.
+     * @return The endpoint to give the match's {@link RollbackSession}.
+     * @throws IllegalStateException If the match is already open here.
+     */
+    public UdpInputTransport open(int matchId, InetSocketAddress remote)
+    {
+        UdpInputTransport endpoint = new UdpInputTransport(this, matchId, remote);
+        if (!endpoints.compareAndSet(matchId, null, endpoint))
+        {
+            throw new IllegalStateException("Match " + matchId + " is already open.");
+        }
+        return endpoint;
+    }
+
+    /**
+     * Drops and delays the packets this hub receives from now on, as if they had crossed a
+     * real network. Each packet is lost with the given chance, or else arrives after the
+     * latency plus a random part of the jitter, so jitter also reorders packets.
+     *
+     * @param latencyMs One-way latency.
+     * @param jitterMs  Maximum extra random delay.
+     * @param lossRate  Chance that a packet is lost.
+     * @param seed      Seed of the shim's randomness.
+     */
+    public void simulateNetwork(int latencyMs, int jitterMs, double lossRate, long seed)
+    {
+        impairment = new Impairment(latencyMs, jitterMs, lossRate, seed);
+        selector.wakeup();
+    }
+
+    /**
+     * Returns the address the socket is bound to.
+     *
+     * @throws IOException If the socket is closed.
+     */
+    public InetSocketAddress getAddress() throws IOException
+    {
+        return (InetSocketAddress) channel.getLocalAddress();
+    }
+
+    public long getPacketsReceived()
+    {
+        return packetsReceived;
+    }
+
+    public long getPacketsDropped()
+    {
+        return packetsDropped;
+    }
+
+    public long getPacketsRejected()
+    {
+        return packetsRejected;
+    }
+
+    /**
+     * Stops reading and closes the socket; open endpoints send nothing more.
+     */
+    @Override
+    public void close()
+    {
+        running = false;
+        selector.wakeup();
+        try
+        {
+            thread.join();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Sends one packet; false if the socket had no room for it or is closed.
+    boolean send(ByteBuffer packet, SocketAddress remote)
+    {
+        try
+        {
+            return channel.send(packet, remote) > 0;
+        }
+        catch (IOException e)
+        {
+            return false;
+        }
+    }
+
+    void release(int matchId, UdpInputTransport endpoint)
+    {
+        endpoints.compareAndSet(matchId, endpoint, null);
+    }
+
+    // The hub thread: reads every packet, holds some back if the shim says so, and hands them to their endpoints.
+    private void serve()
+    {
+        try
+        {
+            while (running)
+            {
+                if (heldCount > 0)
+                {
+                    long wait = nextHeldArrival() - System.nanoTime();
+                    if (wait > 0)
+                    {
+                        selector.select(Math.max(1, wait / 1_000_000));
+                    }
+                    else
+                    {
+                        selector.selectNow();
+                    }
+                }
+                else
+                {
+                    selector.select();
+                }
+                selector.selectedKeys().clear();
+                receiveAll();
+                releaseHeld(System.nanoTime());
+            }
+        }
+        catch (IOException e)
+        {
+            System.err.println("UDP input hub stopped: " + e.getMessage());
+        }
+        finally
+        {
+            try
+            {
+                selector.close();
+                channel.close();
+            }
+            catch (IOException e)
+            {
+                // Already shutting down.
+            }
+        }
+    }
+
+    private void receiveAll() throws IOException
+    {
+        long received = 0;
+        while (true)
+        {
+            receiveBuffer.clear();
+            if (channel.receive(receiveBuffer) == null)
+            {
+                break;
+            }
+            receiveBuffer.flip();
+            received++;
+
+            Impairment shim = impairment;
+            if (shim == null)
+            {
+                deliver(receiveBuffer);
+            }
+            else if (shim.random.nextDouble() < shim.lossRate)
+            {
+                packetsDropped++;
+            }
+            else
+            {
+                long delay = shim.latencyNanos + (long) (shim.random.nextDouble() * shim.jitterNanos);
+                if (delay == 0)
+                {
+                    deliver(receiveBuffer);
+                }
+                else
+                {
+                    hold(receiveBuffer, System.nanoTime() + delay);
+                }
+            }
+        }
+        packetsReceived += received;
+    }
+
+    private void deliver(ByteBuffer packet)
+    {
+        if (packet.remaining() > MAX_PACKET_BYTES || packet.remaining() < Integer.BYTES)
+        {
+            packetsRejected++;
+            return;
+        }
+        int matchId = packet.getInt();
+        UdpInputTransport endpoint = matchId >= 0 && matchId < endpoints.length() ? endpoints.get(matchId) : null;
+        if (endpoint == null || !endpoint.receive(packet))
+        {
+            packetsRejected++;
+        }
+    }
+
+    // Copies a packet into a free slot until it is due.
+    private void hold(ByteBuffer packet, long arrival)
+    {
+        if (heldCount == HELD_PACKETS || packet.remaining() > MAX_PACKET_BYTES)
+        {
+            packetsDropped++;
+            return;
+        }
+        int slot = nextFreeSlot;
+        while (heldUntil[slot] != 0)
+        {
+            slot = (slot + 1) % HELD_PACKETS;
+        }
+        nextFreeSlot = (slot + 1) % HELD_PACKETS;
+        heldUntil[slot] = arrival;
+        heldLength[slot] = packet.remaining();
+        held.clear().position(slot * MAX_PACKET_BYTES);
+        held.put(packet);
+        heldCount++;
+    }
+
+    private void releaseHeld(long now)
+    {
+        for (int slot = 0; slot < HELD_PACKETS && heldCount > 0; slot++)
+        {
+            if (heldUntil[slot] != 0 && heldUntil[slot] <= now)
+            {
+                held.limit(slot * MAX_PACKET_BYTES + heldLength[slot]).position(slot * MAX_PACKET_BYTES);
+                deliver(held);
+                heldUntil[slot] = 0;
+                heldCount--;
+            }
+        }
+    }
+
+    private long nextHeldArrival()
+    {
+        long next = Long.MAX_VALUE;
+        for (int slot = 0; slot < HELD_PACKETS; slot++)
+        {
+            if (heldUntil[slot] != 0)
+            {
+                next = Math.min(next, heldUntil[slot]);
+            }
+        }
+        return next;
+    }
+
+    public static void main(String[] args) throws Exception
+    {
+        int matches = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int latencyMs = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+        int jitterMs = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+        double lossRate = args.length > 4 ? Double.parseDouble(args[4]) / 100 : 0.05;
+
+        InetSocketAddress localhost = new InetSocketAddress("127.0.0.1", 0);
+        try (UdpInputHub hub1 = new UdpInputHub(localhost, matches);
+             UdpInputHub hub2 = new UdpInputHub(localhost, matches))
+        {
+            hub1.simulateNetwork(latencyMs, jitterMs, lossRate, 1);
+            hub2.simulateNetwork(latencyMs, jitterMs, lossRate, 2);
+            System.out.println(String.format("UDP input test: %d matches for %d s over 127.0.0.1:%d <-> :%d, %d ms latency, %d ms jitter, %.1f%% loss.",
+                matches, seconds, hub1.getAddress().getPort(), hub2.getAddress().getPort(), latencyMs, jitterMs, lossRate * 100));
+
+            // Each match is played by a session on either hub; side 0 is player 1 on hub 1.
+            RollbackStats stats = new RollbackStats(RollbackSession.MAX_PREDICTION);
+            int characters = CharacterRoster.size();
+            RollbackSession[][] peers = new RollbackSession[matches][2];
+            BotController[][] bots = new BotController[matches][2];
+            UdpInputTransport[][] transports = new UdpInputTransport[matches][2];
+            for (int m = 0; m < matches; m++)
+            {
+                MatchRandom picks = new MatchRandom(m + 1);
+                int pick1 = (int) (picks.nextDouble() * characters);
+                int pick2 = (int) (picks.nextDouble() * characters);
+                long seed = picks.nextLong();
+                transports[m][0] = hub1.open(m, hub2.getAddress());
+                transports[m][1] = hub2.open(m, hub1.getAddress());
+                for (int side = 0; side < 2; side++)
+                {
+                    MatchSimulation match = new MatchSimulation(
+                        CharacterRoster.createFighter(pick1, MatchSimulation.PLAYER1_START_X, MatchSimulation.START_Y),
+                        CharacterRoster.createFighter(pick2, MatchSimulation.PLAYER2_START_X, MatchSimulation.START_Y),
+                        GameConfig.TICK_RATE, seed);
+                    match.setVerbose(false);
+                    peers[m][side] = new RollbackSession(match, side, transports[m][side]);
+                    peers[m][side].setStats(stats);
+                    bots[m][side] = new BotController(~seed + side);
+                }
+            }
+
+            // One frame per tick on both machines. A match stops at the last tick of the run,
+            // or when it ends sooner, and is done once both sides have confirmed that tick.
+            long lastTick = (long) seconds * GameConfig.TICK_RATE;
+            long tickNanos = 1_000_000_000L / GameConfig.TICK_RATE;
+            boolean[] done = new boolean[matches];
+            int remaining = matches;
+            long start = System.nanoTime();
+            long deadline = start;
+            long giveUp = start + 3L * seconds * 1_000_000_000L;
+            while (remaining > 0 && System.nanoTime() < giveUp)
+            {
+                deadline += tickNanos;
+                LockSupport.parkNanos(deadline - System.nanoTime());
+                for (int m = 0; m < matches; m++)
+                {
+                    if (done[m])
+                    {
+                        continue;
+                    }
+                    boolean bothDone = true;
+                    for (int side = 0; side < 2; side++)
+                    {
+                        RollbackSession peer = peers[m][side];
+                        MatchSimulation match = peer.getMatch();
+                        if (match.getTickCount() < lastTick)
+                        {
+                            peer.advance(bots[m][side].inputFor(match, side, match.getTickCount() + 1));
+                        }
+                        else
+                        {
+                            peer.synchronize(); // Keep resending the last tick until the peer has it.
+                            transports[m][side].sendInput(lastTick, 0);
+                        }
+                        bothDone &= peer.isFinished() || peer.getConfirmedTick() == lastTick;
+                    }
+                    if (bothDone)
+                    {
+                        done[m] = true;
+                        remaining--;
+                    }
+                }
+            }
+            double elapsed = (System.nanoTime() - start) / 1e9;
+
+            int desyncs = 0;
+            long packetsSent = 0;
+            long inputsSent = 0;
+            long sendFailures = 0;
+            for (int m = 0; m < matches; m++)
+            {
+                MatchSimulation a = peers[m][0].getMatch();
+                MatchSimulation b = peers[m][1].getMatch();
+                if (done[m] && (a.getTickCount() != b.getTickCount() || a.checksum() != b.checksum()))
+                {
+                    desyncs++;
+                    System.out.println("Match " + m + " desynced after " + a.getTickCount() + " ticks.");
+                }
+                for (int side = 0; side < 2; side++)
+                {
+                    packetsSent += transports[m][side].getPacketsSent();
+                    inputsSent += transports[m][side].getInputsSent();
+                    sendFailures += transports[m][side].getSendFailures();
+                    transports[m][side].close();
+                }
+            }
+
+            System.out.println(String.format("%d matches in %.1f s: %d desynced, %d unfinished.",
+                matches, elapsed, desyncs, remaining));
+            long received = hub1.getPacketsReceived() + hub2.getPacketsReceived();
+            long dropped = hub1.getPacketsDropped() + hub2.getPacketsDropped();
+            System.out.println(String.format("Packets: %,d sent (%,d failed), %,d received, %,d dropped by the shim, %d rejected; %.1f inputs per packet.",
+                packetsSent, sendFailures, received, dropped, hub1.getPacketsRejected() + hub2.getPacketsRejected(),
+                packetsSent == 0 ? 0.0 : (double) inputsSent / packetsSent));
+            System.out.println(stats.report());
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package FightingGame;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer; // Reused send buffer; received packets are read straight from the hub's buffer.
+
+/**
+ * {@link InputTransport} over UDP: one side of one online match, sharing the socket and the
+ * selector thread of a {@link UdpInputHub} with every other match the hub serves.
+ * <p>
+ * Every packet carries the inputs of up to {@link UdpInputHub#MAX_INPUTS_PER_PACKET} ticks,
+ * from the first tick the peer has not acknowledged to the latest, one byte per tick (the
+ * PlayerInput bits), so a lost packet is covered by the next one without waiting for a
+ * resend. Acknowledgements are cumulative and ride on the input packets going the other
+ * way, so one packet acknowledges everything received so far and none are sent on their own.
+ * <p>
+ * Packets are encoded into a direct buffer owned by the endpoint and decoded straight out of
+ * the hub's receive buffer, so sending and receiving never allocate. {@link #sendInput} and
+ * {@link #poll} are called by the thread running the match; the hub thread delivers packets
+ * under the endpoint's lock.
+ */
+public class UdpInputTransport implements InputTransport
+{
+    private static final int HISTORY = 256; // Ticks of sent and received input kept; a power of two.
+    private static final int MAX_UNPOLLED = HISTORY / 2; // Received inputs waiting for poll(); more are refused (and resent later).
+
+    private final UdpInputHub hub;
+    private final int matchId; // Identifies the match in every packet, on both sides.
+    private final InetSocketAddress remote; // The peer's hub.
+    private final ByteBuffer sendBuffer = ByteBuffer.allocateDirect(UdpInputHub.MAX_PACKET_BYTES);
+    private volatile boolean closed = false;
+
+    // Sending side; used only by the match's thread.
+    private final long[] sent = new long[HISTORY]; // Local inputs by tick.
+    private long lastSentTick = 0; // Highest tick passed to sendInput.
+    private long packetsSent = 0;
+    private long inputsSent = 0; // Inputs carried, counting every repeat.
+    private long sendFailures = 0; // Packets the socket had no room for; the next packet repeats them.
+
+    // Receiving side; guarded by this.
+    private long peerAck = 0; // The peer has every local input up to this tick.
+    private final long[] received = new long[HISTORY]; // Remote inputs by tick.
+    private final long[] receivedTicks = new long[HISTORY]; // Tick stored in each slot, to tell new inputs from old.
+    private long receivedThrough = 0; // Every remote input up to this tick has arrived.
+    private final long[] unpolled = new long[MAX_UNPOLLED]; // Ticks received since the last poll, in arrival order.
+    private int unpolledHead = 0;
+    private int unpolledCount = 0;
+
+    static
+    {
+        // Packets carry each tick's input as one byte (see UdpInputHub); more actions need a wider encoding on both peers.
+        if (PlayerInput.ACTION_COUNT > Byte.SIZE)
+        {
+            throw new IllegalStateException("UDP input packets hold " + Byte.SIZE + " action bits, not " + PlayerInput.ACTION_COUNT + ".");
+        }
+    }
+
+    UdpInputTransport(UdpInputHub hub, int matchId, InetSocketAddress remote)
+    {
+        this.hub = hub;
+        this.matchId = matchId;
+        this.remote = remote;
+        for (int i = 0; i < HISTORY; i++)
+        {
+            receivedTicks[i] = -1;
+        }
+    }
+
+    @Override
+    public void sendInput(long tick, long input)
+    {
+        if (closed)
+        {
+            return;
+        }
+        if (tick > lastSentTick)
+        {
+            sent[(int) (tick & (HISTORY - 1))] = input;
+            lastSentTick = tick;
+        }
+
+        long ack;
+        long first;
+        synchronized (this)
+        {
+            ack = receivedThrough;
+            first = Math.max(peerAck + 1, lastSentTick - UdpInputHub.MAX_INPUTS_PER_PACKET + 1);
+        }
+        int count = (int) Math.max(0, lastSentTick - first + 1);
+
+        sendBuffer.clear();
+        sendBuffer.putInt(matchId);
+        sendBuffer.putInt((int) ack);
+        sendBuffer.putInt((int) first);
+        sendBuffer.put((byte) count);
+        for (int i = 0; i < count; i++)
+        {
+            sendBuffer.put((byte) sent[(int) ((first + i) & (HISTORY - 1))]); // Every PlayerInput bit; see the check above.
+        }
+        sendBuffer.flip();
+
+        packetsSent++;
+        inputsSent += count;
+        if (!hub.send(sendBuffer, remote))
+        {
+            sendFailures++;
+        }
+    }
+
+    @Override
+    public int poll(Receiver receiver)
+    {
+        synchronized (this)
+        {
+            int delivered = unpolledCount;
+            for (int i = 0; i < delivered; i++)
+            {
+                long tick = unpolled[(unpolledHead + i) % MAX_UNPOLLED];
+                receiver.remoteInput(tick, received[(int) (tick & (HISTORY - 1))]);
+            }
+            unpolledHead = (unpolledHead + delivered) % MAX_UNPOLLED;
+            unpolledCount = 0;
+            return delivered;
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        closed = true;
+        hub.release(matchId, this);
+    }
+
+    /**
+     * Takes in a packet for this match. Called on the hub thread.
+     *
+     * @param packet Positioned after the match id.
+     * @return False if the packet is malformed.
+     */
+    boolean receive(ByteBuffer packet)
+    {
+        if (packet.remaining() < UdpInputHub.HEADER_BYTES - Integer.BYTES)
+        {
+            return false;
+        }
+        long ack = packet.getInt();
+        long first = packet.getInt();
+        int count = packet.get() & 0xFF;
+        if (packet.remaining() < count)
+        {
+            return false;
+        }
+        synchronized (this)
+        {
+            peerAck = Math.max(peerAck, ack);
+            for (int i = 0; i < count; i++)
+            {
+                long tick = first + i;
+                long input = packet.get() & 0xFF;
+                int slot = (int) (tick & (HISTORY - 1));
+                if (tick <= receivedThrough || receivedTicks[slot] == tick)
+                {
+                    continue; // Already received.
+                }
+                if (tick > receivedThrough + MAX_UNPOLLED || unpolledCount == MAX_UNPOLLED)
+                {
+                    continue; // Too far ahead to keep; not acknowledged, so the peer sends it again.
+                }
+                received[slot] = input;
+                receivedTicks[slot] = tick;
+                unpolled[(unpolledHead + unpolledCount++) % MAX_UNPOLLED] = tick;
+            }
+            while (receivedTicks[(int) ((receivedThrough + 1) & (HISTORY - 1))] == receivedThrough + 1)
+            {
+                receivedThrough++;
+            }
+        }
+        return true;
+    }
+
+    public int getMatchId()
+    {
+        return matchId;
+    }
+
+    public long getPacketsSent()
+    {
+        return packetsSent;
+    }
+
+    /**
+     * Returns how many inputs the sent packets carried, counting every repeat; divided by
+     * the packets sent it gives the redundancy actually used.
+     */
+    public long getInputsSent()
+    {
+        return inputsSent;
+    }
+
+    public long getSendFailures()
+    {
+        return sendFailures;
+    }
+}
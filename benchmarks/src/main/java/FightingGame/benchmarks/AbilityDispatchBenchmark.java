@@ -0,0 +1,59 @@
+package FightingGame.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import FightingGame.AbilityManager;
+import FightingGame.Fighter;
+import FightingGame.MatchSimulation;
+
+/**
+ * Cost of using a special ability: dispatching over the effects listed in its definition
+ * and scheduling their timed ends. One ability per data-file id in abilities.properties,
+ * from a single flat bonus to abilities with several effects, a teleport or a heal over
+ * time. The scheduled effects are cancelled after every use so the queue never fills.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AbilityDispatchBenchmark
+{
+    @Param({ "blazing_punch", "flame_rush", "electric_burst", "shadow_step", "natures_embrace", "shadow_strike", "earthquake" })
+    public String ability;
+
+    private MatchSimulation match;
+    private Fighter user;
+    private Fighter opponent;
+
+    @Setup
+    public void newMatch()
+    {
+        user = new Fighter("Bench 1", 100, 10, 5, ability, 100, 200);
+        opponent = new Fighter("Bench 2", 100, 10, 5, "Heal", 450, 200);
+        match = new MatchSimulation(user, opponent, 60, 42);
+        match.setVerbose(false);
+    }
+
+    @Benchmark
+    public int executeAbility()
+    {
+        AbilityManager.executeAbility(user, opponent);
+        int scheduled = match.getEffects().size();
+        match.getEffects().cancelAll();
+        return scheduled;
+    }
+}
@@ -0,0 +1,35 @@
+package FightingGame.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType; // Machine-readable result formats.
+import org.openjdk.jmh.runner.Runner; // Runs the selected benchmarks.
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions; // Parses the standard JMH arguments.
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of benchmarks.jar.
+ * Accepts the usual JMH arguments (e.g. a benchmark name pattern, -f, -wi, -i) and writes the
+ * results as JSON to target/jmh-result.json unless -rf or -rff say otherwise, so runs can be
+ * compared by scripts.
+ */
+public class BenchmarkRunner
+{
+    private static final String DEFAULT_RESULT_FILE = "target/jmh-result.json";
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException
+    {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+        if (!commandLine.getResultFormat().hasValue())
+        {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getResult().hasValue())
+        {
+            options.result(DEFAULT_RESULT_FILE);
+        }
+        new Runner(options.build()).run();
+    }
+}
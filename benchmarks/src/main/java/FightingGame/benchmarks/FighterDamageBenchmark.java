@@ -0,0 +1,73 @@
+package FightingGame.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import FightingGame.Fighter;
+import FightingGame.MatchSimulation;
+
+/**
+ * Cost of the damage path of an attack: rolling the damage on the match's generator, and
+ * applying it to a fighter without a shield. The defender has so much health that it is
+ * topped up only once every few thousand hits.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FighterDamageBenchmark
+{
+    private static final int DEFENDER_HEALTH = 1_000_000;
+
+    private Fighter attacker;
+    private Fighter defender;
+
+    @Setup
+    public void newMatch()
+    {
+        attacker = new Fighter("Bench 1", 100, 30, 5, "Heal", 100, 200);
+        defender = new Fighter("Bench 2", DEFENDER_HEALTH, 10, 5, "Heal", 450, 200);
+        MatchSimulation match = new MatchSimulation(attacker, defender, 60, 42);
+        match.setVerbose(false);
+    }
+
+    @Benchmark
+    public int calculateDamage()
+    {
+        return attacker.calculateDamage();
+    }
+
+    @Benchmark
+    public double takeDamage()
+    {
+        double lost = defender.takeDamage(18);
+        if (defender.getHealth() < DEFENDER_HEALTH / 2)
+        {
+            defender.setHealth(DEFENDER_HEALTH);
+        }
+        return lost;
+    }
+
+    @Benchmark
+    public double attackAndTakeDamage()
+    {
+        double lost = defender.takeDamage(attacker.calculateDamage());
+        if (defender.getHealth() < DEFENDER_HEALTH / 2)
+        {
+            defender.setHealth(DEFENDER_HEALTH);
+        }
+        return lost;
+    }
+}
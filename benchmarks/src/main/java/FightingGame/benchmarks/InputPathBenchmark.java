@@ -0,0 +1,68 @@
+package FightingGame.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import FightingGame.InputRingBuffer;
+import FightingGame.LatencyHistogram;
+import FightingGame.PlayerInput;
+
+/**
+ * Per-event overhead of the input path: queueing a key event, draining it on the tick
+ * and recording its latency. Runs on one thread, so it measures the work itself rather
+ * than cross-thread handoff.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InputPathBenchmark
+{
+    private static final int EVENTS_PER_TICK = 4; // A busy tick: both players pressing and releasing.
+
+    private InputRingBuffer queue;
+    private LatencyHistogram histogram;
+    private Blackhole blackhole;
+    private final InputRingBuffer.Handler consume = (player, actions, pressed, timestampNanos) ->
+        blackhole.consume(actions);
+    private long clock = 0; // Fake nanosecond timestamps, so System.nanoTime() is not measured.
+
+    @Setup
+    public void create(Blackhole blackhole)
+    {
+        this.blackhole = blackhole;
+        queue = new InputRingBuffer(256);
+        histogram = new LatencyHistogram();
+    }
+
+    @Benchmark
+    public int offerAndDrain()
+    {
+        for (int i = 0; i < EVENTS_PER_TICK; i++)
+        {
+            queue.offer(i & 1, PlayerInput.ATTACK, (i & 2) == 0, clock++);
+        }
+        return queue.drain(consume);
+    }
+
+    @Benchmark
+    public long recordLatency()
+    {
+        clock += 7919; // Walks the recorded values through many buckets.
+        histogram.record(clock & 0xFFFFFFL);
+        return histogram.getCount();
+    }
+}
@@ -0,0 +1,72 @@
+package FightingGame.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import FightingGame.Fighter;
+import FightingGame.MatchSimulation;
+import FightingGame.MatchSnapshot;
+
+/**
+ * Cost of saving and restoring a whole match, as rollback does every tick and training
+ * mode does on every reset. The match is mid-fight: every projectile slot is taken and
+ * both fighters have effects pending, so the copy covers a realistic amount of state.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatchSnapshotBenchmark
+{
+    private MatchSimulation match;
+    private MatchSnapshot snapshot;
+
+    @Setup(Level.Trial)
+    public void busyMatch()
+    {
+        Fighter player1 = new Fighter("Bench 1", 100, 10, 5, "Heal", 100, 200);
+        Fighter player2 = new Fighter("Bench 2", 100, 10, 5, "Heal", 450, 200);
+        match = new MatchSimulation(player1, player2, 60, 42);
+        match.setVerbose(false);
+        for (int i = 0; i < 6; i++)
+        {
+            match.launchProjectile(0, 250, 100 + i * 5, 250, 350, 10, 3);
+            match.launchProjectile(1, 260, 350 - i * 5, 260, 100, 10, 3);
+        }
+        player1.boostAttackPower(5, 6000);
+        player2.multiplyMovementSpeed(1.2, 4000);
+        player1.healAfter(4, 1000);
+        player2.healAfter(4, 2000);
+        match.tick();
+
+        snapshot = new MatchSnapshot(match);
+        match.saveState(snapshot);
+    }
+
+    @Benchmark
+    public int save()
+    {
+        match.saveState(snapshot);
+        return snapshot.getLength();
+    }
+
+    @Benchmark
+    public long restore()
+    {
+        match.restoreState(snapshot);
+        return match.getTickCount();
+    }
+}
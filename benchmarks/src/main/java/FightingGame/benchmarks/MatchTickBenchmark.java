@@ -0,0 +1,72 @@
+package FightingGame.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import FightingGame.Fighter;
+import FightingGame.MatchSimulation;
+import FightingGame.PlayerInput;
+
+/**
+ * Cost of one simulation tick of a busy match: both fighters moving every tick and a full
+ * load of projectiles clashing in the gap between them. Nobody is hit, so the match runs
+ * to its time limit without console output; a finished match is replaced by a new one.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatchTickBenchmark
+{
+    private static final double LANE_X = 250; // Projectiles fly up and down here, between the fighters.
+
+    private MatchSimulation match;
+
+    @Setup(Level.Iteration)
+    public void newMatch()
+    {
+        Fighter player1 = new Fighter("Bench 1", 100, 10, 5, "Heal", 100, 200);
+        Fighter player2 = new Fighter("Bench 2", 100, 10, 5, "Heal", 450, 200);
+        match = new MatchSimulation(player1, player2);
+    }
+
+    @Benchmark
+    public long tick()
+    {
+        if (match.isOver())
+        {
+            newMatch();
+        }
+
+        // Walk up and down, turning around every second.
+        long direction = (match.getTickCount() / match.getTickRate()) % 2 == 0 ? PlayerInput.UP : PlayerInput.DOWN;
+        match.setInput(0, direction);
+        match.setInput(1, direction ^ (PlayerInput.UP | PlayerInput.DOWN));
+
+        // Keep both fighters' projectile slots full; the two streams meet head on.
+        if (match.getProjectilesRemaining(0) > 0)
+        {
+            match.launchProjectile(0, LANE_X, MatchSimulation.BOUNDARY_TOP, LANE_X, MatchSimulation.BOUNDARY_BOTTOM, 10, 3);
+        }
+        if (match.getProjectilesRemaining(1) > 0)
+        {
+            match.launchProjectile(1, LANE_X, MatchSimulation.BOUNDARY_BOTTOM, LANE_X, MatchSimulation.BOUNDARY_TOP, 10, 3);
+        }
+
+        match.tick();
+        return match.getTickCount();
+    }
+}
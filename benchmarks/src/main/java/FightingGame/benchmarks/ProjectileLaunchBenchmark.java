@@ -0,0 +1,106 @@
+package FightingGame.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import FightingGame.Fighter;
+import FightingGame.MatchSimulation;
+import FightingGame.ProjectileStore;
+
+/**
+ * Cost of launching one projectile: straight into a store of 10 to 10,000 slots, and through
+ * a match, which also checks the owner's limit. A full store or match is emptied and
+ * filled again, so the occasional clear is part of the cost.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProjectileLaunchBenchmark
+{
+    private static final int DIRECTIONS = 64; // A power of two.
+    private static final double LAUNCH_X = 300;
+    private static final double LAUNCH_Y = 225;
+
+    /**
+     * A store of the given size.
+     */
+    @State(Scope.Thread)
+    public static class Store
+    {
+        @Param({ "10", "100", "1000", "10000" })
+        public int projectiles;
+
+        ProjectileStore store;
+        final double[] targetX = new double[DIRECTIONS]; // Aim points around the launch point, so no trigonometry is timed.
+        final double[] targetY = new double[DIRECTIONS];
+        int launches = 0;
+
+        @Setup
+        public void newStore()
+        {
+            store = new ProjectileStore(projectiles, 2);
+            for (int i = 0; i < DIRECTIONS; i++)
+            {
+                double angle = i * 2.399963; // Golden angle, so neighbouring launches fly apart.
+                targetX[i] = LAUNCH_X + Math.cos(angle);
+                targetY[i] = LAUNCH_Y + Math.sin(angle);
+            }
+        }
+    }
+
+    /**
+     * A match, whose store holds both fighters' projectiles.
+     */
+    @State(Scope.Thread)
+    public static class Match
+    {
+        MatchSimulation match;
+        int launches = 0; // Alternates owners and lanes.
+
+        @Setup
+        public void newMatch()
+        {
+            Fighter player1 = new Fighter("Bench 1", 100, 10, 5, "Heal", 100, 200);
+            Fighter player2 = new Fighter("Bench 2", 100, 10, 5, "Heal", 450, 200);
+            match = new MatchSimulation(player1, player2, 60, 42);
+            match.setVerbose(false);
+        }
+    }
+
+    @Benchmark
+    public int storeLaunch(Store state)
+    {
+        ProjectileStore store = state.store;
+        if (store.getCount() == store.getCapacity())
+        {
+            store.clear();
+        }
+        int direction = state.launches++ & (DIRECTIONS - 1);
+        return store.launch(direction & 1, LAUNCH_X, LAUNCH_Y, state.targetX[direction], state.targetY[direction], 10, 2);
+    }
+
+    @Benchmark
+    public boolean matchLaunch(Match state)
+    {
+        int i = state.launches++;
+        if (!state.match.launchProjectile(i & 1, 250, 100 + (i % 12) * 10, 250, 350, 10, 3))
+        {
+            state.match.getProjectiles().clear(); // Both fighters are at their limit.
+            return state.match.launchProjectile(i & 1, 250, 100 + (i % 12) * 10, 250, 350, 10, 3);
+        }
+        return true;
+    }
+}
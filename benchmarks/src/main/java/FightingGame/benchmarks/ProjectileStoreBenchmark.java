@@ -0,0 +1,67 @@
+package FightingGame.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import FightingGame.MatchSimulation;
+import FightingGame.ProjectileStore;
+
+/**
+ * Cost of moving and culling a full projectile store for one tick.
+ * Projectiles that leave the arena are relaunched from the centre, so the store stays full.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProjectileStoreBenchmark
+{
+    private static final double TICK_SECONDS = 1.0 / 60;
+
+    @Param({ "10", "100", "1000", "10000" })
+    public int projectiles;
+
+    private ProjectileStore store;
+    private long launches = 0; // Spreads relaunched projectiles over every direction.
+
+    @Setup
+    public void fill()
+    {
+        store = new ProjectileStore(projectiles, 2);
+        refill();
+    }
+
+    @Benchmark
+    public int integrateAndCull()
+    {
+        store.integrate(TICK_SECONDS);
+        int culled = store.cullOutside(0, 0, MatchSimulation.ARENA_WIDTH, MatchSimulation.ARENA_HEIGHT);
+        refill();
+        return culled;
+    }
+
+    private void refill()
+    {
+        double centerX = MatchSimulation.ARENA_WIDTH / 2.0;
+        double centerY = MatchSimulation.ARENA_HEIGHT / 2.0;
+        while (store.getCount() < store.getCapacity())
+        {
+            double angle = launches++ * 2.399963; // Golden angle, so directions never repeat in step.
+            store.launch((int) (launches & 1), centerX, centerY,
+                centerX + Math.cos(angle), centerY + Math.sin(angle), 10, 2);
+        }
+    }
+}
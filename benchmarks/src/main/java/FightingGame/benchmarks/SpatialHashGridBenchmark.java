@@ -0,0 +1,74 @@
+package FightingGame.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import FightingGame.MatchSimulation;
+import FightingGame.SpatialHashGrid;
+
+/**
+ * Cost of one tick's broadphase: rebuilding the collision grid from scratch and listing
+ * every candidate pair, as MatchSimulation does for its projectiles.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpatialHashGridBenchmark
+{
+    private static final double ITEM_SIZE = 20; // Width and height of each box, about a charged projectile.
+
+    @Param({ "10", "100", "1000", "10000" })
+    public int items;
+
+    @Param({ "32", "64", "128" })
+    public int cellSize;
+
+    private SpatialHashGrid grid;
+    private double[] x; // Left edge of each box.
+    private double[] y; // Top edge of each box.
+    private int pairs; // Candidate pairs found by the last rebuild.
+    private final SpatialHashGrid.PairVisitor countPairs = (a, b) -> pairs++;
+
+    @Setup
+    public void scatter()
+    {
+        grid = new SpatialHashGrid(0, 0, MatchSimulation.ARENA_WIDTH, MatchSimulation.ARENA_HEIGHT, cellSize);
+        Random random = new Random(42); // Same layout on every run.
+        x = new double[items];
+        y = new double[items];
+        for (int i = 0; i < items; i++)
+        {
+            x[i] = random.nextDouble() * (MatchSimulation.ARENA_WIDTH - ITEM_SIZE);
+            y[i] = random.nextDouble() * (MatchSimulation.ARENA_HEIGHT - ITEM_SIZE);
+        }
+    }
+
+    @Benchmark
+    public int rebuildAndPair()
+    {
+        grid.clear();
+        for (int i = 0; i < items; i++)
+        {
+            grid.insert(i, x[i], y[i], x[i] + ITEM_SIZE, y[i] + ITEM_SIZE);
+        }
+        grid.build();
+        pairs = 0;
+        grid.forEachPair(countPairs);
+        return pairs;
+    }
+}
@@ -0,0 +1,89 @@
+package FightingGame.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import FightingGame.Fighter;
+import FightingGame.MatchSimulation;
+import FightingGame.PlayerInput;
+import FightingGame.SpectatorFeed;
+import FightingGame.SpectatorView;
+
+/**
+ * Cost of broadcasting a busy match to spectators: one tick of the match from
+ * MatchTickBenchmark (fighters moving every tick, projectiles spawning and clashing), then
+ * publishing it to in-process spectator views that decode and acknowledge every frame.
+ * The frame is encoded once per tick, so the growth from 1 to 1000 viewers is the cost of
+ * handing it out and of the viewers' own decoding.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpectatorFeedBenchmark
+{
+    private static final double LANE_X = 250; // Projectiles fly up and down here, between the fighters.
+
+    @Param({ "1", "100", "1000" })
+    public int viewers;
+
+    private MatchSimulation match;
+    private SpectatorFeed feed;
+    private SpectatorView[] views;
+
+    @Setup(Level.Iteration)
+    public void newMatch()
+    {
+        Fighter player1 = new Fighter("Bench 1", 100, 10, 5, "Heal", 100, 200);
+        Fighter player2 = new Fighter("Bench 2", 100, 10, 5, "Heal", 450, 200);
+        match = new MatchSimulation(player1, player2);
+        match.setVerbose(false);
+        int capacity = match.getProjectiles().getCapacity();
+        feed = new SpectatorFeed(capacity);
+        views = new SpectatorView[viewers];
+        for (int i = 0; i < viewers; i++)
+        {
+            views[i] = new SpectatorView(match.getTickRate(), capacity);
+            views[i].attach(feed);
+        }
+    }
+
+    @Benchmark
+    public long tickAndBroadcast()
+    {
+        if (match.isOver())
+        {
+            newMatch();
+        }
+
+        long direction = (match.getTickCount() / match.getTickRate()) % 2 == 0 ? PlayerInput.UP : PlayerInput.DOWN;
+        match.setInput(0, direction);
+        match.setInput(1, direction ^ (PlayerInput.UP | PlayerInput.DOWN));
+        if (match.getProjectilesRemaining(0) > 0)
+        {
+            match.launchProjectile(0, LANE_X, MatchSimulation.BOUNDARY_TOP, LANE_X, MatchSimulation.BOUNDARY_BOTTOM, 10, 3);
+        }
+        if (match.getProjectilesRemaining(1) > 0)
+        {
+            match.launchProjectile(1, LANE_X, MatchSimulation.BOUNDARY_BOTTOM, LANE_X, MatchSimulation.BOUNDARY_TOP, 10, 3);
+        }
+
+        match.tick();
+        feed.publish(match);
+        return views[0].getTick();
+    }
+}
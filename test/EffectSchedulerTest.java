@@ -0,0 +1,116 @@
+package FightingGame;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class EffectSchedulerTest
+{
+    // Records fired effects as "kind:target:amount".
+    private final List<String> fired = new ArrayList<>();
+    private final EffectScheduler.Handler recorder = (kind, target, amount) -> fired.add(kind + ":" + target + ":" + (int) amount);
+
+    @Test
+    void firesInDueOrderAndTiesInSchedulingOrder()
+    {
+        EffectScheduler effects = new EffectScheduler(16);
+        effects.schedule(EffectScheduler.HEAL, 0, 1, 30);
+        effects.schedule(EffectScheduler.HEAL, 0, 2, 10);
+        effects.schedule(EffectScheduler.HEAL, 1, 3, 20);
+        effects.schedule(EffectScheduler.HEAL, 1, 4, 10);
+        effects.schedule(EffectScheduler.HEAL, 0, 5, 20);
+
+        effects.runDue(30, recorder);
+
+        assertEquals(List.of("8:0:2", "8:1:4", "8:1:3", "8:0:5", "8:0:1"), fired);
+        assertEquals(0, effects.size());
+    }
+
+    @Test
+    void firesOnlyEffectsThatAreDue()
+    {
+        EffectScheduler effects = new EffectScheduler(16);
+        effects.schedule(EffectScheduler.STUN_END, 0, 1, 5);
+        effects.schedule(EffectScheduler.STUN_END, 0, 2, 6);
+
+        effects.runDue(4, recorder);
+        assertTrue(fired.isEmpty());
+        effects.runDue(5, recorder);
+        assertEquals(List.of("6:0:1"), fired);
+        assertEquals(1, effects.size());
+    }
+
+    @Test
+    void effectsScheduledWhileFiringRunOnTheSameTickIfDue()
+    {
+        EffectScheduler effects = new EffectScheduler(16);
+        effects.schedule(EffectScheduler.ATTACK_HIT, 0, 1, 3);
+        effects.runDue(3, (kind, target, amount) ->
+        {
+            fired.add(kind + ":" + target + ":" + (int) amount);
+            if (kind == EffectScheduler.ATTACK_HIT)
+            {
+                effects.schedule(EffectScheduler.ATTACK_RECOVERED, target, 2, 3);
+                effects.schedule(EffectScheduler.ATTACK_RECOVERED, target, 3, 4);
+            }
+        });
+
+        assertEquals(List.of("0:0:1", "1:0:2"), fired);
+        assertEquals(1, effects.size());
+    }
+
+    @Test
+    void cancelRemovesOnlyThatEffect()
+    {
+        EffectScheduler effects = new EffectScheduler(16);
+        long first = effects.schedule(EffectScheduler.HEAL, 0, 1, 10);
+        long second = effects.schedule(EffectScheduler.HEAL, 0, 2, 5);
+        effects.schedule(EffectScheduler.HEAL, 0, 3, 7);
+
+        assertTrue(effects.cancel(second));
+        assertFalse(effects.cancel(second));
+        effects.runDue(10, recorder);
+
+        assertEquals(List.of("8:0:3", "8:0:1"), fired);
+        assertFalse(effects.cancel(first));
+    }
+
+    @Test
+    void cancelAllDropsEveryPendingEffect()
+    {
+        EffectScheduler effects = new EffectScheduler(16);
+        for (int i = 0; i < 10; i++)
+        {
+            effects.schedule(EffectScheduler.INVISIBLE_END, i % 2, i, i + 1);
+        }
+
+        effects.cancelAll();
+        effects.runDue(100, recorder);
+
+        assertEquals(0, effects.size());
+        assertTrue(fired.isEmpty());
+
+        // The queue is still usable, and new effects keep their order.
+        effects.schedule(EffectScheduler.HEAL, 0, 2, 50);
+        effects.schedule(EffectScheduler.HEAL, 1, 1, 40);
+        effects.runDue(100, recorder);
+        assertEquals(List.of("8:1:1", "8:0:2"), fired);
+    }
+
+    @Test
+    void fullQueueRefusesAndCountsEffects()
+    {
+        EffectScheduler effects = new EffectScheduler(2);
+        effects.schedule(EffectScheduler.HEAL, 0, 1, 1);
+        effects.schedule(EffectScheduler.HEAL, 0, 2, 2);
+
+        assertEquals(-1, effects.schedule(EffectScheduler.HEAL, 0, 3, 3));
+        assertEquals(1, effects.getDropped());
+        assertEquals(2, effects.size());
+    }
+}
@@ -0,0 +1,87 @@
+package FightingGame;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class GameDefinitionsTest
+{
+    @TempDir
+    Path folder;
+
+    // Copies the shipped data files into the test folder, replacing one line unless it is null.
+    private void writeData(String fileName, String line, String replacement) throws IOException
+    {
+        for (String name : new String[] { GameDefinitions.CHARACTERS_FILE, GameDefinitions.ABILITIES_FILE })
+        {
+            String text = Files.readString(Paths.get(GameConfig.DATA_DIR, name));
+            if (name.equals(fileName) && line != null)
+            {
+                assertTrue(text.contains(line), name + " should contain \"" + line + "\".");
+                text = text.replace(line, replacement);
+            }
+            Files.writeString(folder.resolve(name), text);
+        }
+    }
+
+    private void assertRejected(String fileName, String line, String replacement, String reason) throws IOException
+    {
+        writeData(fileName, line, replacement);
+        IOException error = assertThrows(IOException.class, () -> GameDefinitions.load(folder), replacement);
+        assertTrue(error.getMessage().contains(reason), error.getMessage());
+    }
+
+    @Test
+    void shippedDataLoads() throws IOException
+    {
+        writeData(GameDefinitions.ABILITIES_FILE, null, null);
+        GameDefinitions definitions = GameDefinitions.load(folder);
+
+        assertEquals(CharacterRoster.size(), definitions.getCharacters().size());
+        assertEquals(2.0, definitions.findAbility("flame_rush").getArgument(0, 0));
+    }
+
+    @Test
+    void healTooShortForOneStepIsRejected() throws IOException
+    {
+        assertRejected(GameDefinitions.ABILITIES_FILE, "healOverTime 0.04 10000", "healOverTime 0.04 999", "must last from 1000");
+    }
+
+    @Test
+    void zeroMultiplierIsRejected() throws IOException
+    {
+        assertRejected(GameDefinitions.ABILITIES_FILE, "boostAttack 2 6000", "boostAttack 0 6000", "greater than 0");
+        assertRejected(GameDefinitions.ABILITIES_FILE, "speedSurge 1.2 4000", "speedSurge -1.2 4000", "greater than 0");
+    }
+
+    @Test
+    void nonFiniteNumbersAreRejected() throws IOException
+    {
+        assertRejected(GameDefinitions.ABILITIES_FILE, "amplify 1.1 5000", "amplify NaN 5000", "bad number");
+        assertRejected(GameDefinitions.ABILITIES_FILE, "invisible 5000", "invisible Infinity", "bad number");
+    }
+
+    @Test
+    void negativeDurationsAndCooldownsAreRejected() throws IOException
+    {
+        assertRejected(GameDefinitions.ABILITIES_FILE, "stunOpponent 2000", "stunOpponent -2000", "must last from 0");
+        assertRejected(GameDefinitions.ABILITIES_FILE, "flame_rush.cooldown = 10000", "flame_rush.cooldown = -1", "must not be negative");
+    }
+
+    @Test
+    void unknownColorIsRejected() throws IOException
+    {
+        assertRejected(GameDefinitions.CHARACTERS_FILE, "blaze.color = darkred", "blaze.color = darkredd", "not a color");
+        assertRejected(GameDefinitions.CHARACTERS_FILE, "blaze.color = darkred", "blaze.color = #12345", "not a color");
+        writeData(GameDefinitions.CHARACTERS_FILE, "blaze.color = darkred", "blaze.color = #8B0000");
+        assertEquals("#8B0000", GameDefinitions.load(folder).getCharacter(0).getColor());
+    }
+}
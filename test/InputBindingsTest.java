@@ -0,0 +1,71 @@
+package FightingGame;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import javafx.scene.input.KeyCode;
+
+class InputBindingsTest
+{
+    private final InputRingBuffer queue = new InputRingBuffer(64);
+
+    // Drains the queue as "player:actions:press|release".
+    private List<String> events()
+    {
+        List<String> events = new ArrayList<>();
+        queue.drain((player, actions, pressed, timestampNanos) -> events.add(player + ":" + actions + ":" + (pressed ? "press" : "release")));
+        return events;
+    }
+
+    @Test
+    void actionBoundToTwoKeysIsHeldUntilBothAreReleased()
+    {
+        InputBindings bindings = new InputBindings();
+        bindings.bind(0, KeyCode.X, PlayerInput.ATTACK);
+        bindings.bind(0, KeyCode.SPACE, PlayerInput.ATTACK);
+
+        bindings.keyPressed(KeyCode.X, queue, 1);
+        bindings.keyPressed(KeyCode.SPACE, queue, 2);
+        bindings.keyReleased(KeyCode.X, queue, 3);
+        assertEquals(PlayerInput.ATTACK, bindings.getState(0));
+
+        bindings.keyReleased(KeyCode.SPACE, queue, 4);
+        assertEquals(0, bindings.getState(0));
+        assertEquals(List.of("0:" + PlayerInput.ATTACK + ":press", "0:" + PlayerInput.ATTACK + ":release"), events());
+    }
+
+    @Test
+    void releasingAKeyKeepsTheActionsOfItsOtherBindings()
+    {
+        InputBindings bindings = new InputBindings();
+        bindings.bind(0, KeyCode.Q, PlayerInput.UP | PlayerInput.LEFT); // A diagonal key.
+        bindings.bind(0, KeyCode.W, PlayerInput.UP);
+
+        bindings.keyPressed(KeyCode.W, queue, 1);
+        bindings.keyPressed(KeyCode.Q, queue, 2);
+        bindings.keyReleased(KeyCode.Q, queue, 3);
+
+        assertEquals(PlayerInput.UP, bindings.getState(0));
+        assertEquals(List.of("0:" + PlayerInput.UP + ":press", "0:" + PlayerInput.LEFT + ":press",
+            "0:" + PlayerInput.LEFT + ":release"), events());
+    }
+
+    @Test
+    void releaseAllForgetsHeldKeys()
+    {
+        InputBindings bindings = new InputBindings();
+        bindings.bind(1, KeyCode.J, PlayerInput.ATTACK);
+        bindings.bind(1, KeyCode.H, PlayerInput.ATTACK);
+
+        bindings.keyPressed(KeyCode.J, queue, 1);
+        bindings.releaseAll();
+        bindings.keyPressed(KeyCode.H, queue, 2);
+        bindings.keyReleased(KeyCode.H, queue, 3);
+
+        assertEquals(0, bindings.getState(1));
+    }
+}
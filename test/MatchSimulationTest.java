@@ -0,0 +1,116 @@
+package FightingGame;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class MatchSimulationTest
+{
+    private static final int TICK_RATE = 64; // A tick of 1/64 s, exact in binary.
+    private static final double TICK = 1.0 / TICK_RATE;
+
+    private static MatchSimulation newMatch()
+    {
+        MatchSimulation match = new MatchSimulation(
+            new Fighter("Test 1", 100, 10, 5, "Heal", MatchSimulation.PLAYER1_START_X, MatchSimulation.START_Y),
+            new Fighter("Test 2", 100, 10, 5, "Heal", MatchSimulation.PLAYER2_START_X, MatchSimulation.START_Y),
+            TICK_RATE, 1);
+        match.setVerbose(false);
+        return match;
+    }
+
+    @Test
+    void stepRunsWholeTicksAndCarriesTheRemainder()
+    {
+        MatchSimulation match = newMatch();
+
+        assertEquals(1, match.step(1.5 * TICK));
+        assertEquals(0.5, match.getInterpolationAlpha());
+        assertEquals(1, match.step(0.5 * TICK));
+        assertEquals(0, match.step(0.25 * TICK));
+        assertEquals(2, match.getTickCount());
+        assertEquals(2 * 1000 / TICK_RATE, match.getTimeMillis());
+    }
+
+    @Test
+    void stepCatchesUpAtMostAQuarterSecond()
+    {
+        MatchSimulation match = newMatch();
+
+        assertEquals(TICK_RATE / 4, match.step(10));
+        assertEquals(TICK_RATE / 4, match.getTickCount());
+    }
+
+    @Test
+    void heldDirectionMovesTheFighterEveryTick()
+    {
+        MatchSimulation match = newMatch();
+        Fighter fighter = match.getPlayer1();
+
+        match.setInput(0, PlayerInput.RIGHT);
+        match.tick();
+        double stride = fighter.getX() - MatchSimulation.PLAYER1_START_X;
+        assertTrue(stride > 0);
+        match.tick();
+        assertEquals(MatchSimulation.PLAYER1_START_X + 2 * stride, fighter.getX(), 1e-9);
+        assertEquals(MatchSimulation.START_Y, fighter.getY());
+
+        match.setInput(0, 0);
+        match.tick();
+        assertEquals(MatchSimulation.PLAYER1_START_X + 2 * stride, fighter.getX(), 1e-9);
+    }
+
+    @Test
+    void fightersStayInsideTheArena()
+    {
+        MatchSimulation match = newMatch();
+        match.setInput(0, PlayerInput.LEFT | PlayerInput.UP);
+        match.setInput(1, PlayerInput.RIGHT | PlayerInput.DOWN);
+        for (int i = 0; i < 10 * TICK_RATE; i++)
+        {
+            match.tick();
+        }
+
+        assertTrue(match.getPlayer1().getX() >= MatchSimulation.BOUNDARY_LEFT);
+        assertTrue(match.getPlayer1().getY() >= MatchSimulation.BOUNDARY_TOP);
+        assertTrue(match.getPlayer2().getX() <= MatchSimulation.BOUNDARY_RIGHT);
+        assertTrue(match.getPlayer2().getY() <= MatchSimulation.BOUNDARY_BOTTOM);
+    }
+
+    @Test
+    void matchEndsAtTheTimeLimitAndThenStopsTicking()
+    {
+        MatchSimulation match = newMatch();
+        long limit = (long) (MatchSimulation.MATCH_DURATION_SECONDS * TICK_RATE);
+        while (!match.isOver())
+        {
+            match.tick();
+        }
+
+        assertEquals(limit, match.getTickCount());
+        assertEquals(0, match.getTimeRemaining());
+        long checksum = match.checksum();
+        match.tick();
+        match.step(1);
+        assertEquals(limit, match.getTickCount());
+        assertEquals(checksum, match.checksum());
+    }
+
+    @Test
+    void knockoutEndsTheMatchOnTheNextTick()
+    {
+        MatchSimulation match = newMatch();
+        match.tick();
+        assertFalse(match.isOver());
+
+        match.getPlayer2().takeDamage(1_000_000);
+        match.tick();
+
+        assertTrue(match.isOver());
+        assertSame(match.getPlayer1(), match.getWinner());
+        assertEquals(2, match.getTickCount());
+    }
+}
@@ -0,0 +1,101 @@
+package FightingGame;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class MatchSnapshotTest
+{
+    private static final long SEED = 12345;
+
+    private static MatchSimulation newMatch()
+    {
+        MatchSimulation match = new MatchSimulation(
+            CharacterRoster.createFighter(0, MatchSimulation.PLAYER1_START_X, MatchSimulation.START_Y),
+            CharacterRoster.createFighter(1 % CharacterRoster.size(), MatchSimulation.PLAYER2_START_X, MatchSimulation.START_Y),
+            GameConfig.TICK_RATE, SEED);
+        match.setVerbose(false);
+        return match;
+    }
+
+    // Plays ticks with bot inputs and a projectile from each side now and then, so fighters,
+    // projectiles, effects and the random generator all change.
+    private static void play(MatchSimulation match, BotController bot, int ticks)
+    {
+        for (int i = 0; i < ticks && !match.isOver(); i++)
+        {
+            long tick = match.getTickCount() + 1;
+            match.setInput(0, bot.inputFor(match, 0, tick));
+            match.setInput(1, bot.inputFor(match, 1, tick));
+            if (tick % 15 == 0)
+            {
+                match.launchProjectile(0, 150, 120 + tick % 200, 500, 330 - tick % 200, 8, 4);
+                match.launchProjectile(1, 450, 330 - tick % 200, 100, 120 + tick % 200, 8, 4);
+            }
+            match.tick();
+        }
+    }
+
+    @Test
+    void restoreReturnsToTheSavedChecksum()
+    {
+        MatchSimulation match = newMatch();
+        BotController bot = new BotController(1);
+        play(match, bot, 300);
+        MatchSnapshot snapshot = new MatchSnapshot(match);
+        match.saveState(snapshot);
+        long saved = match.checksum();
+
+        play(match, bot, 120);
+        assertNotEquals(saved, match.checksum());
+
+        match.restoreState(snapshot);
+        assertEquals(saved, match.checksum());
+        assertEquals(300, match.getTickCount());
+    }
+
+    @Test
+    void replayingFromASnapshotReachesTheSameState()
+    {
+        MatchSimulation match = newMatch();
+        play(match, new BotController(2), 200);
+        MatchSnapshot snapshot = new MatchSnapshot(match);
+        match.saveState(snapshot);
+
+        play(match, new BotController(3), 240);
+        long first = match.checksum();
+        int projectiles = match.getProjectiles().getCount();
+
+        match.restoreState(snapshot);
+        play(match, new BotController(3), 240);
+
+        assertEquals(first, match.checksum());
+        assertEquals(projectiles, match.getProjectiles().getCount());
+    }
+
+    @Test
+    void snapshotMovesStateBetweenMatchesWithTheSameLayout()
+    {
+        MatchSimulation source = newMatch();
+        play(source, new BotController(4), 250);
+        MatchSnapshot snapshot = new MatchSnapshot(source);
+        source.saveState(snapshot);
+
+        MatchSimulation copy = newMatch();
+        copy.restoreState(snapshot);
+        assertEquals(source.checksum(), copy.checksum());
+
+        play(source, new BotController(5), 100);
+        play(copy, new BotController(5), 100);
+        assertEquals(source.checksum(), copy.checksum());
+    }
+
+    @Test
+    void restoringAnEmptySnapshotFails()
+    {
+        MatchSimulation match = newMatch();
+        assertThrows(IllegalStateException.class, () -> match.restoreState(new MatchSnapshot(match)));
+    }
+}
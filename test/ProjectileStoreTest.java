@@ -0,0 +1,106 @@
+package FightingGame;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class ProjectileStoreTest
+{
+    // Launches a projectile at (x, 0) flying right.
+    private static int launchAt(ProjectileStore store, int owner, double x)
+    {
+        return store.launch(owner, x, 0, x + 1, 0, 5, 1);
+    }
+
+    // Counts the live projectiles of an owner slot by slot.
+    private static int recount(ProjectileStore store, int owner)
+    {
+        int count = 0;
+        for (int slot = 0; slot < store.getCount(); slot++)
+        {
+            if (store.getOwner(slot) == owner)
+            {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    void removeMovesTheLastProjectileIntoTheFreedSlot()
+    {
+        ProjectileStore store = new ProjectileStore(8, 2);
+        launchAt(store, 0, 10);
+        launchAt(store, 1, 20);
+        launchAt(store, 0, 30);
+        launchAt(store, 1, 40);
+
+        store.remove(1);
+
+        assertEquals(3, store.getCount());
+        assertEquals(3, store.getId(1)); // The last projectile, launched fourth.
+        assertEquals(40, store.getX(1));
+        assertEquals(1, store.getOwner(1));
+        assertEquals(0, store.getId(0));
+        assertEquals(2, store.getId(2));
+        assertEquals(2, store.getOwnerCount(0));
+        assertEquals(1, store.getOwnerCount(1));
+    }
+
+    @Test
+    void removingTheLastSlotOnlyShrinks()
+    {
+        ProjectileStore store = new ProjectileStore(8, 2);
+        launchAt(store, 0, 10);
+        launchAt(store, 1, 20);
+
+        store.remove(1);
+
+        assertEquals(1, store.getCount());
+        assertEquals(0, store.getId(0));
+        assertEquals(1, store.getOwnerCount(0));
+        assertEquals(0, store.getOwnerCount(1));
+    }
+
+    @Test
+    void ownerCountsFollowCulling()
+    {
+        ProjectileStore store = new ProjectileStore(64, 2);
+        MatchRandom random = new MatchRandom(7);
+        for (int i = 0; i < 40; i++)
+        {
+            launchAt(store, i % 3 == 0 ? 1 : 0, random.nextDouble() * 200);
+        }
+
+        int removed = store.cullOutside(0, -1, 100, 1);
+
+        assertEquals(40 - removed, store.getCount());
+        for (int slot = 0; slot < store.getCount(); slot++)
+        {
+            assertTrue(store.getX(slot) <= 100, "Slot " + slot + " should have been culled.");
+        }
+        assertEquals(recount(store, 0), store.getOwnerCount(0));
+        assertEquals(recount(store, 1), store.getOwnerCount(1));
+    }
+
+    @Test
+    void fullStoreRefusesLaunchesAndClearResetsCounts()
+    {
+        ProjectileStore store = new ProjectileStore(3, 2);
+        launchAt(store, 0, 1);
+        launchAt(store, 0, 2);
+        launchAt(store, 1, 3);
+
+        assertEquals(-1, launchAt(store, 1, 4));
+        assertEquals(1, store.getDropped());
+        assertEquals(3, store.getLaunched());
+
+        store.clear();
+
+        assertEquals(0, store.getCount());
+        assertEquals(0, store.getOwnerCount(0));
+        assertEquals(0, store.getOwnerCount(1));
+        assertEquals(0, launchAt(store, 1, 5));
+    }
+}
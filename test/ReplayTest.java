@@ -0,0 +1,135 @@
+package FightingGame;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ReplayTest
+{
+    private static final long SEED = 2024;
+    private static final long ALL_ACTIONS = (1L << PlayerInput.ACTION_COUNT) - 1;
+
+    @TempDir
+    Path folder;
+
+    @Test
+    void recordedMatchReplaysToTheSameState() throws IOException
+    {
+        Path file = folder.resolve("match.sovr");
+        MatchSimulation recorded = new MatchSimulation(
+            CharacterRoster.createFighter(0, MatchSimulation.PLAYER1_START_X, MatchSimulation.START_Y),
+            CharacterRoster.createFighter(1 % CharacterRoster.size(), MatchSimulation.PLAYER2_START_X, MatchSimulation.START_Y),
+            GameConfig.TICK_RATE, SEED);
+        recorded.setVerbose(false);
+        BotController bot = new BotController(SEED);
+        recorded.setInputSource((match, tick) ->
+        {
+            bot.supplyInputs(match, tick);
+            if (tick >= 500 && tick < 560)
+            {
+                match.setInput(0, ALL_ACTIONS); // Changes that need two varint bytes.
+            }
+            if (tick >= 700 && tick < 1000)
+            {
+                match.setInput(1, 0); // A long gap, so the tick delta needs two varint bytes too.
+            }
+        });
+        try (ReplayWriter writer = new ReplayWriter(file, SEED, GameConfig.TICK_RATE, 0, 1 % CharacterRoster.size()))
+        {
+            recorded.setReplayWriter(writer);
+            while (!recorded.isOver())
+            {
+                recorded.tick();
+            }
+        }
+
+        ReplayReader replay = ReplayReader.read(file);
+        assertEquals(SEED, replay.getSeed());
+        assertEquals(recorded.getTickCount(), replay.getEndTick());
+        assertEquals(Files.size(file), replay.getFileBytes());
+
+        MatchSimulation replayed = ReplayPlayer.createHeadlessMatch(replay);
+        assertFalse(replayed.isVerbose(), "Headless playback should not print combat messages.");
+        while (!replayed.isOver())
+        {
+            replayed.tick();
+        }
+        assertEquals(recorded.getTickCount(), replayed.getTickCount());
+        assertEquals(recorded.checksum(), replayed.checksum());
+    }
+
+    @Test
+    void changesAndEndMarkerRoundTrip() throws IOException
+    {
+        Path file = folder.resolve("changes.sovr");
+        try (ReplayWriter writer = new ReplayWriter(file, -1, 60, 3, 4))
+        {
+            writer.recordInput(1, 0, ALL_ACTIONS); // XOR of 255: two bytes.
+            writer.recordInput(1, 1, PlayerInput.UP);
+            writer.recordInput(2, 1, PlayerInput.UP); // Unchanged; not stored.
+            writer.recordInput(5000, 1, PlayerInput.PROJECTILE); // Tick delta of 4999: two bytes.
+            writer.recordInput(5001, 0, 0);
+            writer.recordEnd(20_000); // Tick delta of 14999: three bytes.
+            writer.recordInput(20_001, 0, PlayerInput.LEFT); // After the end; ignored.
+        }
+
+        ReplayReader replay = ReplayReader.read(file);
+        assertEquals(-1, replay.getSeed());
+        assertEquals(60, replay.getTickRate());
+        assertEquals(3, replay.getPick(0));
+        assertEquals(4, replay.getPick(1));
+        assertEquals(4, replay.getChangeCount());
+        long[][] expected = { { 1, 0, ALL_ACTIONS }, { 1, 1, PlayerInput.UP }, { 5000, 1, PlayerInput.PROJECTILE }, { 5001, 0, 0 } };
+        for (int i = 0; i < expected.length; i++)
+        {
+            assertEquals(expected[i][0], replay.getChangeTick(i), "tick of change " + i);
+            assertEquals(expected[i][1], replay.getChangePlayer(i), "player of change " + i);
+            assertEquals(expected[i][2], replay.getChangeInput(i), "input of change " + i);
+        }
+        assertEquals(20_000, replay.getEndTick());
+
+        // Header: magic, version, seed and three one-byte varints. Then each record's two varints,
+        // the third's input being UP XOR PROJECTILE (129), and the end.
+        assertEquals(4 + 1 + 8 + 3 + (1 + 2) + (1 + 1) + (2 + 2) + (1 + 2) + (3 + 1), replay.getFileBytes());
+    }
+
+    @Test
+    void replayWithoutAnEndStillLoads() throws IOException
+    {
+        Path file = folder.resolve("unfinished.sovr");
+        try (ReplayWriter writer = new ReplayWriter(file, 7, 60, 0, 0))
+        {
+            writer.recordInput(10, 0, PlayerInput.ATTACK);
+        }
+
+        ReplayReader replay = ReplayReader.read(file);
+        assertEquals(1, replay.getChangeCount());
+        assertEquals(-1, replay.getEndTick());
+    }
+
+    @Test
+    void truncatedReplayIsRejected() throws IOException
+    {
+        Path file = folder.resolve("cut.sovr");
+        try (ReplayWriter writer = new ReplayWriter(file, 7, 60, 0, 0))
+        {
+            writer.recordInput(10, 0, ALL_ACTIONS);
+            writer.recordEnd(20);
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        byte[] cut = Arrays.copyOf(bytes, bytes.length - 3); // Ends inside the two-byte input varint.
+
+        IOException error = assertThrows(IOException.class, () -> ReplayReader.decode(ByteBuffer.wrap(cut), "cut"));
+        assertTrue(error.getMessage().contains("truncated"));
+    }
+}
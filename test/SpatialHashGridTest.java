@@ -0,0 +1,104 @@
+package FightingGame;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class SpatialHashGridTest
+{
+    // Pairs as "low-high", so (a, b) and (b, a) are the same pair.
+    private static String pair(int a, int b)
+    {
+        return Math.min(a, b) + "-" + Math.max(a, b);
+    }
+
+    @Test
+    void itemsSharingManyCellsArePairedOnce()
+    {
+        SpatialHashGrid grid = new SpatialHashGrid(0, 0, 100, 100, 10);
+        grid.insert(0, 5, 5, 55, 55); // Spans 6 x 6 cells.
+        grid.insert(1, 15, 15, 75, 45); // Shares 4 x 4 of them.
+        grid.build();
+
+        List<String> pairs = new ArrayList<>();
+        grid.forEachPair((a, b) -> pairs.add(pair(a, b)));
+
+        assertEquals(List.of("0-1"), pairs);
+    }
+
+    @Test
+    void everyOverlappingPairIsReportedExactlyOnce()
+    {
+        SpatialHashGrid grid = new SpatialHashGrid(0, 0, 600, 450, 32);
+        MatchRandom random = new MatchRandom(42);
+        int items = 300;
+        double[][] boxes = new double[items][];
+        for (int id = 0; id < items; id++)
+        {
+            double size = 4 + random.nextDouble() * 80;
+            double minX = random.nextDouble() * 600 - 20; // Some boxes stick out of the grid.
+            double minY = random.nextDouble() * 450 - 20;
+            boxes[id] = new double[] { minX, minY, minX + size, minY + size };
+            grid.insert(id, minX, minY, minX + size, minY + size);
+        }
+        grid.build();
+
+        List<String> reported = new ArrayList<>();
+        grid.forEachPair((a, b) -> reported.add(pair(a, b)));
+        Set<String> unique = new HashSet<>(reported);
+        assertEquals(unique.size(), reported.size(), "A pair was reported more than once.");
+
+        for (int a = 0; a < items; a++)
+        {
+            for (int b = a + 1; b < items; b++)
+            {
+                boolean overlap = boxes[a][0] <= boxes[b][2] && boxes[b][0] <= boxes[a][2]
+                    && boxes[a][1] <= boxes[b][3] && boxes[b][1] <= boxes[a][3];
+                if (overlap)
+                {
+                    assertTrue(unique.contains(pair(a, b)), "Overlapping pair " + pair(a, b) + " was missed.");
+                }
+            }
+        }
+    }
+
+    @Test
+    void boxQueryReportsEachItemOnce()
+    {
+        SpatialHashGrid grid = new SpatialHashGrid(0, 0, 100, 100, 10);
+        grid.insert(7, 0, 0, 95, 95); // In every cell.
+        grid.insert(3, 42, 42, 44, 44);
+        grid.insert(9, 90, 0, 99, 5); // Outside the query.
+        grid.build();
+
+        List<Integer> found = new ArrayList<>();
+        grid.forEachInBox(20, 20, 60, 60, found::add);
+        found.sort(null);
+
+        assertEquals(List.of(3, 7), found);
+    }
+
+    @Test
+    void rebuildingAfterClearForgetsOldItems()
+    {
+        SpatialHashGrid grid = new SpatialHashGrid(0, 0, 100, 100, 10);
+        grid.insert(0, 10, 10, 20, 20);
+        grid.insert(1, 12, 12, 22, 22);
+        grid.build();
+        grid.clear();
+        grid.insert(2, 50, 50, 60, 60);
+        grid.insert(3, 80, 80, 90, 90);
+        grid.build();
+
+        List<String> pairs = new ArrayList<>();
+        grid.forEachPair((a, b) -> pairs.add(pair(a, b)));
+
+        assertTrue(pairs.isEmpty());
+    }
+}
@@ -0,0 +1,230 @@
+package FightingGame;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SpectatorFeedTest
+{
+    private static final double LANE_X = 250; // Projectiles fly up and down here, between the fighters.
+
+    private MatchSimulation match;
+    private int capacity;
+    private SpectatorState expected; // The match captured after the last tick, as the feed sees it.
+    private SpectatorState previousExpected;
+
+    @BeforeEach
+    void busyMatch()
+    {
+        match = new MatchSimulation(
+            new Fighter("Test 1", 100, 10, 5, "Heal", 100, 200),
+            new Fighter("Test 2", 100, 10, 5, "Heal", 450, 200), 60, 99);
+        match.setVerbose(false);
+        capacity = match.getProjectiles().getCapacity();
+        expected = new SpectatorState(capacity);
+        previousExpected = new SpectatorState(capacity);
+    }
+
+    // One tick with the fighters moving and projectiles spawning, then captures the reference state.
+    private void tick()
+    {
+        long direction = (match.getTickCount() / 20) % 2 == 0 ? PlayerInput.UP : PlayerInput.DOWN;
+        match.setInput(0, direction | PlayerInput.ATTACK);
+        match.setInput(1, direction ^ (PlayerInput.UP | PlayerInput.DOWN));
+        if (match.getTickCount() % 7 == 0)
+        {
+            match.launchProjectile(0, LANE_X, MatchSimulation.BOUNDARY_TOP, LANE_X, MatchSimulation.BOUNDARY_BOTTOM, 10, 3);
+            match.launchProjectile(1, LANE_X, MatchSimulation.BOUNDARY_BOTTOM, LANE_X, MatchSimulation.BOUNDARY_TOP, 10, 3);
+        }
+        match.tick();
+
+        SpectatorState swap = previousExpected;
+        previousExpected = expected;
+        expected = swap;
+        expected.capture(match, previousExpected);
+    }
+
+    // Keeps a copy of every frame, as a network client would receive them.
+    private static final class Recorder implements SpectatorFeed.Subscriber
+    {
+        final List<ByteBuffer> frames = new ArrayList<>();
+
+        @Override
+        public void receive(ByteBuffer frame)
+        {
+            ByteBuffer copy = ByteBuffer.allocate(frame.remaining());
+            copy.put(frame).flip();
+            frames.add(copy);
+        }
+
+        ByteBuffer last()
+        {
+            return frames.get(frames.size() - 1).duplicate();
+        }
+    }
+
+    // Ticks back to the baseline, 0 for a keyframe.
+    private static long ticksBack(ByteBuffer frame)
+    {
+        ByteBuffer header = frame.duplicate();
+        SpectatorState.getVarint(header);
+        return SpectatorState.getVarint(header);
+    }
+
+    private void assertViewShows(SpectatorView view, SpectatorState state)
+    {
+        assertEquals(state.tick, view.getTick());
+        for (int p = 0; p < 2; p++)
+        {
+            int[] fields = state.fighters[p];
+            assertEquals((double) fields[SpectatorState.FIELD_X] / SpectatorState.POSITION_SCALE, view.getFighterX(p));
+            assertEquals((double) fields[SpectatorState.FIELD_Y] / SpectatorState.POSITION_SCALE, view.getFighterY(p));
+            assertEquals((double) fields[SpectatorState.FIELD_HEALTH] / SpectatorState.HEALTH_SCALE, view.getHealth(p));
+            assertEquals((double) fields[SpectatorState.FIELD_SHIELD] / SpectatorState.SHIELD_SCALE, view.getShieldLevel(p));
+            int flags = fields[SpectatorState.FIELD_FLAGS];
+            assertEquals((flags & SpectatorState.ATTACKING) != 0, view.isAttacking(p));
+            assertEquals((flags & SpectatorState.WINDING_UP) != 0, view.isWindingUp(p));
+            assertEquals((flags & SpectatorState.SHIELD_ACTIVE) != 0, view.isShieldActive(p));
+            assertEquals((flags & SpectatorState.SHIELD_AVAILABLE) != 0, view.isShieldAvailable(p));
+            assertEquals((flags & SpectatorState.STUNNED) != 0, view.isStunned(p));
+            assertEquals((flags & SpectatorState.INVISIBLE) != 0, view.isInvisible(p));
+        }
+        assertEquals(state.projectileCount, view.getProjectileCount());
+        for (int i = 0; i < state.projectileCount; i++)
+        {
+            double seconds = (double) (state.tick - state.firstSeen[i]) / match.getTickRate();
+            assertEquals(state.projectileIds[i], view.getProjectileId(i));
+            assertEquals(state.owners[i], view.getProjectileOwner(i));
+            assertEquals(state.radii[i], view.getProjectileRadius(i));
+            assertEquals((state.startX[i] + state.velocityX[i] * seconds) / SpectatorState.POSITION_SCALE, view.getProjectileX(i));
+            assertEquals((state.startY[i] + state.velocityY[i] * seconds) / SpectatorState.POSITION_SCALE, view.getProjectileY(i));
+        }
+    }
+
+    @Test
+    void keyframeAndDeltasDecodeToTheCapturedState()
+    {
+        SpectatorFeed feed = new SpectatorFeed(capacity);
+        Recorder recorder = new Recorder();
+        SpectatorFeed.Subscription subscription = feed.subscribe(recorder);
+        SpectatorView view = new SpectatorView(match.getTickRate(), capacity);
+
+        int deltas = 0;
+        int projectilesSeen = 0;
+        for (int i = 0; i < 300; i++)
+        {
+            tick();
+            feed.publish(match);
+            ByteBuffer frame = recorder.last();
+            if (i == 0)
+            {
+                assertEquals(0, ticksBack(frame), "The first frame must be a keyframe.");
+            }
+            else if (ticksBack(frame) > 0)
+            {
+                deltas++;
+            }
+            subscription.ack(view.decode(frame));
+            assertViewShows(view, expected);
+            projectilesSeen = Math.max(projectilesSeen, view.getProjectileCount());
+        }
+
+        assertEquals(299, deltas);
+        assertEquals(1, feed.getKeyframesEncoded());
+        assertTrue(projectilesSeen > 2, "The match should have had projectiles in flight.");
+    }
+
+    @Test
+    void laggingSubscriberIsSentAKeyframe()
+    {
+        SpectatorFeed feed = new SpectatorFeed(capacity);
+        Recorder recorder = new Recorder();
+        SpectatorFeed.Subscription subscription = feed.subscribe(recorder);
+        SpectatorView view = new SpectatorView(match.getTickRate(), capacity);
+
+        tick();
+        feed.publish(match);
+        subscription.ack(view.decode(recorder.last()));
+        for (int i = 0; i < SpectatorFeed.HISTORY + 5; i++) // Stops acknowledging.
+        {
+            tick();
+            feed.publish(match);
+        }
+
+        ByteBuffer frame = recorder.last();
+        assertEquals(0, ticksBack(frame));
+        view.decode(frame);
+        assertViewShows(view, expected);
+    }
+
+    @Test
+    void deltaWithoutItsBaselineIsRejected()
+    {
+        SpectatorFeed feed = new SpectatorFeed(capacity);
+        Recorder recorder = new Recorder();
+        SpectatorFeed.Subscription subscription = feed.subscribe(recorder);
+        SpectatorView view = new SpectatorView(match.getTickRate(), capacity);
+        for (int i = 0; i < 10; i++)
+        {
+            tick();
+            feed.publish(match);
+            subscription.ack(view.decode(recorder.last()));
+        }
+        ByteBuffer delta = recorder.last();
+        assertTrue(ticksBack(delta) > 0);
+
+        SpectatorView late = new SpectatorView(match.getTickRate(), capacity); // Never saw the baseline.
+        assertThrows(IllegalArgumentException.class, () -> late.decode(delta.duplicate()));
+    }
+
+    @Test
+    void stateRoundTripsAgainstAnyBaseline()
+    {
+        SpectatorState baseline = new SpectatorState(capacity);
+        for (int i = 0; i < 40; i++)
+        {
+            tick();
+        }
+        baseline.copyFrom(expected);
+        for (int i = 0; i < 40; i++)
+        {
+            tick();
+        }
+
+        for (SpectatorState from : new SpectatorState[] { baseline, new SpectatorState(capacity) })
+        {
+            ByteBuffer out = ByteBuffer.allocate(2048);
+            expected.encodeDelta(from, out);
+            out.flip();
+            SpectatorState decoded = new SpectatorState(capacity);
+            decoded.decodeDelta(from, expected.tick, out);
+
+            assertEquals(0, out.remaining());
+            assertEquals(expected.tick, decoded.tick);
+            for (int p = 0; p < 2; p++)
+            {
+                assertArrayEquals(expected.fighters[p], decoded.fighters[p]);
+            }
+            assertEquals(expected.projectileCount, decoded.projectileCount);
+            for (int i = 0; i < expected.projectileCount; i++)
+            {
+                assertEquals(expected.projectileIds[i], decoded.projectileIds[i]);
+                assertEquals(expected.owners[i], decoded.owners[i]);
+                assertEquals(expected.firstSeen[i], decoded.firstSeen[i]);
+                assertEquals(expected.startX[i], decoded.startX[i]);
+                assertEquals(expected.startY[i], decoded.startY[i]);
+                assertEquals(expected.velocityX[i], decoded.velocityX[i]);
+                assertEquals(expected.velocityY[i], decoded.velocityY[i]);
+                assertEquals(expected.radii[i], decoded.radii[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package FightingGame;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+import org.junit.jupiter.api.Test;
+
+class UdpInputTransportTest
+{
+    private static final int TICKS = 600;
+
+    @Test
+    void everyInputArrivesOnceDespiteLossAndReordering() throws IOException, InterruptedException
+    {
+        InetSocketAddress localhost = new InetSocketAddress("127.0.0.1", 0);
+        try (UdpInputHub hub1 = new UdpInputHub(localhost, 4);
+             UdpInputHub hub2 = new UdpInputHub(localhost, 4))
+        {
+            hub1.simulateNetwork(2, 3, 0.2, 1);
+            hub2.simulateNetwork(2, 3, 0.2, 2);
+            UdpInputTransport a = hub1.open(3, hub2.getAddress());
+            UdpInputTransport b = hub2.open(3, hub1.getAddress());
+
+            long[] fromA = new long[TICKS + 1]; // a's input as b received it, by tick; ticks start at 1.
+            long[] fromB = new long[TICKS + 1];
+            int[] countA = new int[TICKS + 1];
+            int[] countB = new int[TICKS + 1];
+            int receivedA = 0;
+            int receivedB = 0;
+            long deadline = System.nanoTime() + 10_000_000_000L;
+            for (long tick = 1; (receivedA < TICKS || receivedB < TICKS) && System.nanoTime() < deadline; tick++)
+            {
+                long sent = Math.min(tick, TICKS);
+                a.sendInput(sent, sent & 0xFF); // Every bit pattern of the eight actions.
+                b.sendInput(sent, ~sent & 0xFF);
+                receivedA += b.poll((t, input) ->
+                {
+                    fromA[(int) t] = input;
+                    countA[(int) t]++;
+                });
+                receivedB += a.poll((t, input) ->
+                {
+                    fromB[(int) t] = input;
+                    countB[(int) t]++;
+                });
+                Thread.sleep(1);
+            }
+
+            for (int tick = 1; tick <= TICKS; tick++)
+            {
+                assertEquals(1, countA[tick], "deliveries of a's tick " + tick);
+                assertEquals(1, countB[tick], "deliveries of b's tick " + tick);
+                assertEquals(tick & 0xFF, fromA[tick]);
+                assertEquals(~tick & 0xFF, fromB[tick]);
+            }
+            assertTrue(hub1.getPacketsDropped() + hub2.getPacketsDropped() > 0, "The shim should have dropped packets.");
+            a.close();
+            b.close();
+        }
+    }
+}